@@ -1,28 +1,30 @@
 package com.czh.jvm.hotspot.src.share.vm.classfile;
 
-import cn.hutool.core.io.FileUtil;
 import com.czh.jvm.hotspot.src.share.vm.oops.InstanceKlass;
+import com.czh.jvm.hotspot.src.share.vm.runtime.Globals;
 
-import java.io.File;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
 /**
- * 根类加载器
+ * 类加载的入口
+ *
+ * 虚拟机中有两个类加载器，都是ClassLoaderData：
+ *  boot  根类加载器，加载路径为Globals.BootClassPath
+ *  app   应用类加载器，加载路径为Globals.ClassPath或启动参数-cp，先委派给boot
+ * 这里的方法都从app开始加载，按双亲委派由boot或app完成
  */
 public class BootClassLoader {
-    public static final String SUFFIX = ".class";
+    public static final String SUFFIX = ClassLoaderData.SUFFIX;
 
-    //类加载器的加载路径
-    private static String searchPath = "/Users/zhchen/Downloads/My_JVM_Source/target/classes/";
+    private static final ClassLoaderData bootLoader = new ClassLoaderData("boot", null, Globals.BootClassPath);
 
-
-    //用于存储该类加载器加载的所有类
-    private static Map<String, InstanceKlass> classLoaderData = new HashMap<>();
+    private static final ClassLoaderData appLoader = new ClassLoaderData("app", bootLoader, Globals.ClassPath);
 
 
     //main函数所在的类在此保存一份引用，方便快速定位到，实际中hotspot源码并没有这么设计，我这里是为了简便
-    private static InstanceKlass mainKlass = null;
+    private static volatile InstanceKlass mainKlass = null;
 
     //加载Main类通过调用LoadKlass方法
     public static InstanceKlass loadMainKlass(String name) {
@@ -33,49 +35,50 @@ public class BootClassLoader {
         return loadKlass(name);
     }
 
+    /**
+     * 根据类名加载类，类名用'.'或'/'分隔都可以。同一个类只会解析一次，多个线程同时加载时等待先开始的那个
+     */
     public static InstanceKlass loadKlass(String name) {
-        return loadKlass(name, true);
+        return appLoader.loadKlass(name);
     }
 
-    //根据类名加载方法
-    public static InstanceKlass loadKlass(String name, Boolean resolve) {
-        //从classLoaderData找到方法的名字
-        InstanceKlass klass = findLoadedKlass(name);
-        if (null != klass) {
-            return klass;
-        }
-
-        //解析字节码
-        klass = readAndParse(name);
-
-        if (resolve) {
-            resolveKlass();
-        }
-
-        return klass;
+    /**
+     * 设置应用类加载路径，多个路径用File.pathSeparator分隔，可以是目录或jar包
+     */
+    public static void setClassPath(String path) {
+        appLoader.setClassPath(path);
     }
 
-    private static InstanceKlass readAndParse(String name) {
-        String tmpName = name.replace('.', '/');
-        String filePath = searchPath + tmpName + SUFFIX;
+    /**
+     * 当前的应用类加载路径，共享存档用它判断存档是否还能用
+     */
+    public static String getClassPathString() {
+        return appLoader.getClassPathString();
+    }
 
-        // 读取字节码文件
-        byte[] content = FileUtil.readBytes(new File(filePath));
+    public static InstanceKlass findLoadedKlass(String name) {
+        return appLoader.findLoadedKlass(name);
+    }
 
-        // 解析字节码文件
-        InstanceKlass klass = ClassFileParser.parseClassFile(content);
+    /**
+     * 所有类加载器加载的类
+     */
+    public static Collection<InstanceKlass> getLoadedKlasses() {
+        List<InstanceKlass> klasses = new ArrayList<>();
 
-        // 存入
-        classLoaderData.put(name, klass);
+        for (ClassLoaderData loader = appLoader; null != loader; loader = loader.getParent()) {
+            klasses.addAll(loader.getDefinedKlasses());
+        }
 
-        return klass;
+        return klasses;
     }
 
-    public static InstanceKlass findLoadedKlass(String name) {
-        return classLoaderData.get(name);
+    public static ClassLoaderData getBootLoader() {
+        return bootLoader;
     }
 
-    private static void resolveKlass() {
+    public static ClassLoaderData getAppLoader() {
+        return appLoader;
     }
 
     public static void setMainKlass(InstanceKlass mainKlass) {
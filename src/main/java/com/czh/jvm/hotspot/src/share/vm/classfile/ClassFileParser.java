@@ -1,121 +1,102 @@
 package com.czh.jvm.hotspot.src.share.vm.classfile;
 
 import com.czh.jvm.hotspot.src.share.tools.DataTranslate;
-import com.czh.jvm.hotspot.src.share.tools.Stream;
 import com.czh.jvm.hotspot.src.share.vm.interpreter.BytecodeStream;
 import com.czh.jvm.hotspot.src.share.vm.oops.*;
+import com.czh.jvm.hotspot.src.share.vm.runtime.Globals;
 import com.czh.jvm.hotspot.src.share.vm.utilities.AccessFlags;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
 
 public class ClassFileParser {
 
     private static Logger logger = LoggerFactory.getLogger(ClassFileParser.class);
 
-    public static InstanceKlass parseClassFile(byte[] content) {
-        int index = 0;
+    /**
+     * 解析类文件。content可以是映射的文件，直接在原缓冲区上读取，不拷贝
+     */
+    public static InstanceKlass parseClassFile(ByteBuffer content) {
+        ClassFileStream stream = new ClassFileStream(content);
         InstanceKlass klass = new InstanceKlass();
-        byte[] u2Arr = new byte[2];
-        byte[] u4Arr = new byte[4];
 
         // 魔数 4B
-        Stream.readU4Simple(content, 0, klass.getMagic());
-        index += 4;
+        stream.getBytes(klass.getMagic());
 
         // 次版本号 2B
-        Stream.readU2Simple(content, index, klass.getMinorVersion());
-        index += 2;
+        stream.getBytes(klass.getMinorVersion());
 
         // 主版本号 2B
-        Stream.readU2Simple(content, index, klass.getMajorVersion());
-        index += 2;
+        stream.getBytes(klass.getMajorVersion());
 
         // 常量池大小 2B
-        Stream.readU2Simple(content, index, u2Arr);
-        index += 2;
-
-        klass.getConstantPool().setLength(DataTranslate.byteToUnsignedShort(u2Arr));
+        klass.getConstantPool().setLength(stream.getU2());
 
         klass.getConstantPool().initContainer();
 
         // 常量池 N字节
-        index = parseConstantPool(content, klass, index);
+        parseConstantPool(stream, klass);
 
         // 类的访问权限 2B
-        Stream.readU2Simple(content, index, u2Arr);
-        index += 2;
-
-        klass.setAccessFlag(DataTranslate.byteToUnsignedShort(u2Arr));
+        klass.setAccessFlag(stream.getU2());
 
         // 类名 2B
-        Stream.readU2Simple(content, index, u2Arr);
-        index += 2;
-
-        klass.setThisClass(DataTranslate.byteToUnsignedShort(u2Arr));
+        klass.setThisClass(stream.getU2());
 
         // 父类名 2B
-        Stream.readU2Simple(content, index, u2Arr);
-        index += 2;
-
-        klass.setSuperClass(DataTranslate.byteToUnsignedShort(u2Arr));
+        klass.setSuperClass(stream.getU2());
 
         // 实现的接口个数 2B
-        Stream.readU2Simple(content, index, u2Arr);
-        index += 2;
-
-        klass.setInterfacesLength(DataTranslate.byteToUnsignedShort(u2Arr));
+        klass.setInterfacesLength(stream.getU2());
 
         // 实现的接口
         if (0 != klass.getInterfacesLength()) {
             logger.info("开始解析实现的接口信息: ");
 
-            index = parseInterface(content, klass, index);
+            parseInterface(stream, klass);
         }
 
         // 属性数量 2B
-        Stream.readU2Simple(content, index, u2Arr);
-        index += 2;
-
-        klass.setFieldsLength(DataTranslate.byteToUnsignedShort(u2Arr));
+        klass.setFieldsLength(stream.getU2());
 
         // 属性
-        index = parseFields(content, klass, index);
+        parseFields(stream, klass);
 
         // 方法数量 2B
-        Stream.readU2Simple(content, index, u2Arr);
-        index += 2;
-
-        klass.setMethodLength(DataTranslate.byteToUnsignedShort(u2Arr));
+        klass.setMethodLength(stream.getU2());
 
         klass.initMethodsContainer();
 
         // 方法
-        index = parseMethods(content, klass, index);
+        parseMethods(stream, klass);
 
-        // 属性数量
-        Stream.readU2Simple(content, index, u2Arr);
-        index += 2;
+        // 方法、字段的查找表
+        klass.initLookupTables();
 
-        klass.setAttributeLength(DataTranslate.byteToUnsignedShort(u2Arr));
+        // 属性数量
+        klass.setAttributeLength(stream.getU2());
 
         logger.info("开始解析类的属性，数量: " + klass.getAttributeLength());
 
         // 属性
         for (int i = 0; i < klass.getAttributeLength(); i++) {
-            Stream.readU2Simple(content, index, u2Arr);
-
-            String attrName = (String) klass.getConstantPool().getDataMap().get(DataTranslate.byteToUnsignedShort(u2Arr));
-            if (attrName.equals("SourceFile")) {
-                index = parseSourceFile(content, index, klass, attrName);
-            } else if (attrName.equals("InnerClasses")) {
-                index = parseInnerClasses(content, index, klass, attrName);
-            } else if (attrName.equals("BootstrapMethods")) {
-                index = parseBootstrapMethods(content, index, klass, attrName);
-            } else if (attrName.equals("RuntimeInvisibleAnnotations")) {
-                index = parseRuntimeInvisibleAnnotations(content, index, klass, attrName);
-            } else if (attrName.equals("RuntimeVisibleAnnotations")) {
-                index = parseRuntimeVisibleAnnotations(content, index, klass, attrName);
+            // 属性名都是VmSymbols中的符号，直接按引用比较
+            Symbol attrSymbol = klass.getConstantPool().getSymbol(stream.peekU2());
+            String attrName = attrSymbol.asString();
+            if (VmSymbols.SOURCE_FILE == attrSymbol) {
+                parseSourceFile(stream, klass, attrName);
+            } else if (VmSymbols.INNER_CLASSES == attrSymbol) {
+                parseInnerClasses(stream, klass, attrName);
+            } else if (VmSymbols.BOOTSTRAP_METHODS == attrSymbol) {
+                parseBootstrapMethods(stream, klass, attrName);
+            } else if (VmSymbols.RUNTIME_INVISIBLE_ANNOTATIONS == attrSymbol) {
+                parseRuntimeInvisibleAnnotations(stream, klass, attrName);
+            } else if (VmSymbols.RUNTIME_VISIBLE_ANNOTATIONS == attrSymbol) {
+                parseRuntimeVisibleAnnotations(stream, klass, attrName);
             } else {
                 throw new Error("无法识别的类属性: " + attrName);
             }
@@ -124,31 +105,20 @@ public class ClassFileParser {
         return klass;
     }
 
-    private static int parseRuntimeVisibleAnnotations(byte[] content, int index, InstanceKlass klass, String attrName) {
-        byte[] u2Arr = new byte[2];
-        byte[] u4Arr = new byte[4];
+    private static void parseRuntimeVisibleAnnotations(ClassFileStream stream, InstanceKlass klass, String attrName) {
 
         RuntimeVisibleAnnotations attributeInfo = new RuntimeVisibleAnnotations();
         klass.getAttributeInfos().put(attrName, attributeInfo);
 
         // name index
-        Stream.readU2Simple(content, index, u2Arr);
-        index += 2;
-
-        attributeInfo.setAttrNameIndex(DataTranslate.byteToUnsignedShort(u2Arr));
-        attributeInfo.setAttrName((String) klass.getConstantPool().getDataMap().get(attributeInfo.getAttrNameIndex()));
+        attributeInfo.setAttrNameIndex(stream.getU2());
+        attributeInfo.setAttrName(klass.getConstantPool().getUtf8(attributeInfo.getAttrNameIndex()));
 
         // length
-        Stream.readU4Simple(content, index, u4Arr);
-        index += 4;
-
-        attributeInfo.setAttrLength(DataTranslate.byteArrayToInt(u4Arr));
+        attributeInfo.setAttrLength(stream.getU4());
 
         // annotations num
-        Stream.readU2Simple(content, index, u2Arr);
-        index += 2;
-
-        attributeInfo.setAnnotationsNum(DataTranslate.byteToUnsignedShort(u2Arr));
+        attributeInfo.setAnnotationsNum(stream.getU2());
 
         // annotations
         for (int i = 0; i < attributeInfo.getAnnotationsNum(); i++) {
@@ -156,17 +126,11 @@ public class ClassFileParser {
             attributeInfo.getAnnotations().add(annotation);
 
             // type index
-            Stream.readU2Simple(content, index, u2Arr);
-            index += 2;
-
-            annotation.setTypeIndex(DataTranslate.byteToUnsignedShort(u2Arr));
-            annotation.setTypeStr((String) klass.getConstantPool().getDataMap().get(annotation.getTypeIndex()));
+            annotation.setTypeIndex(stream.getU2());
+            annotation.setTypeStr(klass.getConstantPool().getUtf8(annotation.getTypeIndex()));
 
             // elements num
-            Stream.readU2Simple(content, index, u2Arr);
-            index += 2;
-
-            annotation.setElementsNum(DataTranslate.byteToUnsignedShort(u2Arr));
+            annotation.setElementsNum(stream.getU2());
 
             if (0 != annotation.getElementsNum()) {
                 throw new Error("未做处理");
@@ -176,35 +140,22 @@ public class ClassFileParser {
                     + ", name: " + annotation.getTypeStr()
                     + ", length: " + annotation.getElementsNum());
         }
-
-        return index;
     }
 
-    private static int parseRuntimeInvisibleAnnotations(byte[] content, int index, InstanceKlass klass, String attrName) {
-        byte[] u2Arr = new byte[2];
-        byte[] u4Arr = new byte[4];
+    private static void parseRuntimeInvisibleAnnotations(ClassFileStream stream, InstanceKlass klass, String attrName) {
 
         RuntimeInvisibleAnnotations attributeInfo = new RuntimeInvisibleAnnotations();
         klass.getAttributeInfos().put(attrName, attributeInfo);
 
         // name index
-        Stream.readU2Simple(content, index, u2Arr);
-        index += 2;
-
-        attributeInfo.setAttrNameIndex(DataTranslate.byteToUnsignedShort(u2Arr));
-        attributeInfo.setAttrName((String) klass.getConstantPool().getDataMap().get(attributeInfo.getAttrNameIndex()));
+        attributeInfo.setAttrNameIndex(stream.getU2());
+        attributeInfo.setAttrName(klass.getConstantPool().getUtf8(attributeInfo.getAttrNameIndex()));
 
         // length
-        Stream.readU4Simple(content, index, u4Arr);
-        index += 4;
-
-        attributeInfo.setAttrLength(DataTranslate.byteArrayToInt(u4Arr));
+        attributeInfo.setAttrLength(stream.getU4());
 
         // annotations num
-        Stream.readU2Simple(content, index, u2Arr);
-        index += 2;
-
-        attributeInfo.setAnnotationsNum(DataTranslate.byteToUnsignedShort(u2Arr));
+        attributeInfo.setAnnotationsNum(stream.getU2());
 
         // annotations
         for (int i = 0; i < attributeInfo.getAnnotationsNum(); i++) {
@@ -212,17 +163,11 @@ public class ClassFileParser {
             attributeInfo.getAnnotations().add(annotation);
 
             // type index
-            Stream.readU2Simple(content, index, u2Arr);
-            index += 2;
-
-            annotation.setTypeIndex(DataTranslate.byteToUnsignedShort(u2Arr));
-            annotation.setTypeStr((String) klass.getConstantPool().getDataMap().get(annotation.getTypeIndex()));
+            annotation.setTypeIndex(stream.getU2());
+            annotation.setTypeStr(klass.getConstantPool().getUtf8(annotation.getTypeIndex()));
 
             // elements num
-            Stream.readU2Simple(content, index, u2Arr);
-            index += 2;
-
-            annotation.setElementsNum(DataTranslate.byteToUnsignedShort(u2Arr));
+            annotation.setElementsNum(stream.getU2());
 
             if (0 != annotation.getElementsNum()) {
                 throw new Error("未做处理");
@@ -232,36 +177,23 @@ public class ClassFileParser {
                     + ", name: " + annotation.getTypeStr()
                     + ", length: " + annotation.getElementsNum());
         }
-
-        return index;
     }
 
 
-    private static int parseBootstrapMethods(byte[] content, int index, InstanceKlass klass, String attrName) {
-        byte[] u2Arr = new byte[2];
-        byte[] u4Arr = new byte[4];
+    private static void parseBootstrapMethods(ClassFileStream stream, InstanceKlass klass, String attrName) {
 
         BootstrapMethods bootstrapMethods = new BootstrapMethods();
         klass.getAttributeInfos().put(attrName, bootstrapMethods);
 
         // name index
-        Stream.readU2Simple(content, index, u2Arr);
-        index += 2;
-
-        bootstrapMethods.setAttrNameIndex(DataTranslate.byteToUnsignedShort(u2Arr));
-        bootstrapMethods.setAttrName((String) klass.getConstantPool().getDataMap().get(bootstrapMethods.getAttrNameIndex()));
+        bootstrapMethods.setAttrNameIndex(stream.getU2());
+        bootstrapMethods.setAttrName(klass.getConstantPool().getUtf8(bootstrapMethods.getAttrNameIndex()));
 
         // length
-        Stream.readU4Simple(content, index, u4Arr);
-        index += 4;
-
-        bootstrapMethods.setAttrLength(DataTranslate.byteArrayToInt(u4Arr));
+        bootstrapMethods.setAttrLength(stream.getU4());
 
         // inner classes num
-        Stream.readU2Simple(content, index, u2Arr);
-        index += 2;
-
-        bootstrapMethods.setNumBootstrapMethods(DataTranslate.byteToUnsignedShort(u2Arr));
+        bootstrapMethods.setNumBootstrapMethods(stream.getU2());
 
         logger.info("\t 第 " + klass.getAttributeInfos().size() + " 个属性: " +
                 "name: " + bootstrapMethods.getAttrName()
@@ -272,55 +204,33 @@ public class ClassFileParser {
             bootstrapMethods.getBootstrapMethods().add(item);
 
             // bootstrap method ref
-            Stream.readU2Simple(content, index, u2Arr);
-            index += 2;
-
-            item.setBootstrapMethodRef(DataTranslate.byteToUnsignedShort(u2Arr));
+            item.setBootstrapMethodRef(stream.getU2());
 
             // num bootstrap arguments
-            Stream.readU2Simple(content, index, u2Arr);
-            index += 2;
-
-            item.setNumBootstrapArguments(DataTranslate.byteToUnsignedShort(u2Arr));
+            item.setNumBootstrapArguments(stream.getU2());
             item.initContainter();
 
             // bootstrap arguments
             for (int j = 0; j < item.getNumBootstrapArguments(); j++) {
-                Stream.readU2Simple(content, index, u2Arr);
-                index += 2;
-
-                item.getBootstrapArguments()[j] = DataTranslate.byteToUnsignedShort(u2Arr);
+                item.getBootstrapArguments()[j] = stream.getU2();
             }
         }
-
-        return index;
     }
 
-    private static int parseInnerClasses(byte[] content, int index, InstanceKlass klass, String attrName) {
-        byte[] u2Arr = new byte[2];
-        byte[] u4Arr = new byte[4];
+    private static void parseInnerClasses(ClassFileStream stream, InstanceKlass klass, String attrName) {
 
         InnerClasses innerClasses = new InnerClasses();
         klass.getAttributeInfos().put(attrName, innerClasses);
 
         // name index
-        Stream.readU2Simple(content, index, u2Arr);
-        index += 2;
-
-        innerClasses.setAttrNameIndex(DataTranslate.byteToUnsignedShort(u2Arr));
-        innerClasses.setAttrName((String) klass.getConstantPool().getDataMap().get(innerClasses.getAttrNameIndex()));
+        innerClasses.setAttrNameIndex(stream.getU2());
+        innerClasses.setAttrName(klass.getConstantPool().getUtf8(innerClasses.getAttrNameIndex()));
 
         // length
-        Stream.readU4Simple(content, index, u4Arr);
-        index += 4;
-
-        innerClasses.setAttrLength(DataTranslate.byteArrayToInt(u4Arr));
+        innerClasses.setAttrLength(stream.getU4());
 
         // inner classes num
-        Stream.readU2Simple(content, index, u2Arr);
-        index += 2;
-
-        innerClasses.setNumOfClasses(DataTranslate.byteToUnsignedShort(u2Arr));
+        innerClasses.setNumOfClasses(stream.getU2());
 
         logger.info("\t 第 " + klass.getAttributeInfos().size() + " 个属性: " +
                 "name: " + innerClasses.getAttrName()
@@ -331,48 +241,30 @@ public class ClassFileParser {
             innerClasses.getClasses().add(item);
 
             // inner class info index
-            Stream.readU2Simple(content, index, u2Arr);
-            index += 2;
-
-            item.setInterClassInfoIndex(DataTranslate.byteToUnsignedShort(u2Arr));
+            item.setInterClassInfoIndex(stream.getU2());
 
             // outer class info index
-            Stream.readU2Simple(content, index, u2Arr);
-            index += 2;
-
-            item.setOuterClassInfoIndex(DataTranslate.byteToUnsignedShort(u2Arr));
+            item.setOuterClassInfoIndex(stream.getU2());
 
             // inner class index
-            Stream.readU2Simple(content, index, u2Arr);
-            index += 2;
-
-            item.setInnerNameIndex(DataTranslate.byteToUnsignedShort(u2Arr));
+            item.setInnerNameIndex(stream.getU2());
 
             // access flags
-            Stream.readU2Simple(content, index, u2Arr);
-            index += 2;
-
-            item.setAccessFlags(new AccessFlags(DataTranslate.byteToUnsignedShort(u2Arr)));
+            item.setAccessFlags(new AccessFlags(stream.getU2()));
 
             logger.info("\t\t inner class index: " + item.getInterClassInfoIndex()
                     + ", outer class index: " + item.getOuterClassInfoIndex()
                     + ", inner name index: " + item.getInnerNameIndex()
                     + ", access flag: " + item.getAccessFlags().getFlag());
         }
-
-        return index;
     }
 
 
 
-    private static int parseInterface(byte[] content, InstanceKlass klass, int index) {
-        byte[] u2Arr = new byte[2];
+    private static void parseInterface(ClassFileStream stream, InstanceKlass klass) {
 
         for (int i = 0; i < klass.getInterfacesLength(); i++) {
-            Stream.readU2Simple(content, index, u2Arr);
-            index += 2;
-
-            int val = DataTranslate.byteToUnsignedShort(u2Arr);
+            int val = stream.getU2();
             String name = klass.getConstantPool().getClassName(val);
 
             InterfaceInfo interfaceInfo = new InterfaceInfo(val, name);
@@ -380,50 +272,35 @@ public class ClassFileParser {
 
             logger.info("\t 第 " + (i + 1) + " 个接口: " + name);
         }
-
-        return index;
     }
 
-    private static int parseSourceFile(byte[] content, int index, InstanceKlass klass, String attrName) {
-        byte[] u2Arr = new byte[2];
-        byte[] u4Arr = new byte[4];
+    private static void parseSourceFile(ClassFileStream stream, InstanceKlass klass, String attrName) {
 
         AttributeInfo attributeInfo = new AttributeInfo();
 
         klass.getAttributeInfos().put(attrName, attributeInfo);
 
         // name index
-        Stream.readU2Simple(content, index, u2Arr);
-        index += 2;
-
-        attributeInfo.setAttrNameIndex(DataTranslate.byteToUnsignedShort(u2Arr));
+        attributeInfo.setAttrNameIndex(stream.getU2());
 
         // length
-        Stream.readU4Simple(content, index, u4Arr);
-        index += 4;
-
-        attributeInfo.setAttrLength(DataTranslate.byteArrayToInt(u4Arr));
+        attributeInfo.setAttrLength(stream.getU4());
 
         attributeInfo.initContainer();
 
         // data
-        Stream.readU2Simple(content, index, attributeInfo.getContainer());
-        index += 2;
+        stream.getBytes(attributeInfo.getContainer());
 
-        logger.info("\t第 " + klass.getAttributeInfos().size() + " 个属性: " + klass.getConstantPool().getDataMap().get(attributeInfo.getAttrNameIndex())
+        logger.info("\t第 " + klass.getAttributeInfos().size() + " 个属性: " + klass.getConstantPool().getUtf8(attributeInfo.getAttrNameIndex())
                 + ", name index: " + attributeInfo.getAttrNameIndex()
                 + ", length: " + attributeInfo.getAttrLength()
                 + ", data: " + DataTranslate.byteToUnsignedShort(attributeInfo.getContainer())
-                + "( " + klass.getConstantPool().getDataMap().get(DataTranslate.byteToUnsignedShort(attributeInfo.getContainer())) + " )"
+                + "( " + klass.getConstantPool().getEntries()[DataTranslate.byteToUnsignedShort(attributeInfo.getContainer())] + " )"
         );
-
-        return index;
     }
 
-    private static int parseMethods(byte[] content, InstanceKlass klass, int index) {
+    private static void parseMethods(ClassFileStream stream, InstanceKlass klass) {
         for (int i = 0; i < klass.getMethodLength(); i++) {
-            byte[] u2Arr = new byte[2];
-            byte[] u4Arr = new byte[4];
 
             MethodInfo methodInfo = new MethodInfo();
 
@@ -432,37 +309,27 @@ public class ClassFileParser {
             klass.getMethods()[i] = methodInfo;
 
             // access flag
-            Stream.readU2Simple(content, index, u2Arr);
-            index += 2;
-
-            methodInfo.setAccessFlags(new AccessFlags(DataTranslate.byteToUnsignedShort(u2Arr)));
+            methodInfo.setAccessFlags(new AccessFlags(stream.getU2()));
 
             // name index
-            Stream.readU2Simple(content, index, u2Arr);
-            index += 2;
-
-            methodInfo.setNameIndex(DataTranslate.byteToUnsignedShort(u2Arr));
-            methodInfo.setMethodName((String) methodInfo.getBelongKlass().getConstantPool().getDataMap().get(methodInfo.getNameIndex()));
+            methodInfo.setNameIndex(stream.getU2());
+            methodInfo.setNameSymbol(klass.getConstantPool().getSymbol(methodInfo.getNameIndex()));
+            methodInfo.setMethodName(methodInfo.getNameSymbol().asString());
 
             logger.info("解析方法: " + methodInfo.getMethodName());
 
             // descriptor index
-            Stream.readU2Simple(content, index, u2Arr);
-            index += 2;
-
-            methodInfo.setDescriptorIndex(DataTranslate.byteToUnsignedShort(u2Arr));
+            methodInfo.setDescriptorIndex(stream.getU2());
+            methodInfo.setDescriptorSymbol(klass.getConstantPool().getSymbol(methodInfo.getDescriptorIndex()));
 
             // 解析出参数个数、参数类型、返回值类型
-            DescriptorStream2 stream = new DescriptorStream2((String) methodInfo.getBelongKlass().getConstantPool().getDataMap().get(methodInfo.getDescriptorIndex()));
-            stream.parseMethod();
+            DescriptorStream2 descriptorStream = new DescriptorStream2(methodInfo.getDescriptorSymbol().asString());
+            descriptorStream.parseMethod();
 
-            methodInfo.setDescriptor(stream);
+            methodInfo.setDescriptor(descriptorStream);
 
             // attribute count
-            Stream.readU2Simple(content, index, u2Arr);
-            index += 2;
-
-            methodInfo.setAttributesCount(DataTranslate.byteToUnsignedShort(u2Arr));
+            methodInfo.setAttributesCount(stream.getU2());
 
             methodInfo.initAttributeContainer();
 
@@ -472,89 +339,89 @@ public class ClassFileParser {
                     + ", attribute count: " + methodInfo.getAttributesCount()
             );
 
-            // 解析方法属性
-            if (1 != methodInfo.getAttributesCount()) {
+            // 解析方法属性，抽象方法、本地方法没有属性
+            if (methodInfo.getAttributesCount() > 1) {
                 throw new Error("方法的属性不止一个");
             }
 
             // 解析方法属性
             for (int j = 0; j < methodInfo.getAttributesCount(); j++) {
                 // attr name index
-                Stream.readU2Simple(content, index, u2Arr);
-
-                String attrName = (String) methodInfo.getBelongKlass().getConstantPool().getDataMap()
-                        .get(DataTranslate.byteToUnsignedShort(u2Arr));
+                Symbol attrName = klass.getConstantPool().getSymbol(stream.peekU2());
 
-                if (attrName.equals("Code")) {
+                if (VmSymbols.CODE == attrName) {
                     logger.info("解析方法属性: Code");
 
-                    index = parseMethodCode(methodInfo, content, index, j);
-                } else if (attrName.equals("Exceptions")) {
+                    if (Globals.LazyMethodParsing) {
+                        skipMethodCode(methodInfo, stream);
+                    } else {
+                        parseMethodCode(methodInfo, stream, j);
+                    }
+                } else if (VmSymbols.EXCEPTIONS == attrName) {
                     logger.info("解析方法属性: Exceptions");
 
-                    index = parseMethodExceptions(methodInfo, content, index, j);
+                    parseMethodExceptions(methodInfo, stream, j);
                 } else {
                     throw new Error("未处理的方法属性: " + attrName);
                 }
             }
 
             // 判断是不是main函数
-            String methodName = (String) klass.getConstantPool().getDataMap().get(methodInfo.getNameIndex());
-            String descriptorName = (String) klass.getConstantPool().getDataMap().get(methodInfo.getDescriptorIndex());
-            if (methodName.equals("main") && descriptorName.equals("([Ljava/lang/String;)V")) {
+            if (VmSymbols.MAIN_NAME == methodInfo.getNameSymbol() && VmSymbols.MAIN_SIGNATURE == methodInfo.getDescriptorSymbol()) {
                 logger.info("定位到main函数所在类");
 
                 BootClassLoader.setMainKlass(klass);
             }
         }
+    }
+
+    /**
+     * 延迟解析：只记下Code属性的位置，跳过属性内容。第一次调用方法时再解析，见MethodInfo.getCodeAttribute
+     */
+    private static void skipMethodCode(MethodInfo methodInfo, ClassFileStream stream) {
+        methodInfo.setClassFile(stream.buffer());
+        methodInfo.setCodeOffset(stream.position());
+
+        // attr name index
+        stream.skip(2);
+
+        // attr length
+        stream.skip(stream.getU4());
+    }
 
-        return index;
+    /**
+     * 解析延迟解析时记下的Code属性。方法只有一个属性，Code属性总是第0个
+     */
+    public static void parseMethodCode(MethodInfo methodInfo, ByteBuffer classFile, int offset) {
+        parseMethodCode(methodInfo, new ClassFileStream(classFile, offset), 0);
     }
 
-    private static int parseMethodCode(MethodInfo methodInfo, byte[] content, int index, int j) {
-        byte[] u2Arr = new byte[2];
-        byte[] u4Arr = new byte[4];
+    private static void parseMethodCode(MethodInfo methodInfo, ClassFileStream stream, int j) {
 
         CodeAttributeInfo attributeInfo = new CodeAttributeInfo();
 
         methodInfo.getAttributes()[j] = attributeInfo;
 
         // attr name index
-        Stream.readU2Simple(content, index, u2Arr);
-        index += 2;
-
-        attributeInfo.setAttrNameIndex(DataTranslate.byteToUnsignedShort(u2Arr));
+        attributeInfo.setAttrNameIndex(stream.getU2());
 
         // attr length
-        Stream.readU4Simple(content, index, u4Arr);
-        index += 4;
-
-        attributeInfo.setAttrLength(DataTranslate.byteArrayToInt(u4Arr));
+        attributeInfo.setAttrLength(stream.getU4());
 
         // max stack
-        Stream.readU2Simple(content, index, u2Arr);
-        index += 2;
-
-        attributeInfo.setMaxStack(DataTranslate.byteToUnsignedShort(u2Arr));
+        attributeInfo.setMaxStack(stream.getU2());
 
         // max locals
-        Stream.readU2Simple(content, index, u2Arr);
-        index += 2;
-
-        attributeInfo.setMaxLocals(DataTranslate.byteToUnsignedShort(u2Arr));
+        attributeInfo.setMaxLocals(stream.getU2());
 
         // code length
-        Stream.readU4Simple(content, index, u4Arr);
-        index += 4;
-
-        attributeInfo.setCodeLength(DataTranslate.byteArrayToInt(u4Arr));
+        attributeInfo.setCodeLength(stream.getU4());
 
         // code
         BytecodeStream bytecodeStream = new BytecodeStream(methodInfo, attributeInfo);
         attributeInfo.setCode(bytecodeStream);
 
-        Stream.readSimple(content, index, attributeInfo.getCodeLength(), bytecodeStream.getCodes());
-        index += attributeInfo.getCodeLength();
+        stream.getBytes(bytecodeStream.getCodes());
 
         logger.info("\t\t第 " + j + " 个属性: access flag: " + methodInfo.getAccessFlags()
                 + ", name index: " + attributeInfo.getAttrNameIndex()
@@ -564,40 +431,56 @@ public class ClassFileParser {
         );
 
         // exception table length
-        Stream.readU2Simple(content, index, u2Arr);
-        index += 2;
-
-        attributeInfo.setExceptionTableLength(DataTranslate.byteToUnsignedShort(u2Arr));
+        attributeInfo.setExceptionTableLength(stream.getU2());
 
         if (0 != attributeInfo.getExceptionTableLength()) {
-            index = parseMethodExceptionTable(content, index, attributeInfo);
+            parseMethodExceptionTable(stream, attributeInfo);
         }
 
         // attributes count
-        Stream.readU2Simple(content, index, u2Arr);
-        index += 2;
+        attributeInfo.setAttributesCount(stream.getU2());
+
+        // 调试用的属性同样只记下位置，第一次用到时再解析，见CodeAttributeInfo.getAttributes
+        if (Globals.LazyMethodParsing) {
+            attributeInfo.setClassFile(stream.buffer());
+            attributeInfo.setConstantPool(methodInfo.getBelongKlass().getConstantPool());
+            attributeInfo.setAttributesOffset(stream.position());
+
+            return;
+        }
+
+        parseCodeAttributes(stream, attributeInfo.getAttributesCount(),
+                methodInfo.getBelongKlass().getConstantPool(), attributeInfo.getAttributes());
+    }
 
-        attributeInfo.setAttributesCount(DataTranslate.byteToUnsignedShort(u2Arr));
+    /**
+     * 解析延迟解析时记下的Code属性的属性
+     */
+    public static Map<String, AttributeInfo> parseCodeAttributes(ByteBuffer classFile, int offset, int count, ConstantPool pool) {
+        Map<String, AttributeInfo> attributes = new HashMap<>();
 
-        for (int k = 0; k < attributeInfo.getAttributesCount(); k++) {
+        parseCodeAttributes(new ClassFileStream(classFile, offset), count, pool, attributes);
+
+        return attributes;
+    }
+
+    private static void parseCodeAttributes(ClassFileStream stream, int count, ConstantPool pool,
+                                            Map<String, AttributeInfo> attributes) {
+        for (int k = 0; k < count; k++) {
             // attr name index
-            Stream.readU2Simple(content, index, u2Arr);
-
-            String attrName = (String) methodInfo.getBelongKlass().getConstantPool().getDataMap().get(DataTranslate.byteToUnsignedShort(u2Arr));
-            if (attrName.equals("LineNumberTable")) {
-                index = parseLineNumberTable(content, index, attrName, attributeInfo);
-            } else if (attrName.equals("LocalVariableTable")) {
-                index = parseLocalVariableTable(content, index, attrName, attributeInfo);
-            } else if (attrName.equals("StackMapTable")) {
-                index = parseStackMapTable(content, index, attrName, attributeInfo);
+            Symbol attrSymbol = pool.getSymbol(stream.peekU2());
+            String attrName = attrSymbol.asString();
+            if (VmSymbols.LINE_NUMBER_TABLE == attrSymbol) {
+                parseLineNumberTable(stream, attrName, attributes);
+            } else if (VmSymbols.LOCAL_VARIABLE_TABLE == attrSymbol) {
+                parseLocalVariableTable(stream, attrName, attributes);
+            } else if (VmSymbols.STACK_MAP_TABLE == attrSymbol) {
+                parseStackMapTable(stream, attrName, attributes);
             }
         }
-
-        return index;
     }
 
-    private static int parseMethodExceptionTable(byte[] content, int index, CodeAttributeInfo attributeInfo) {
-        byte[] u2Arr = new byte[2];
+    private static void parseMethodExceptionTable(ClassFileStream stream, CodeAttributeInfo attributeInfo) {
 
         int length = attributeInfo.getExceptionTableLength();
         for (int i = 0; i < length; i++) {
@@ -605,28 +488,16 @@ public class ClassFileParser {
             attributeInfo.getExceptionTable().add(item);
 
             // start pc
-            Stream.readU2Simple(content, index, u2Arr);
-            index += 2;
-
-            item.setStartPc(DataTranslate.byteToUnsignedShort(u2Arr));
+            item.setStartPc(stream.getU2());
 
             // end pc
-            Stream.readU2Simple(content, index, u2Arr);
-            index += 2;
-
-            item.setEndPc(DataTranslate.byteToUnsignedShort(u2Arr));
+            item.setEndPc(stream.getU2());
 
             // handler pc
-            Stream.readU2Simple(content, index, u2Arr);
-            index += 2;
-
-            item.setHandlerPc(DataTranslate.byteToUnsignedShort(u2Arr));
+            item.setHandlerPc(stream.getU2());
 
             // catch type
-            Stream.readU2Simple(content, index, u2Arr);
-            index += 2;
-
-            item.setCatchType(DataTranslate.byteToUnsignedShort(u2Arr));
+            item.setCatchType(stream.getU2());
 
             logger.info("\t\t\t exceptionTable: "
                     + "start pc: " + item.getStartPc()
@@ -635,35 +506,22 @@ public class ClassFileParser {
                     + ", catch type: " + item.getCatchType()
             );
         }
-
-        return index;
     }
 
 
-    private static int parseMethodExceptions(MethodInfo methodInfo, byte[] content, int index, int j) {
-        byte[] u2Arr = new byte[2];
-        byte[] u4Arr = new byte[4];
+    private static void parseMethodExceptions(MethodInfo methodInfo, ClassFileStream stream, int j) {
 
         Exceptions exceptions = new Exceptions();
         methodInfo.setExceptions(exceptions);
 
         // attr name index
-        Stream.readU2Simple(content, index, u2Arr);
-        index += 2;
-
-        exceptions.setAttrNameIndex(DataTranslate.byteToUnsignedShort(u2Arr));
+        exceptions.setAttrNameIndex(stream.getU2());
 
         // attr length
-        Stream.readU4Simple(content, index, u4Arr);
-        index += 4;
-
-        exceptions.setAttrLength(DataTranslate.byteArrayToInt(u4Arr));
+        exceptions.setAttrLength(stream.getU4());
 
         // exceptions count
-        Stream.readU2Simple(content, index, u2Arr);
-        index += 2;
-
-        exceptions.setExceptionsNum(DataTranslate.byteToUnsignedShort(u2Arr));
+        exceptions.setExceptionsNum(stream.getU2());
 
         logger.info("解析方法属性: Exceptions: "
                 + "attr name index: " + exceptions.getAttrNameIndex()
@@ -673,77 +531,115 @@ public class ClassFileParser {
 
         // exceptions
         for (int i = 0; i < exceptions.getExceptionsNum(); i++) {
-            Stream.readU2Simple(content, index, u2Arr);
-            index += 2;
-
-            exceptions.getExceptions().add(DataTranslate.byteToUnsignedShort(u2Arr));
+            exceptions.getExceptions().add(stream.getU2());
         }
-
-        return index;
     }
 
-    private static int parseStackMapTable(byte[] content,
-                                          int index,
-                                          String attrName,
-                                          CodeAttributeInfo attributeInfo) {
-        byte[] u2Arr = new byte[2];
-        byte[] u4Arr = new byte[4];
+    private static void parseStackMapTable(ClassFileStream stream, String attrName,
+                                          Map<String, AttributeInfo> attributes) {
 
         StackMapTable stackMapTable = new StackMapTable();
 
-        attributeInfo.getAttributes().put(attrName, stackMapTable);
+        attributes.put(attrName, stackMapTable);
 
         // attr name index
-        Stream.readU2Simple(content, index, u2Arr);
-        index += 2;
-
-        stackMapTable.setAttrNameIndex(DataTranslate.byteToUnsignedShort(u2Arr));
+        stackMapTable.setAttrNameIndex(stream.getU2());
 
         // attr len
-        Stream.readU4Simple(content, index, u4Arr);
-        index += 4;
+        stackMapTable.setAttrLength(stream.getU4());
 
-        stackMapTable.setAttrLength(DataTranslate.byteArrayToInt(u4Arr));
+        // number of entries
+        stackMapTable.setNumberOfEntries(stream.getU2());
 
-        // 跳过后面的后面
-        index += stackMapTable.getAttrLength();
+        stackMapTable.initEntries();
 
         logger.info("\t\t\t stackMapTable: "
                 + ", name index: " + stackMapTable.getAttrNameIndex()
                 + ", attr len: " + stackMapTable.getAttrLength()
+                + ", entries: " + stackMapTable.getNumberOfEntries()
         );
 
-        return index;
+        for (int i = 0; i < stackMapTable.getNumberOfEntries(); i++) {
+            StackMapTable.StackMapFrame frame = stackMapTable.new StackMapFrame();
+
+            stackMapTable.getEntries()[i] = frame;
+
+            int frameType = stream.getU1();
+            frame.setFrameType(frameType);
+
+            if (frameType <= StackMapTable.SAME_FRAME_MAX) {
+                // same_frame
+                frame.setOffsetDelta(frameType);
+            } else if (frameType <= StackMapTable.SAME_LOCALS_1_STACK_ITEM_MAX) {
+                // same_locals_1_stack_item_frame
+                frame.setOffsetDelta(frameType - StackMapTable.SAME_FRAME_MAX - 1);
+                frame.setStack(parseVerificationTypes(stream, stackMapTable, 1));
+            } else if (frameType < StackMapTable.SAME_LOCALS_1_STACK_ITEM_EXTENDED) {
+                throw new Error("保留的帧类型: " + frameType);
+            } else if (frameType == StackMapTable.SAME_LOCALS_1_STACK_ITEM_EXTENDED) {
+                frame.setOffsetDelta(stream.getU2());
+                frame.setStack(parseVerificationTypes(stream, stackMapTable, 1));
+            } else if (frameType <= StackMapTable.SAME_FRAME_EXTENDED) {
+                // chop_frame、same_frame_extended
+                frame.setOffsetDelta(stream.getU2());
+            } else if (frameType <= StackMapTable.APPEND_FRAME_MAX) {
+                // append_frame：追加的局部变量个数为frameType - 251
+                frame.setOffsetDelta(stream.getU2());
+                frame.setLocals(parseVerificationTypes(stream, stackMapTable, frameType - StackMapTable.SAME_FRAME_EXTENDED));
+            } else {
+                // full_frame
+                frame.setOffsetDelta(stream.getU2());
+                frame.setLocals(parseVerificationTypes(stream, stackMapTable, stream.getU2()));
+                frame.setStack(parseVerificationTypes(stream, stackMapTable, stream.getU2()));
+            }
+
+            logger.info("\t\t\t\t第 " + i + " 帧: "
+                    + ", frame type: " + frame.getFrameType()
+                    + ", offset delta: " + frame.getOffsetDelta()
+                    + ", locals: " + frame.getLocals().length
+                    + ", stack: " + frame.getStack().length
+            );
+        }
+    }
+
+    private static StackMapTable.VerificationTypeInfo[] parseVerificationTypes(ClassFileStream stream,
+                                                                               StackMapTable stackMapTable, int count) {
+        StackMapTable.VerificationTypeInfo[] types = new StackMapTable.VerificationTypeInfo[count];
+
+        for (int i = 0; i < count; i++) {
+            StackMapTable.VerificationTypeInfo type = stackMapTable.new VerificationTypeInfo();
+
+            types[i] = type;
+
+            type.setTag(stream.getU1());
+
+            if (StackMapTable.ITEM_Object == type.getTag()) {
+                type.setCpoolIndex(stream.getU2());
+            } else if (StackMapTable.ITEM_Uninitialized == type.getTag()) {
+                type.setOffset(stream.getU2());
+            } else if (type.getTag() > StackMapTable.ITEM_Uninitialized) {
+                throw new Error("无法识别的verification_type_info: " + type.getTag());
+            }
+        }
+
+        return types;
     }
 
-    private static int parseLocalVariableTable(byte[] content,
-                                               int index,
-                                               String attrName,
-                                               CodeAttributeInfo attributeInfo) {
-        byte[] u2Arr = new byte[2];
-        byte[] u4Arr = new byte[4];
+    private static void parseLocalVariableTable(ClassFileStream stream, String attrName,
+                                               Map<String, AttributeInfo> attributes) {
 
         LocalVariableTable localVariableTable = new LocalVariableTable();
 
-        attributeInfo.getAttributes().put(attrName, localVariableTable);
+        attributes.put(attrName, localVariableTable);
 
         // attr name index
-        Stream.readU2Simple(content, index, u2Arr);
-        index += 2;
-
-        localVariableTable.setAttrNameIndex(DataTranslate.byteToUnsignedShort(u2Arr));
+        localVariableTable.setAttrNameIndex(stream.getU2());
 
         // attr len
-        Stream.readU4Simple(content, index, u4Arr);
-        index += 4;
-
-        localVariableTable.setAttrLength(DataTranslate.byteArrayToInt(u4Arr));
+        localVariableTable.setAttrLength(stream.getU4());
 
         // table length
-        Stream.readU2Simple(content, index, u2Arr);
-        index += 2;
-
-        localVariableTable.setTableLength(DataTranslate.byteToUnsignedShort(u2Arr));
+        localVariableTable.setTableLength(stream.getU2());
 
         localVariableTable.initTable();
 
@@ -754,7 +650,7 @@ public class ClassFileParser {
         );
 
         if (0 == localVariableTable.getTableLength()) {
-            return index;
+            return;
         }
 
         // table
@@ -764,34 +660,19 @@ public class ClassFileParser {
             localVariableTable.getTable()[i] = item;
 
             // start pc
-            Stream.readU2Simple(content, index, u2Arr);
-            index += 2;
-
-            item.setStartPc(DataTranslate.byteToUnsignedShort(u2Arr));
+            item.setStartPc(stream.getU2());
 
             // length
-            Stream.readU2Simple(content, index, u2Arr);
-            index += 2;
-
-            item.setLength(DataTranslate.byteToUnsignedShort(u2Arr));
+            item.setLength(stream.getU2());
 
             // name index
-            Stream.readU2Simple(content, index, u2Arr);
-            index += 2;
-
-            item.setNameIndex(DataTranslate.byteToUnsignedShort(u2Arr));
+            item.setNameIndex(stream.getU2());
 
             // descriptor index
-            Stream.readU2Simple(content, index, u2Arr);
-            index += 2;
-
-            item.setDescriptorIndex(DataTranslate.byteToUnsignedShort(u2Arr));
+            item.setDescriptorIndex(stream.getU2());
 
             //index
-            Stream.readU2Simple(content, index, u2Arr);
-            index += 2;
-
-            item.setIndex(DataTranslate.byteToUnsignedShort(u2Arr));
+            item.setIndex(stream.getU2());
 
             logger.info("\t\t\t\t第 " + i + " 个属性: "
                     + ", start pc: " + item.getStartPc()
@@ -801,38 +682,23 @@ public class ClassFileParser {
                     + ", index: " + item.getIndex()
             );
         }
-
-        return index;
     }
 
-    private static int parseLineNumberTable(byte[] content,
-                                            int index,
-                                            String attrName,
-                                            CodeAttributeInfo attributeInfo) {
-        byte[] u2Arr = new byte[2];
-        byte[] u4Arr = new byte[4];
+    private static void parseLineNumberTable(ClassFileStream stream, String attrName,
+                                            Map<String, AttributeInfo> attributes) {
 
         LineNumberTable lineNumberTable = new LineNumberTable();
 
-        attributeInfo.getAttributes().put(attrName, lineNumberTable);
+        attributes.put(attrName, lineNumberTable);
 
         // attr name index
-        Stream.readU2Simple(content, index, u2Arr);
-        index += 2;
-
-        lineNumberTable.setAttrNameIndex(DataTranslate.byteToUnsignedShort(u2Arr));
+        lineNumberTable.setAttrNameIndex(stream.getU2());
 
         // attr len
-        Stream.readU4Simple(content, index, u4Arr);
-        index += 4;
-
-        lineNumberTable.setAttrLength(DataTranslate.byteArrayToInt(u4Arr));
+        lineNumberTable.setAttrLength(stream.getU4());
 
         // table length
-        Stream.readU2Simple(content, index, u2Arr);
-        index += 2;
-
-        lineNumberTable.setTableLength(DataTranslate.byteToUnsignedShort(u2Arr));
+        lineNumberTable.setTableLength(stream.getU2());
 
         lineNumberTable.initTable();
 
@@ -850,16 +716,10 @@ public class ClassFileParser {
                 lineNumberTable.getTable()[l] = item;
 
                 // start pc
-                Stream.readU2Simple(content, index, u2Arr);
-                index += 2;
-
-                item.setStartPc(DataTranslate.byteToUnsignedShort(u2Arr));
+                item.setStartPc(stream.getU2());
 
                 // line number
-                Stream.readU2Simple(content, index, u2Arr);
-                index += 2;
-
-                item.setLineNumber(DataTranslate.byteToUnsignedShort(u2Arr));
+                item.setLineNumber(stream.getU2());
 
                 logger.info("\t\t\t\t第 " + l + " 个属性: "
                         + ", start pc: " + item.getStartPc()
@@ -867,43 +727,32 @@ public class ClassFileParser {
                 );
             }
         }
-
-        return index;
     }
 
-    private static int parseFields(byte[] content, InstanceKlass klass, int index) {
+    private static void parseFields(ClassFileStream stream, InstanceKlass klass) {
         logger.info("解析属性:");
 
         for (int i = 0; i < klass.getFieldsLength(); i++) {
-            byte[] u2Arr = new byte[2];
 
             FieldInfo fieldInfo = new FieldInfo();
 
             klass.getFields().add(fieldInfo);
 
             // access flag
-            Stream.readU2Simple(content, index, u2Arr);
-            index += 2;
-
-            fieldInfo.setAccessFlags(DataTranslate.byteToUnsignedShort(u2Arr));
+            fieldInfo.setAccessFlags(stream.getU2());
 
             // name index
-            Stream.readU2Simple(content, index, u2Arr);
-            index += 2;
-
-            fieldInfo.setNameIndex(DataTranslate.byteToUnsignedShort(u2Arr));
+            fieldInfo.setNameIndex(stream.getU2());
+            fieldInfo.setNameSymbol(klass.getConstantPool().getSymbol(fieldInfo.getNameIndex()));
+            fieldInfo.setName(fieldInfo.getNameSymbol().asString());
 
             // descriptor index
-            Stream.readU2Simple(content, index, u2Arr);
-            index += 2;
-
-            fieldInfo.setDescriptorIndex(DataTranslate.byteToUnsignedShort(u2Arr));
+            fieldInfo.setDescriptorIndex(stream.getU2());
+            fieldInfo.setDescriptorSymbol(klass.getConstantPool().getSymbol(fieldInfo.getDescriptorIndex()));
+            fieldInfo.setDescriptor(fieldInfo.getDescriptorSymbol().asString());
 
             // attribute count
-            Stream.readU2Simple(content, index, u2Arr);
-            index += 2;
-
-            fieldInfo.setAttributesCount(DataTranslate.byteToUnsignedShort(u2Arr));
+            fieldInfo.setAttributesCount(stream.getU2());
 
             // attribute
             if (0 != fieldInfo.getAttributesCount()) {
@@ -916,113 +765,87 @@ public class ClassFileParser {
                     + ", attribute count: " + fieldInfo.getAttributesCount()
             );
         }
-
-        return index;
     }
 
-    private static int parseConstantPool(byte[] content, InstanceKlass klass, int index) {
+    private static void parseConstantPool(ClassFileStream stream, InstanceKlass klass) {
         logger.info("解析常量池:");
 
-        byte[] u2Arr = new byte[2];
-        byte[] u4Arr = new byte[4];
-        byte[] u8Arr = new byte[8];
 
         for (int i = 1; i < klass.getConstantPool().getLength(); i++) {
-            int tag = Stream.readU1Simple(content, index);
-            index += 1;
+            int tag = stream.getU1();
 
             switch (tag) {
                 case ConstantPool.JVM_CONSTANT_Utf8: {
                     klass.getConstantPool().getTag()[i] = ConstantPool.JVM_CONSTANT_Utf8;
 
                     // 字符串长度
-                    Stream.readU2Simple(content, index, u2Arr);
-                    index += 2;
+                    int len = stream.getU2();
 
-                    int len = DataTranslate.byteToUnsignedShort(u2Arr);
-
-                    // 字符串内容
+                    // 字符串内容，modified UTF-8编码。相同内容的所有类共用一个符号，用到时才解码
                     byte[] str = new byte[len];
 
-                    Stream.readSimple(content, index, len, str);
-                    index += len;
+                    stream.getBytes(str);
 
-                    klass.getConstantPool().getDataMap().put(i, new String(str));
+                    klass.getConstantPool().getEntries()[i] = SymbolTable.lookup(str);
 
-                    logger.info("\t第 " + i+ " 个: 类型: utf8，值: " + klass.getConstantPool().getDataMap().get(i));
+                    logger.info("\t第 " + i+ " 个: 类型: utf8，值: " + klass.getConstantPool().getEntries()[i]);
 
                     break;
                 }
                 case ConstantPool.JVM_CONSTANT_Integer: {
                     klass.getConstantPool().getTag()[i] = ConstantPool.JVM_CONSTANT_Integer;
 
-                    throw new Error("程序未做处理");
+                    klass.getConstantPool().getEntries()[i] = stream.getU4();
+
+                    logger.info("\t第 " + i + " 个: 类型: Integer，值: " + klass.getConstantPool().getEntries()[i]);
+
+                    break;
                 }
                 case ConstantPool.JVM_CONSTANT_Float: {
                     klass.getConstantPool().getTag()[i] = ConstantPool.JVM_CONSTANT_Float;
 
-                    Stream.readU4Simple(content, index, u4Arr);
-                    index += 4;
-
-                    klass.getConstantPool().getDataMap().put(i, DataTranslate.byteToFloat(u4Arr));
+                    klass.getConstantPool().getEntries()[i] = Float.intBitsToFloat(stream.getU4());
 
-                    logger.info("\t第 " + i + " 个: 类型: Float，值: " + klass.getConstantPool().getDataMap().get(i));
+                    logger.info("\t第 " + i + " 个: 类型: Float，值: " + klass.getConstantPool().getEntries()[i]);
 
                     break;
                 }
                 case ConstantPool.JVM_CONSTANT_Long: {
                     klass.getConstantPool().getTag()[i] = ConstantPool.JVM_CONSTANT_Long;
 
-                    Stream.readU8Simple(content, index, u8Arr);
-                    index += 8;
+                    klass.getConstantPool().getEntries()[i] = stream.getU8();
 
-                    klass.getConstantPool().getDataMap().put(i, DataTranslate.bytesToLong(u8Arr));
-
-                    logger.info("\t第 " + i + " 个: 类型: Long，值: " + klass.getConstantPool().getDataMap().get(i));
+                    logger.info("\t第 " + i + " 个: 类型: Long，值: " + klass.getConstantPool().getEntries()[i]);
 
                     /**
                      *  因为一个long在常量池中需要两个成员项目来存储
-                     *  所以需要处理
+                     *  后一项不可用，跳过
                      */
-                    klass.getConstantPool().getTag()[++i] = ConstantPool.JVM_CONSTANT_Long;
-
-                    klass.getConstantPool().getDataMap().put(i, DataTranslate.bytesToLong(u8Arr));
-
-                    logger.info("\t第 " + i + " 个: 类型: Long，值: " + klass.getConstantPool().getDataMap().get(i));
+                    i++;
 
                     break;
                 }
                 case ConstantPool.JVM_CONSTANT_Double: {
                     klass.getConstantPool().getTag()[i] = ConstantPool.JVM_CONSTANT_Double;
 
-                    Stream.readU8Simple(content, index, u8Arr);
-                    index += 8;
-
-                    klass.getConstantPool().getDataMap().put(i, DataTranslate.bytesToDouble(u8Arr, false));
+                    klass.getConstantPool().getEntries()[i] = Double.longBitsToDouble(stream.getU8());
 
-                    logger.info("\t第 " + i + " 个: 类型: Double，值: " + klass.getConstantPool().getDataMap().get(i));
+                    logger.info("\t第 " + i + " 个: 类型: Double，值: " + klass.getConstantPool().getEntries()[i]);
 
                     /**
                      *  因为一个double在常量池中需要两个成员项目来存储
-                     *  所以需要处理
+                     *  后一项不可用，跳过
                      */
-                    klass.getConstantPool().getTag()[++i] = ConstantPool.JVM_CONSTANT_Double;
-
-                    klass.getConstantPool().getDataMap().put(i, DataTranslate.bytesToDouble(u8Arr, false));
-
-                    logger.info("\t第 " + i + " 个: 类型: Double，值: " + klass.getConstantPool().getDataMap().get(i));
+                    i++;
 
                     break;
                 }
                 case ConstantPool.JVM_CONSTANT_Class: {
                     klass.getConstantPool().getTag()[i] = ConstantPool.JVM_CONSTANT_Class;
 
-                    Stream.readU2Simple(content, index, u2Arr);
-                    index += 2;
+                    klass.getConstantPool().getEntries()[i] = new ClassRefInfo(stream.getU2());
 
-                    klass.getConstantPool().getDataMap().put(i, DataTranslate.byteToUnsignedShort(u2Arr));
-
-                    logger.info("\t第 " + i+ " 个: 类型: Class，值: " + klass.getConstantPool().getDataMap().get(i));
+                    logger.info("\t第 " + i+ " 个: 类型: Class，值: " + klass.getConstantPool().getEntries()[i]);
 
                     break;
                 }
@@ -1030,10 +853,7 @@ public class ClassFileParser {
                     klass.getConstantPool().getTag()[i] = ConstantPool.JVM_CONSTANT_String;
 
                     // Utf8_info
-                    Stream.readU2Simple(content, index, u2Arr);
-                    index += 2;
-
-                    klass.getConstantPool().getDataMap().put(i, DataTranslate.byteToUnsignedShort(u2Arr));
+                    klass.getConstantPool().getEntries()[i] = stream.getU2();
 
                     logger.info("\t第 " + i + " 个: 类型: String，值无法获取，因为字符串的内容还未解析到");
 
@@ -1043,20 +863,14 @@ public class ClassFileParser {
                     klass.getConstantPool().getTag()[i] = ConstantPool.JVM_CONSTANT_Fieldref;
 
                     // Class_info
-                    Stream.readU2Simple(content, index, u2Arr);
-                    index += 2;
-
-                    int classIndex = DataTranslate.byteToUnsignedShort(u2Arr);
+                    int classIndex = stream.getU2();
 
                     // NameAndType info
-                    Stream.readU2Simple(content, index, u2Arr);
-                    index += 2;
+                    int nameAndTypeIndex = stream.getU2();
 
-                    int nameAndTypeIndex = DataTranslate.byteToUnsignedShort(u2Arr);
+                    klass.getConstantPool().getEntries()[i] = new MemberRefInfo(classIndex, nameAndTypeIndex);
 
-                    klass.getConstantPool().getDataMap().put(i, classIndex << 16 | nameAndTypeIndex);
-
-                    logger.info("\t第 " + i+ " 个: 类型: Field，值: 0x" + Integer.toHexString((int) klass.getConstantPool().getDataMap().get(i)));
+                    logger.info("\t第 " + i+ " 个: 类型: Field，值: " + klass.getConstantPool().getEntries()[i]);
 
                     break;
                 }
@@ -1064,21 +878,14 @@ public class ClassFileParser {
                     klass.getConstantPool().getTag()[i] = ConstantPool.JVM_CONSTANT_Methodref;
 
                     // Class_info
-                    Stream.readU2Simple(content, index, u2Arr);
-                    index += 2;
-
-                    int classIndex = DataTranslate.byteToUnsignedShort(u2Arr);
+                    int classIndex = stream.getU2();
 
                     // NameAndType info
-                    Stream.readU2Simple(content, index, u2Arr);
-                    index += 2;
+                    int nameAndTypeIndex = stream.getU2();
 
-                    int nameAndTypeIndex = DataTranslate.byteToUnsignedShort(u2Arr);
+                    klass.getConstantPool().getEntries()[i] = new MemberRefInfo(classIndex, nameAndTypeIndex);
 
-                    // 将classIndex与nameAndTypeIndex拼成一个，前十六位是classIndex，后十六位是nameAndTypeIndex
-                    klass.getConstantPool().getDataMap().put(i, classIndex << 16 | nameAndTypeIndex);
-
-                    logger.info("\t第 " + i+ " 个: 类型: Method，值: 0x" + Integer.toHexString((int) klass.getConstantPool().getDataMap().get(i)));
+                    logger.info("\t第 " + i+ " 个: 类型: Method，值: " + klass.getConstantPool().getEntries()[i]);
 
                     break;
                 }
@@ -1086,21 +893,14 @@ public class ClassFileParser {
                     klass.getConstantPool().getTag()[i] = ConstantPool.JVM_CONSTANT_InterfaceMethodref;
 
                     // Class_info
-                    Stream.readU2Simple(content, index, u2Arr);
-                    index += 2;
-
-                    int classIndex = DataTranslate.byteToUnsignedShort(u2Arr);
+                    int classIndex = stream.getU2();
 
                     // NameAndType info
-                    Stream.readU2Simple(content, index, u2Arr);
-                    index += 2;
+                    int nameAndTypeIndex = stream.getU2();
 
-                    int nameAndTypeIndex = DataTranslate.byteToUnsignedShort(u2Arr);
+                    klass.getConstantPool().getEntries()[i] = new MemberRefInfo(classIndex, nameAndTypeIndex);
 
-                    // 将classIndex与nameAndTypeIndex拼成一个，前十六位是classIndex，后十六位是nameAndTypeIndex
-                    klass.getConstantPool().getDataMap().put(i, classIndex << 16 | nameAndTypeIndex);
-
-                    logger.info("\t第 " + i + " 个: 类型: InterfaceMethodref，值: 0x" + Integer.toHexString((int) klass.getConstantPool().getDataMap().get(i)));
+                    logger.info("\t第 " + i + " 个: 类型: InterfaceMethodref，值: " + klass.getConstantPool().getEntries()[i]);
 
                     break;
                 }
@@ -1108,52 +908,39 @@ public class ClassFileParser {
                     klass.getConstantPool().getTag()[i] = ConstantPool.JVM_CONSTANT_NameAndType;
 
                     // 方法名
-                    Stream.readU2Simple(content, index, u2Arr);
-                    index += 2;
-
-                    int methodNameIndex = DataTranslate.byteToUnsignedShort(u2Arr);
+                    int methodNameIndex = stream.getU2();
 
                     // 方法描述符
-                    Stream.readU2Simple(content, index, u2Arr);
-                    index += 2;
+                    int methodDescriptorIndex = stream.getU2();
 
-                    int methodDescriptorIndex = DataTranslate.byteToUnsignedShort(u2Arr);
+                    klass.getConstantPool().getEntries()[i] = new NameAndTypeInfo(methodNameIndex, methodDescriptorIndex);
 
-                    klass.getConstantPool().getDataMap().put(i, methodNameIndex << 16 | methodDescriptorIndex);
-
-                    logger.info("\t第 " + i+ " 个: 类型: NameAndType，值: 0x" + Integer.toHexString((int) klass.getConstantPool().getDataMap().get(i)));
+                    logger.info("\t第 " + i+ " 个: 类型: NameAndType，值: " + klass.getConstantPool().getEntries()[i]);
 
                     break;
                 }
                 case ConstantPool.JVM_CONSTANT_MethodHandle: {
-                    klass.getConstantPool().getTag()[i] = ConstantPool.JVM_CONSTANT_InvokeDynamic;
+                    klass.getConstantPool().getTag()[i] = ConstantPool.JVM_CONSTANT_MethodHandle;
 
                     // reference kind
-                    byte referenceKind = Stream.readU1Simple(content, index);
-                    index += 1;
+                    int referenceKind = stream.getU1();
 
                     // reference index
-                    Stream.readU2Simple(content, index, u2Arr);
-                    index += 2;
+                    int referenceIndex = stream.getU2();
 
-                    int referenceIndex = DataTranslate.byteToUnsignedShort(u2Arr);
+                    klass.getConstantPool().getEntries()[i] = new MethodHandleInfo(referenceKind, referenceIndex);
 
-                    klass.getConstantPool().getDataMap().put(i, referenceKind << 16 | referenceIndex);
-
-                    logger.info("\t第 " + i+ " 个: 类型: MethodHandle，值: 0x" + Integer.toHexString((int) klass.getConstantPool().getDataMap().get(i)));
+                    logger.info("\t第 " + i+ " 个: 类型: MethodHandle，值: " + klass.getConstantPool().getEntries()[i]);
 
                     break;
                 }
                 case ConstantPool.JVM_CONSTANT_MethodType: {
-                    klass.getConstantPool().getTag()[i] = ConstantPool.JVM_CONSTANT_String;
+                    klass.getConstantPool().getTag()[i] = ConstantPool.JVM_CONSTANT_MethodType;
 
                     // descriptor index
-                    Stream.readU2Simple(content, index, u2Arr);
-                    index += 2;
+                    klass.getConstantPool().getEntries()[i] = stream.getU2();
 
-                    klass.getConstantPool().getDataMap().put(i, DataTranslate.byteToUnsignedShort(u2Arr));
-
-                    logger.info("\t第 " + i+ " 个: 类型: MethodType，值: " + klass.getConstantPool().getDataMap().get(i));
+                    logger.info("\t第 " + i+ " 个: 类型: MethodType，值: " + klass.getConstantPool().getEntries()[i]);
 
                     break;
                 }
@@ -1161,20 +948,14 @@ public class ClassFileParser {
                     klass.getConstantPool().getTag()[i] = ConstantPool.JVM_CONSTANT_InvokeDynamic;
 
                     // bootstrap method attr
-                    Stream.readU2Simple(content, index, u2Arr);
-                    index += 2;
-
-                    int bootstrapMethodAttrIndex = DataTranslate.byteToUnsignedShort(u2Arr);
+                    int bootstrapMethodAttrIndex = stream.getU2();
 
                     // 方法描述符
-                    Stream.readU2Simple(content, index, u2Arr);
-                    index += 2;
+                    int methodDescriptorIndex = stream.getU2();
 
-                    int methodDescriptorIndex = DataTranslate.byteToUnsignedShort(u2Arr);
+                    klass.getConstantPool().getEntries()[i] = new InvokeDynamicInfo(bootstrapMethodAttrIndex, methodDescriptorIndex);
 
-                    klass.getConstantPool().getDataMap().put(i, bootstrapMethodAttrIndex << 16 | methodDescriptorIndex);
-
-                    logger.info("\t第 " + i+ " 个: 类型: InvokeDynamic，值: 0x" + Integer.toHexString((int) klass.getConstantPool().getDataMap().get(i)));
+                    logger.info("\t第 " + i+ " 个: 类型: InvokeDynamic，值: " + klass.getConstantPool().getEntries()[i]);
 
                     break;
                 }
@@ -1182,8 +963,6 @@ public class ClassFileParser {
                     throw new Error("无法识别的常量池项");
             }
         }
-
-        return index;
     }
 
 }
@@ -0,0 +1,73 @@
+package com.czh.jvm.hotspot.src.share.vm.classfile;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 类文件的读取游标，对应hotspot的classFileStream.hpp
+ *
+ * 包装类加载器读出来的ByteBuffer(映射的文件或jar包中的数组)，按大端顺序依次读取u1、u2、u4、u8
+ * 读取时直接从缓冲区取值，不再为每个字段分配临时数组，也不需要手动维护下标
+ */
+public class ClassFileStream {
+
+    private final ByteBuffer buffer;
+
+    public ClassFileStream(ByteBuffer buffer) {
+        // 独立的position，不影响调用者手里的缓冲区。duplicate后字节序恢复为默认的大端，和类文件一致
+        this.buffer = buffer.duplicate();
+    }
+
+    /**
+     * 从offset处开始读取，用于延迟解析时回到之前记下的位置
+     */
+    public ClassFileStream(ByteBuffer buffer, int offset) {
+        this(buffer);
+
+        this.buffer.position(offset);
+    }
+
+    public int getU1() {
+        return buffer.get() & 0xFF;
+    }
+
+    public int getU2() {
+        return buffer.getShort() & 0xFFFF;
+    }
+
+    /**
+     * 读取u2但不移动游标，用于先看属性名再决定怎么解析
+     */
+    public int peekU2() {
+        return buffer.getShort(buffer.position()) & 0xFFFF;
+    }
+
+    public int getU4() {
+        return buffer.getInt();
+    }
+
+    public long getU8() {
+        return buffer.getLong();
+    }
+
+    /**
+     * 读取dst.length个字节到dst中
+     */
+    public void getBytes(byte[] dst) {
+        buffer.get(dst);
+    }
+
+    public void skip(int n) {
+        buffer.position(buffer.position() + n);
+    }
+
+    public int position() {
+        return buffer.position();
+    }
+
+    /**
+     * 底层的缓冲区，延迟解析时保存下来，之后配合position()重新创建游标
+     */
+    public ByteBuffer buffer() {
+        return buffer;
+    }
+}
@@ -0,0 +1,291 @@
+package com.czh.jvm.hotspot.src.share.vm.classfile;
+
+import com.czh.jvm.hotspot.src.share.vm.interpreter.Rewriter;
+import com.czh.jvm.hotspot.src.share.vm.memory.MetaspaceShared;
+import com.czh.jvm.hotspot.src.share.vm.oops.InstanceKlass;
+import com.czh.jvm.hotspot.src.share.vm.oops.InterfaceInfo;
+import com.czh.jvm.hotspot.src.share.vm.oops.KlassItable;
+import com.czh.jvm.hotspot.src.share.vm.oops.KlassVtable;
+import com.czh.jvm.hotspot.src.share.vm.runtime.Globals;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * 一个类加载器及其加载的类，对应hotspot的classLoaderData.hpp
+ *
+ * 双亲委派：先交给parent加载，parent的加载路径中没有时才从自己的加载路径中读取、解析
+ *  boot  Globals.BootClassPath，parent为null
+ *  app   Globals.ClassPath或启动参数-cp，parent为boot
+ *
+ * 并行加载：dictionary中每个类名对应一个FutureTask
+ *  1、第一个加载该类的线程放入FutureTask并执行，读取、解析、链接都在里面完成
+ *  2、同时加载同一个类的其他线程拿到的是同一个FutureTask，等它执行完，不会重复解析
+ *  3、不同的类各自执行，互不等待
+ */
+public class ClassLoaderData {
+
+    public static final String SUFFIX = ".class";
+
+    private final String name;
+
+    private final ClassLoaderData parent;
+
+    // 加载路径，按顺序查找，第一次加载类时才初始化
+    private volatile List<ClassPathEntry> classPath;
+
+    // 类名(用'.'分隔) => 加载任务。委派给parent加载成功的类也记在这里，下次直接取
+    private final Map<String, FutureTask<InstanceKlass>> dictionary = new ConcurrentHashMap<>();
+
+    // 由该加载器自己读取、解析的类
+    private final Map<String, InstanceKlass> definedKlasses = new ConcurrentHashMap<>();
+
+    private final String defaultClassPath;
+
+    public ClassLoaderData(String name, ClassLoaderData parent, String defaultClassPath) {
+        this.name = name;
+        this.parent = parent;
+        this.defaultClassPath = defaultClassPath;
+    }
+
+    /**
+     * 加载类，找不到时抛出Error
+     */
+    public InstanceKlass loadKlass(String className) {
+        InstanceKlass klass = tryLoadKlass(className);
+        if (null == klass) {
+            throw new Error("找不到类: " + className);
+        }
+
+        return klass;
+    }
+
+    /**
+     * 加载类，自己和parent的加载路径中都没有时返回null
+     */
+    private InstanceKlass tryLoadKlass(String className) {
+        String key = className.replace('/', '.');
+
+        FutureTask<InstanceKlass> task = dictionary.get(key);
+        if (null == task) {
+            FutureTask<InstanceKlass> created = new FutureTask<>(() -> findOrDefine(key));
+
+            task = dictionary.putIfAbsent(key, created);
+            if (null == task) {
+                task = created;
+
+                created.run();
+            }
+        }
+
+        InstanceKlass klass = await(task);
+
+        // 找不到的不记下来，加载路径可能在之后才设置
+        if (null == klass) {
+            dictionary.remove(key, task);
+        }
+
+        return klass;
+    }
+
+    private InstanceKlass findOrDefine(String key) {
+        if (null != parent) {
+            InstanceKlass klass = parent.tryLoadKlass(key);
+            if (null != klass) {
+                return klass;
+            }
+        }
+
+        InstanceKlass klass = readAndParse(key);
+        if (null == klass) {
+            return null;
+        }
+
+        klass.setClassLoaderData(this);
+
+        // 链接：加载父类、接口，建立虚方法表、接口方法表
+        link(klass);
+
+        // 预解码所有方法的字节码。延迟解析方法体时不在这里做，方法第一次执行时才解析、预解码，见BytecodeInterpreter.invoke
+        if (!Globals.LazyMethodParsing) {
+            Rewriter.rewrite(klass);
+        }
+
+        definedKlasses.put(key, klass);
+
+        return klass;
+    }
+
+    private void link(InstanceKlass klass) {
+        if (0 != klass.getSuperClass()) {
+            klass.setSuperKlass(loadSuper(klass.getConstantPool().getClassName(klass.getSuperClass())));
+        }
+
+        List<InstanceKlass> interfaces = new ArrayList<>();
+        for (InterfaceInfo info : klass.getInterfaceInfos()) {
+            InstanceKlass iface = loadSuper(info.getInterfaceName());
+            if (null != iface) {
+                interfaces.add(iface);
+            }
+        }
+
+        klass.setLocalInterfaces(interfaces);
+
+        KlassVtable.initialize(klass);
+        KlassItable.initialize(klass);
+    }
+
+    /**
+     * 加载父类、接口。java体系的类和加载路径中找不到的类不在虚拟机中加载，返回null
+     */
+    private InstanceKlass loadSuper(String name) {
+        if (name.startsWith("java")) {
+            return null;
+        }
+
+        return tryLoadKlass(name);
+    }
+
+    private InstanceKlass readAndParse(String key) {
+        // 共享存档中有的类直接取出来，不用解析。存档只记录app加载的类
+        if (null != parent) {
+            InstanceKlass klass = MetaspaceShared.findKlass(key);
+            if (null != klass) {
+                return klass;
+            }
+        }
+
+        String fileName = key.replace('.', '/') + SUFFIX;
+
+        // 读取字节码文件
+        for (ClassPathEntry entry : getClassPath()) {
+            ByteBuffer buffer = entry.open(fileName);
+            if (null != buffer) {
+                // 解析字节码文件
+                return ClassFileParser.parseClassFile(buffer);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * 等待加载任务执行完，任务中抛出的Error原样抛出
+     */
+    private static InstanceKlass await(FutureTask<InstanceKlass> task) {
+        boolean interrupted = false;
+
+        try {
+            while (true) {
+                try {
+                    return task.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof Error) {
+                        throw (Error) cause;
+                    }
+
+                    throw new Error(cause);
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * 已经加载完成的类，没有加载或正在加载时返回null
+     */
+    public InstanceKlass findLoadedKlass(String className) {
+        FutureTask<InstanceKlass> task = dictionary.get(className.replace('/', '.'));
+        if (null == task || !task.isDone()) {
+            return null;
+        }
+
+        return await(task);
+    }
+
+    public Collection<InstanceKlass> getDefinedKlasses() {
+        return definedKlasses.values();
+    }
+
+    /**
+     * 设置加载路径，多个路径用File.pathSeparator分隔，可以是目录或jar包
+     */
+    public void setClassPath(String path) {
+        List<ClassPathEntry> entries = new ArrayList<>();
+
+        for (String item : path.split(File.pathSeparator)) {
+            if (item.isEmpty()) {
+                continue;
+            }
+
+            ClassPathEntry entry = ClassPathEntry.create(item);
+            if (null != entry) {
+                entries.add(entry);
+            }
+        }
+
+        classPath = entries;
+    }
+
+    private List<ClassPathEntry> getClassPath() {
+        if (null == classPath) {
+            setClassPath(defaultClassPath);
+        }
+
+        return classPath;
+    }
+
+    /**
+     * 类文件的指纹，取加载路径中第一个有该类的，和readAndParse读取的是同一个文件，见ClassPathEntry.stamp
+     * @param key 类名，用'.'分隔
+     * @return 加载路径中没有该类时返回null
+     */
+    public long[] classFileStamp(String key) {
+        String fileName = key.replace('.', '/') + SUFFIX;
+
+        for (ClassPathEntry entry : getClassPath()) {
+            long[] stamp = entry.stamp(fileName);
+            if (null != stamp) {
+                return stamp;
+            }
+        }
+
+        return null;
+    }
+
+    public String getClassPathString() {
+        StringBuilder builder = new StringBuilder();
+
+        for (ClassPathEntry entry : getClassPath()) {
+            if (0 != builder.length()) {
+                builder.append(File.pathSeparator);
+            }
+
+            builder.append(entry);
+        }
+
+        return builder.toString();
+    }
+
+    public ClassLoaderData getParent() {
+        return parent;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
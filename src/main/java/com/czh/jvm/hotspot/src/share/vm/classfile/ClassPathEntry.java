@@ -0,0 +1,174 @@
+package com.czh.jvm.hotspot.src.share.vm.classfile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * 类加载路径中的一项，对应hotspot的classLoader.hpp
+ *  1、目录：ClassPathDirEntry
+ *  2、jar包：ClassPathZipEntry
+ */
+public abstract class ClassPathEntry {
+
+    /**
+     * 读取类文件
+     * @param name 类文件在该路径下的相对路径，如com/czh/demo/Test.class
+     * @return 类文件内容，该路径下不存在时返回null
+     */
+    public abstract ByteBuffer open(String name);
+
+    /**
+     * 类文件的指纹，写共享存档时记录，使用存档时对不上说明类文件改过了，见MetaspaceShared
+     * @param name 同open
+     * @return {大小, 修改时间或CRC}，该路径下不存在时返回null
+     */
+    public abstract long[] stamp(String name);
+
+    public static ClassPathEntry create(String path) {
+        File file = new File(path);
+
+        if (file.isDirectory()) {
+            return new ClassPathDirEntry(file.toPath());
+        }
+
+        if (file.isFile()) {
+            try {
+                return new ClassPathZipEntry(new ZipFile(file));
+            } catch (IOException e) {
+                throw new Error("无法打开jar包: " + path, e);
+            }
+        }
+
+        // 不存在的路径和java一样忽略掉
+        return null;
+    }
+
+    /**
+     * 目录：类文件通过FileChannel映射到内存，不拷贝到堆中
+     */
+    static class ClassPathDirEntry extends ClassPathEntry {
+
+        private final Path dir;
+
+        ClassPathDirEntry(Path dir) {
+            this.dir = dir;
+        }
+
+        @Override
+        public ByteBuffer open(String name) {
+            Path file = dir.resolve(name);
+            if (!Files.isRegularFile(file)) {
+                return null;
+            }
+
+            // 映射建立后和通道无关，可以直接关闭
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            } catch (IOException e) {
+                throw new Error("读取类文件失败: " + file, e);
+            }
+        }
+
+        /**
+         * 目录中的类文件：大小和修改时间，不用读取内容
+         */
+        @Override
+        public long[] stamp(String name) {
+            Path file = dir.resolve(name);
+
+            try {
+                return new long[]{Files.size(file), Files.getLastModifiedTime(file).toMillis()};
+            } catch (IOException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return dir.toString();
+        }
+    }
+
+    /**
+     * jar包：只打开一次，之后通过ZipFile的条目索引直接定位类文件
+     */
+    static class ClassPathZipEntry extends ClassPathEntry {
+
+        private final ZipFile zip;
+
+        ClassPathZipEntry(ZipFile zip) {
+            this.zip = zip;
+        }
+
+        @Override
+        public ByteBuffer open(String name) {
+            ZipEntry entry = zip.getEntry(name);
+            if (null == entry) {
+                return null;
+            }
+
+            try (InputStream in = zip.getInputStream(entry)) {
+                return ByteBuffer.wrap(readFully(in, entry.getSize()));
+            } catch (IOException e) {
+                throw new Error("读取类文件失败: " + zip.getName() + "!/" + name, e);
+            }
+        }
+
+        /**
+         * jar包中的类文件：条目中记录的解压后的大小和CRC，不用解压
+         */
+        @Override
+        public long[] stamp(String name) {
+            ZipEntry entry = zip.getEntry(name);
+            if (null == entry) {
+                return null;
+            }
+
+            return new long[]{entry.getSize(), entry.getCrc()};
+        }
+
+        /**
+         * 条目中一般记录了解压后的大小，一次分配好；没有记录(-1)时按流读取
+         */
+        private static byte[] readFully(InputStream in, long size) throws IOException {
+            if (size < 0) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+                byte[] buffer = new byte[8192];
+                for (int n; (n = in.read(buffer)) > 0; ) {
+                    out.write(buffer, 0, n);
+                }
+
+                return out.toByteArray();
+            }
+
+            byte[] content = new byte[(int) size];
+
+            int offset = 0;
+            while (offset < content.length) {
+                int n = in.read(content, offset, content.length - offset);
+                if (n < 0) {
+                    throw new IOException("类文件不完整");
+                }
+
+                offset += n;
+            }
+
+            return content;
+        }
+
+        @Override
+        public String toString() {
+            return zip.getName();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.czh.jvm.hotspot.src.share.vm.classfile;
+
+import com.czh.jvm.hotspot.src.share.vm.memory.AllStatic;
+import com.czh.jvm.hotspot.src.share.vm.oops.ConstantPool;
+import com.czh.jvm.hotspot.src.share.vm.oops.InstanceKlass;
+import com.czh.jvm.hotspot.src.share.vm.runtime.Globals;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 启动时预加载类
+ *
+ * 从main函数所在的类出发，常量池中的Class项(父类、接口、字段和方法引用的类都在其中)就是它会用到的类
+ * 每个类的读取、解析、链接作为一个任务在ForkJoinPool中并行执行，加载完再继续找它引用的类
+ * 全部完成后才开始执行main方法，执行过程中不再有文件读取和类解析
+ *
+ * java体系的类走反射，不由BootClassLoader加载，跳过
+ */
+public class ClassPreloader extends AllStatic {
+
+    private static Logger logger = LoggerFactory.getLogger(ClassPreloader.class);
+
+    public static void preload(InstanceKlass root) {
+        long start = System.nanoTime();
+
+        // 已经提交过的类，保证每个类只加载一次
+        Set<String> visited = ConcurrentHashMap.newKeySet();
+        visited.add(root.getConstantPool().getClassName(root.getThisClass()));
+
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, Globals.PreloadThreads));
+        try {
+            pool.invoke(new PreloadTask(root, visited));
+        } finally {
+            pool.shutdown();
+        }
+
+        logger.info("预加载类 " + visited.size() + " 个，耗时 " + (System.nanoTime() - start) / 1000000 + " ms");
+    }
+
+    private static class PreloadTask extends RecursiveAction {
+
+        // 要加载的类名，如com/czh/demo/Test。为null时表示klass已经加载好了
+        private final String name;
+
+        private InstanceKlass klass;
+
+        private final Set<String> visited;
+
+        PreloadTask(String name, Set<String> visited) {
+            this.name = name;
+            this.visited = visited;
+        }
+
+        PreloadTask(InstanceKlass klass, Set<String> visited) {
+            this.name = null;
+            this.klass = klass;
+            this.visited = visited;
+        }
+
+        @Override
+        protected void compute() {
+            if (null == klass) {
+                try {
+                    klass = BootClassLoader.loadKlass(name.replace('/', '.'));
+                } catch (Error e) {
+                    // 找不到或者解析不了的类留到执行时再报错，可能根本不会执行到
+                    logger.warn("预加载类失败: " + name + ", " + e.getMessage());
+
+                    return;
+                }
+            }
+
+            invokeAll(references());
+        }
+
+        /**
+         * 常量池中引用的、还没有提交过的类
+         */
+        private List<PreloadTask> references() {
+            List<PreloadTask> tasks = new ArrayList<>();
+
+            ConstantPool pool = klass.getConstantPool();
+            for (int i = 1; i < pool.getLength(); i++) {
+                if (ConstantPool.JVM_CONSTANT_Class != pool.getTag()[i]) {
+                    continue;
+                }
+
+                String className = pool.getClassName(i);
+
+                // 数组、java体系的类
+                if (className.startsWith("[") || className.startsWith("java")) {
+                    continue;
+                }
+
+                if (visited.add(className)) {
+                    tasks.add(new PreloadTask(className, visited));
+                }
+            }
+
+            return tasks;
+        }
+    }
+}
@@ -1,9 +1,9 @@
 package com.czh.jvm.hotspot.src.share.vm.classfile;
 
-import com.czh.jvm.hotspot.src.share.vm.memory.ResourceObj;
+import com.czh.jvm.hotspot.src.share.vm.memory.MetaspaceObj;
 import com.czh.jvm.hotspot.src.share.vm.oops.DescriptorInfo;
 import com.czh.jvm.hotspot.src.share.vm.runtime.JavaVFrame;
-import com.czh.jvm.hotspot.src.share.vm.runtime.StackValue;
+import com.czh.jvm.hotspot.src.share.vm.runtime.StackValueCollection;
 import com.czh.jvm.hotspot.src.share.vm.utilities.BasicType;
 import lombok.Data;
 
@@ -14,13 +14,18 @@ import java.util.List;
  * 将方法、属性的签名转为byte数组，然后进行解析
  */
 @Data
-public class DescriptorStream2 extends ResourceObj {
+public class DescriptorStream2 extends MetaspaceObj {
 
     private String descriptor;
 
     private DescriptorInfo returnElement;
 
     private int methodParamsSize;
+
+    /**
+     * 参数占用的槽位数，long、double占两个
+     */
+    private int methodParamsSlotSize;
     private List<DescriptorInfo> parameters = new ArrayList<>();
 
     public DescriptorStream2(String descriptor) {
@@ -75,6 +80,13 @@ public class DescriptorStream2 extends ResourceObj {
 
         setMethodParamsSize(parameters.size());
 
+        int slotSize = 0;
+        for (DescriptorInfo info : parameters) {
+            slotSize += (BasicType.T_LONG == info.getType() || BasicType.T_DOUBLE == info.getType()) ? 2 : 1;
+        }
+
+        setMethodParamsSlotSize(slotSize);
+
         return parameters;
     }
 
@@ -129,38 +141,46 @@ public class DescriptorStream2 extends ResourceObj {
 
     public Object[] getParamsVal(JavaVFrame frame) {
         Object[] vals = new Object[getMethodParamsSize()];
+        StackValueCollection stack = frame.getStack();
 
         for (int i = getMethodParamsSize() - 1; i >= 0; i--) {
             DescriptorInfo info = getParameters().get(i);
 
             switch (info.getType()) {
                 case BasicType.T_BOOLEAN:
-                    int val = frame.getStack().pop().getVal();
-                    vals[i] = (1 == val)? true : false;
+                    vals[i] = 0 != stack.popInt();
 
                     break;
                 case BasicType.T_CHAR:
-                    vals[i] = (char) frame.getStack().pop().getVal();
+                    vals[i] = (char) stack.popInt();
+
+                    break;
+                case BasicType.T_BYTE:
+                    vals[i] = (byte) stack.popInt();
+
+                    break;
+                case BasicType.T_SHORT:
+                    vals[i] = (short) stack.popInt();
 
                     break;
                 case BasicType.T_INT:
-                    vals[i] = frame.getStack().pop().getVal();
+                    vals[i] = stack.popInt();
 
                     break;
                 case BasicType.T_OBJECT:
-                    vals[i] = frame.getStack().pop().getObject();
+                    vals[i] = stack.popObject();
 
                     break;
                 case BasicType.T_LONG:
-                    vals[i] = frame.getStack().pop().getData();
+                    vals[i] = stack.popLong();
 
                     break;
                 case BasicType.T_DOUBLE:
-                    vals[i] = frame.getStack().popDouble();
+                    vals[i] = stack.popDouble();
 
                     break;
                 case BasicType.T_FLOAT:
-                    vals[i] = frame.getStack().pop().getData();
+                    vals[i] = stack.popFloat();
 
                     break;
                 case BasicType.T_ARRAY:
@@ -212,26 +232,27 @@ public class DescriptorStream2 extends ResourceObj {
 
     public Object getFieldVal(JavaVFrame frame) {
         Object val = null;
+        StackValueCollection stack = frame.getStack();
 
         switch (returnElement.getType()) {
             case BasicType.T_CHAR:
-                val = frame.getStack().pop().getVal();
+                val = (char) stack.popInt();
 
                 break;
             case BasicType.T_INT:
-                val = frame.getStack().pop().getVal();
+                val = stack.popInt();
 
                 break;
             case BasicType.T_OBJECT:
-                val = frame.getStack().pop().getObject();
+                val = stack.popObject();
 
                 break;
             case BasicType.T_LONG:
-                val = frame.getStack().pop().getVal();
+                val = stack.popLong();
 
                 break;
             case BasicType.T_DOUBLE:
-                val = frame.getStack().pop().getVal();
+                val = stack.popDouble();
 
                 break;
             case BasicType.T_ARRAY:
@@ -244,25 +265,37 @@ public class DescriptorStream2 extends ResourceObj {
     }
 
     public void pushField(Object o, JavaVFrame frame) {
+        StackValueCollection stack = frame.getStack();
+
         switch (returnElement.getType()) {
+            case BasicType.T_BOOLEAN:
+                stack.pushInt((boolean) o ? 1 : 0);
+
+                break;
             case BasicType.T_CHAR:
-                frame.getStack().push(new StackValue(BasicType.T_CHAR, (char)o));
+                stack.pushInt((char) o);
 
                 break;
+            case BasicType.T_BYTE:
+            case BasicType.T_SHORT:
             case BasicType.T_INT:
-                frame.getStack().push(new StackValue(BasicType.T_INT, (int)o));
+                stack.pushInt(((Number) o).intValue());
 
                 break;
             case BasicType.T_OBJECT:
-                frame.getStack().push(new StackValue(BasicType.T_OBJECT, o));
+                stack.pushObject(o);
 
                 break;
             case BasicType.T_LONG:
-                frame.getStack().push(new StackValue(BasicType.T_LONG, (int)o));
+                stack.pushLong((long) o);
+
+                break;
+            case BasicType.T_FLOAT:
+                stack.pushFloat((float) o);
 
                 break;
             case BasicType.T_DOUBLE:
-                frame.getStack().push(new StackValue(BasicType.T_DOUBLE, (int)o));
+                stack.pushDouble((double) o);
 
                 break;
             case BasicType.T_ARRAY:
@@ -1,12 +1,88 @@
 package com.czh.jvm.hotspot.src.share.vm.classfile;
 
+import com.czh.jvm.hotspot.src.share.vm.memory.MetaspaceObj;
 import com.czh.jvm.hotspot.src.share.vm.oops.AttributeInfo;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 
+/**
+ * StackMapTable属性，对应hotspot的stackMapTable.hpp
+ *
+ * 记录分支目标、异常处理器处局部变量表和操作数栈中每个槽位的类型，校验时使用，见Verifier
+ * 每一帧都是相对上一帧(第一帧相对方法入口)的增量，按原样保存，校验时再展开
+ */
 @Data
+@EqualsAndHashCode(callSuper = false)
 public class StackMapTable extends AttributeInfo {
 
+    // 帧类型
+    public static final int SAME_FRAME_MAX = 63;
+    public static final int SAME_LOCALS_1_STACK_ITEM_MAX = 127;
+    public static final int SAME_LOCALS_1_STACK_ITEM_EXTENDED = 247;
+    public static final int CHOP_FRAME_MAX = 250;
+    public static final int SAME_FRAME_EXTENDED = 251;
+    public static final int APPEND_FRAME_MAX = 254;
+    public static final int FULL_FRAME = 255;
+
+    // verification_type_info的tag
+    public static final int ITEM_Top = 0;
+    public static final int ITEM_Integer = 1;
+    public static final int ITEM_Float = 2;
+    public static final int ITEM_Double = 3;
+    public static final int ITEM_Long = 4;
+    public static final int ITEM_Null = 5;
+    public static final int ITEM_UninitializedThis = 6;
+    public static final int ITEM_Object = 7;
+    public static final int ITEM_Uninitialized = 8;
+
+    private static final VerificationTypeInfo[] EMPTY = new VerificationTypeInfo[0];
+
     private int attrNameIndex;
     private int attrLength;
 
+    private int numberOfEntries;
+    private StackMapFrame[] entries;
+
+    public void initEntries() {
+        entries = new StackMapFrame[numberOfEntries];
+    }
+
+    @Data
+    @EqualsAndHashCode(callSuper = false)
+    public class StackMapFrame extends MetaspaceObj {
+        private int frameType;
+        private int offsetDelta;
+
+        // append_frame、full_frame的局部变量，long、double只记一项
+        private VerificationTypeInfo[] locals = EMPTY;
+
+        // same_locals_1_stack_item_frame、full_frame的操作数栈
+        private VerificationTypeInfo[] stack = EMPTY;
+
+        /**
+         * chop_frame去掉的局部变量个数
+         */
+        public int getChopped() {
+            return SAME_FRAME_EXTENDED - frameType;
+        }
+    }
+
+    @Data
+    @EqualsAndHashCode(callSuper = false)
+    public class VerificationTypeInfo extends MetaspaceObj {
+        private int tag;
+
+        // ITEM_Object：类在常量池中的索引
+        private int cpoolIndex;
+
+        // ITEM_Uninitialized：创建该对象的new指令的位置
+        private int offset;
+
+        /**
+         * 是否占两个槽位
+         */
+        public boolean isCategory2() {
+            return ITEM_Long == tag || ITEM_Double == tag;
+        }
+    }
 }
@@ -0,0 +1,45 @@
+package com.czh.jvm.hotspot.src.share.vm.classfile;
+
+import com.czh.jvm.hotspot.src.share.vm.memory.AllStatic;
+import com.czh.jvm.hotspot.src.share.vm.oops.Symbol;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 全局符号表，对应hotspot的symbolTable.hpp
+ *
+ * 所有类的常量池共用，相同内容的Utf8常量只保存一份，如java/lang/Object、<init>、()V
+ * 预加载时多个线程同时解析类文件，用ConcurrentHashMap，先存入的为准
+ */
+public class SymbolTable extends AllStatic {
+
+    private static final ConcurrentHashMap<Symbol, Symbol> table = new ConcurrentHashMap<>(4096);
+
+    /**
+     * 查找符号，没有时创建。bytes是modified UTF-8编码的内容，存入后不能再修改
+     */
+    public static Symbol lookup(byte[] bytes) {
+        Symbol symbol = new Symbol(bytes);
+
+        Symbol prev = table.putIfAbsent(symbol, symbol);
+
+        return null != prev ? prev : symbol;
+    }
+
+    public static Symbol lookup(String name) {
+        return lookup(Symbol.encode(name));
+    }
+
+    /**
+     * 只查找不创建，没有时返回null。符号表中没有，说明已经加载的类中都不会有这个名字
+     */
+    public static Symbol probe(String name) {
+        Symbol symbol = new Symbol(Symbol.encode(name));
+
+        return table.get(symbol);
+    }
+
+    public static int size() {
+        return table.size();
+    }
+}
@@ -0,0 +1,745 @@
+package com.czh.jvm.hotspot.src.share.vm.classfile;
+
+import com.czh.jvm.hotspot.src.share.vm.interpreter.Bytecodes;
+import com.czh.jvm.hotspot.src.share.vm.interpreter.Instruction;
+import com.czh.jvm.hotspot.src.share.vm.memory.StackObj;
+import com.czh.jvm.hotspot.src.share.vm.oops.CodeAttributeInfo;
+import com.czh.jvm.hotspot.src.share.vm.oops.ConstantPool;
+import com.czh.jvm.hotspot.src.share.vm.oops.ConstantPoolCacheEntry;
+import com.czh.jvm.hotspot.src.share.vm.oops.MemberRef;
+import com.czh.jvm.hotspot.src.share.vm.oops.MethodInfo;
+import com.czh.jvm.hotspot.src.share.vm.utilities.BasicType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 字节码校验，对应hotspot的verifier.cpp(类型检查校验)
+ *
+ * 链接时对每个方法执行一次，按顺序扫描预解码后的指令，推算每条指令前局部变量表和操作数栈中每个槽位的类型：
+ *  1、分支目标、异常处理器处的类型以StackMapTable为准，当前的类型必须能赋值给它
+ *  2、每条指令出栈、读取局部变量的类型必须和指令要求的一致，深度不能超过maxStack、maxLocals
+ *
+ * 这里只按类别校验：int(byte、char、short、boolean)、float、long、double、引用，不检查引用之间的子类型关系
+ * 解释器的类型检查也只做到这一层，所以通过校验的方法执行时可以不再记录和检查类型，见StackValueCollection
+ *
+ * 用到了解释器不支持或这里不认识的指令、StackMapTable不完整等情况都只是不通过，方法照常按检查类型的方式执行
+ */
+public class Verifier extends StackObj {
+
+    private static Logger logger = LoggerFactory.getLogger(Verifier.class);
+
+    // 槽位类型，和CheckedStackValueCollection中的类型标记一致
+    private static final int TOP = BasicType.T_ILLEGAL;    // 不可用
+    private static final int INT = BasicType.T_INT;
+    private static final int FLOAT = BasicType.T_FLOAT;
+    private static final int LONG = BasicType.T_LONG;
+    private static final int DOUBLE = BasicType.T_DOUBLE;
+    private static final int REF = BasicType.T_OBJECT;
+    private static final int HALF = BasicType.T_VOID;      // long、double的高位槽位
+
+    // xload、xstore按指令顺序对应的类型
+    private static final int[] LOAD_STORE_TYPES = {INT, LONG, FLOAT, DOUBLE, REF};
+
+    /**
+     * 简单指令的栈变化，格式为"出栈:入栈"，I、F、J、D、A分别表示int、float、long、double、引用
+     * 出栈从右往左依次弹出，如isub为"II:I"
+     */
+    private static final String[] EFFECTS = new String[256];
+
+    static {
+        effect(":", Bytecodes.NOP, Bytecodes.GOTO, Bytecodes.GOTO_W);
+        effect(":A", Bytecodes.ACONST_NULL, Bytecodes.NEW);
+        effect(":I", Bytecodes.ICONST_M1, Bytecodes.ICONST_0, Bytecodes.ICONST_1, Bytecodes.ICONST_2,
+                Bytecodes.ICONST_3, Bytecodes.ICONST_4, Bytecodes.ICONST_5, Bytecodes.BIPUSH, Bytecodes.SIPUSH);
+        effect(":J", Bytecodes.LCONST_0, Bytecodes.LCONST_1);
+        effect(":F", Bytecodes.FCONST_0, Bytecodes.FCONST_1, Bytecodes.FCONST_2);
+        effect(":D", Bytecodes.DCONST_0, Bytecodes.DCONST_1);
+
+        effect("AI:I", Bytecodes.IALOAD, Bytecodes.BALOAD, Bytecodes.CALOAD, Bytecodes.SALOAD);
+        effect("AI:J", Bytecodes.LALOAD);
+        effect("AI:F", Bytecodes.FALOAD);
+        effect("AI:D", Bytecodes.DALOAD);
+        effect("AI:A", Bytecodes.AALOAD);
+        effect("AII:", Bytecodes.IASTORE, Bytecodes.BASTORE, Bytecodes.CASTORE, Bytecodes.SASTORE);
+        effect("AIJ:", Bytecodes.LASTORE);
+        effect("AIF:", Bytecodes.FASTORE);
+        effect("AID:", Bytecodes.DASTORE);
+        effect("AIA:", Bytecodes.AASTORE);
+
+        effect("II:I", Bytecodes.IADD, Bytecodes.ISUB, Bytecodes.IMUL, Bytecodes.IDIV, Bytecodes.IREM);
+        effect("JJ:J", Bytecodes.LADD, Bytecodes.LSUB, Bytecodes.LMUL, Bytecodes.LDIV, Bytecodes.LREM);
+        effect("FF:F", Bytecodes.FADD, Bytecodes.FSUB, Bytecodes.FMUL, Bytecodes.FDIV, Bytecodes.FREM);
+        effect("DD:D", Bytecodes.DADD, Bytecodes.DSUB, Bytecodes.DMUL, Bytecodes.DDIV, Bytecodes.DREM);
+
+        effect("I:J", Bytecodes.I2L);
+        effect("I:F", Bytecodes.I2F);
+        effect("I:D", Bytecodes.I2D);
+        effect("J:I", Bytecodes.L2I);
+        effect("J:F", Bytecodes.L2F);
+        effect("J:D", Bytecodes.L2D);
+        effect("F:I", Bytecodes.F2I);
+        effect("F:J", Bytecodes.F2L);
+        effect("F:D", Bytecodes.F2D);
+        effect("D:I", Bytecodes.D2I);
+        effect("D:J", Bytecodes.D2L);
+        effect("D:F", Bytecodes.D2F);
+        effect("I:I", Bytecodes.I2B, Bytecodes.I2C, Bytecodes.I2S);
+
+        effect("JJ:I", Bytecodes.LCMP);
+        effect("FF:I", Bytecodes.FCMPL, Bytecodes.FCMPG);
+        effect("DD:I", Bytecodes.DCMPL, Bytecodes.DCMPG);
+
+        effect("I:", Bytecodes.IFEQ, Bytecodes.IFNE, Bytecodes.IFLT, Bytecodes.IFGE, Bytecodes.IFGT, Bytecodes.IFLE);
+        effect("II:", Bytecodes.IF_ICMPEQ, Bytecodes.IF_ICMPNE, Bytecodes.IF_ICMPLT, Bytecodes.IF_ICMPGE,
+                Bytecodes.IF_ICMPGT, Bytecodes.IF_ICMPLE);
+        effect("AA:", Bytecodes.IF_ACMPEQ, Bytecodes.IF_ACMPNE);
+        effect("A:", Bytecodes.IFNULL, Bytecodes.IFNONNULL);
+
+        effect("I:A", Bytecodes.NEWARRAY, Bytecodes.ANEWARRAY);
+        effect("A:I", Bytecodes.ARRAYLENGTH);
+    }
+
+    private static void effect(String effect, int... opcodes) {
+        for (int opcode : opcodes) {
+            EFFECTS[opcode] = effect;
+        }
+    }
+
+    /**
+     * 校验方法，Rewriter预解码完成后调用
+     * @param code 预解码后的指令
+     * @param bciToIndex 字节码位置 => 指令数组下标
+     * @return 是否通过
+     */
+    public static boolean verify(MethodInfo method, Instruction[] code, int[] bciToIndex) {
+        try {
+            new Verifier(method, code, bciToIndex).verifyMethod();
+        } catch (VerifyError e) {
+            logger.info("方法 [ " + method.getMethodName() + " ] 没有通过校验，执行时检查类型: " + e.getMessage());
+
+            return false;
+        }
+
+        logger.info("方法 [ " + method.getMethodName() + " ] 校验通过");
+
+        return true;
+    }
+
+    /**
+     * 方法入口处局部变量表中参数的类型，非静态方法0号槽位是this
+     */
+    public static int[] parameterTypes(MethodInfo method) {
+        List<Integer> types = new ArrayList<>();
+        if (!method.getAccessFlags().isStatic()) {
+            types.add(REF);
+        }
+
+        String descriptor = method.getDescriptorSymbol().asString();
+        for (int i = 1; ')' != descriptor.charAt(i); i = skipType(descriptor, i)) {
+            types.add(typeOf(descriptor.charAt(i)));
+        }
+
+        return toSlots(types);
+    }
+
+    /**
+     * 各指令处局部变量的类型，取自StackMapTable，栈上替换时用，见HostCompiler
+     * 槽位的类型为BasicType：T_INT、T_FLOAT、T_LONG、T_DOUBLE、T_OBJECT，long、double的高位为T_VOID，不可用的为T_ILLEGAL
+     * @return 指令数组下标 => 局部变量的类型，没有帧或者操作数栈不为空的指令为null。没有StackMapTable或者帧不合法时为null
+     */
+    public static int[][] frameLocals(MethodInfo method) {
+        CodeAttributeInfo codeAttributeInfo = method.getCodeAttribute();
+
+        if (null == codeAttributeInfo.getAttributes().get(VmSymbols.STACK_MAP_TABLE.asString())) {
+            return null;
+        }
+
+        Verifier verifier = new Verifier(method, codeAttributeInfo.getInstructions(), codeAttributeInfo.getBciToIndex());
+        try {
+            verifier.buildFrames(parameterTypes(method));
+        } catch (VerifyError e) {
+            return null;
+        }
+
+        int[][] result = new int[verifier.frames.length][];
+
+        for (int i = 0; i < result.length; i++) {
+            Frame frame = verifier.frames[i];
+            if (null == frame || 0 != frame.stack.length) {
+                continue;
+            }
+
+            result[i] = new int[codeAttributeInfo.getMaxLocals()];
+            Arrays.fill(result[i], TOP);
+            System.arraycopy(frame.locals, 0, result[i], 0, frame.locals.length);
+        }
+
+        return result;
+    }
+
+    private final MethodInfo method;
+
+    private final CodeAttributeInfo codeAttributeInfo;
+
+    private final Instruction[] code;
+
+    private final int[] bciToIndex;
+
+    // 当前指令执行前的类型
+    private final int[] locals;
+
+    private final int[] stack;
+
+    private int sp;
+
+    // 指令数组下标 => StackMapTable中的帧，没有的为null
+    private final Frame[] frames;
+
+    // 正在校验的指令位置，出错时打印
+    private int bci;
+
+    private Verifier(MethodInfo method, Instruction[] code, int[] bciToIndex) {
+        this.method = method;
+        this.codeAttributeInfo = method.getCodeAttribute();
+        this.code = code;
+        this.bciToIndex = bciToIndex;
+
+        locals = new int[codeAttributeInfo.getMaxLocals()];
+        stack = new int[codeAttributeInfo.getMaxStack()];
+        frames = new Frame[code.length];
+    }
+
+    private void verifyMethod() {
+        int[] parameters = parameterTypes(method);
+        if (parameters.length > locals.length) {
+            throw new VerifyError("参数超出了局部变量表的大小");
+        }
+
+        Arrays.fill(locals, TOP);
+        System.arraycopy(parameters, 0, locals, 0, parameters.length);
+
+        buildFrames(parameters);
+
+        // 上一条指令执行完后能否顺序执行到这一条
+        boolean reachable = true;
+
+        for (int i = 0; i < code.length; i++) {
+            Instruction instruction = code[i];
+
+            bci = instruction.getBci();
+
+            Frame frame = frames[i];
+            if (null != frame) {
+                if (reachable) {
+                    checkAssignable(frame);
+                }
+
+                Arrays.fill(locals, TOP);
+                System.arraycopy(frame.locals, 0, locals, 0, frame.locals.length);
+                System.arraycopy(frame.stack, 0, stack, 0, frame.stack.length);
+                sp = frame.stack.length;
+            } else if (!reachable) {
+                throw fail("无条件跳转之后的指令没有StackMapTable帧");
+            }
+
+            checkHandlers();
+
+            reachable = execute(instruction);
+
+            if (-1 != instruction.getTarget()) {
+                Frame target = frames[instruction.getTarget()];
+                if (null == target) {
+                    throw fail("跳转目标没有StackMapTable帧");
+                }
+
+                checkAssignable(target);
+            }
+        }
+
+        if (reachable) {
+            throw new VerifyError("执行到了方法的末尾");
+        }
+    }
+
+    /**
+     * 把StackMapTable中的增量帧逐个展开，按指令下标放好
+     */
+    private void buildFrames(int[] parameters) {
+        StackMapTable table = (StackMapTable) codeAttributeInfo.getAttributes().get(VmSymbols.STACK_MAP_TABLE.asString());
+        if (null == table) {
+            return;
+        }
+
+        // 上一帧的局部变量，和类文件中一样long、double只记一项。第一帧相对方法入口
+        List<Integer> frameLocals = new ArrayList<>();
+        for (int i = 0; i < parameters.length; i++) {
+            frameLocals.add(parameters[i]);
+
+            if (LONG == parameters[i] || DOUBLE == parameters[i]) {
+                i++;
+            }
+        }
+
+        int frameBci = -1;
+        for (StackMapTable.StackMapFrame entry : table.getEntries()) {
+            frameBci += entry.getOffsetDelta() + 1;
+
+            int frameType = entry.getFrameType();
+            if (frameType > StackMapTable.SAME_LOCALS_1_STACK_ITEM_EXTENDED && frameType <= StackMapTable.CHOP_FRAME_MAX) {
+                if (entry.getChopped() > frameLocals.size()) {
+                    throw new VerifyError("chop_frame去掉的局部变量过多");
+                }
+
+                frameLocals = frameLocals.subList(0, frameLocals.size() - entry.getChopped());
+            } else if (frameType > StackMapTable.SAME_FRAME_EXTENDED && frameType <= StackMapTable.APPEND_FRAME_MAX) {
+                frameLocals = new ArrayList<>(frameLocals);
+                frameLocals.addAll(typesOf(entry.getLocals()));
+            } else if (StackMapTable.FULL_FRAME == frameType) {
+                frameLocals = typesOf(entry.getLocals());
+            }
+
+            if (frameBci >= bciToIndex.length || -1 == bciToIndex[frameBci]) {
+                throw new VerifyError("StackMapTable帧不在指令的起始位置: " + frameBci);
+            }
+
+            Frame frame = new Frame(toSlots(frameLocals), toSlots(typesOf(entry.getStack())));
+            if (frame.locals.length > locals.length || frame.stack.length > stack.length) {
+                throw new VerifyError("StackMapTable帧超出了局部变量表或操作数栈的大小: " + frameBci);
+            }
+
+            frames[bciToIndex[frameBci]] = frame;
+        }
+    }
+
+    /**
+     * 当前的类型能否赋值给帧中的类型：帧中为top的局部变量不要求，其他的必须相同，操作数栈深度也要相同
+     */
+    private void checkAssignable(Frame frame) {
+        for (int i = 0; i < frame.locals.length; i++) {
+            if (TOP != frame.locals[i] && locals[i] != frame.locals[i]) {
+                throw fail("局部变量" + i + "的类型和StackMapTable不一致");
+            }
+        }
+
+        if (sp != frame.stack.length) {
+            throw fail("操作数栈深度和StackMapTable不一致");
+        }
+
+        for (int i = 0; i < sp; i++) {
+            if (stack[i] != frame.stack[i]) {
+                throw fail("操作数栈的类型和StackMapTable不一致");
+            }
+        }
+    }
+
+    /**
+     * 当前指令可能抛出异常：覆盖它的异常处理器处的局部变量必须和当前的一致，操作数栈只有异常对象
+     */
+    private void checkHandlers() {
+        for (CodeAttributeInfo.ExceptionItem item : codeAttributeInfo.getExceptionTable()) {
+            if (bci < item.getStartPc() || bci >= item.getEndPc()) {
+                continue;
+            }
+
+            Frame frame = frames[item.getHandlerIndex()];
+            if (null == frame) {
+                throw fail("异常处理器没有StackMapTable帧");
+            }
+
+            if (1 != frame.stack.length || REF != frame.stack[0]) {
+                throw fail("异常处理器的操作数栈不是只有异常对象");
+            }
+
+            for (int i = 0; i < frame.locals.length; i++) {
+                if (TOP != frame.locals[i] && locals[i] != frame.locals[i]) {
+                    throw fail("局部变量" + i + "的类型和异常处理器不一致");
+                }
+            }
+        }
+    }
+
+    /**
+     * 按指令修改当前的类型
+     * @return 能否顺序执行到下一条指令
+     */
+    private boolean execute(Instruction instruction) {
+        int opcode = instruction.getOpcode();
+
+        if (opcode >= Bytecodes.ILOAD && opcode <= Bytecodes.ALOAD) {
+            load(instruction.getOperand(), LOAD_STORE_TYPES[opcode - Bytecodes.ILOAD]);
+
+            return true;
+        }
+
+        if (opcode >= Bytecodes.ILOAD_0 && opcode <= Bytecodes.ALOAD_3) {
+            load((opcode - Bytecodes.ILOAD_0) % 4, LOAD_STORE_TYPES[(opcode - Bytecodes.ILOAD_0) / 4]);
+
+            return true;
+        }
+
+        if (opcode >= Bytecodes.ISTORE && opcode <= Bytecodes.ASTORE) {
+            store(instruction.getOperand(), LOAD_STORE_TYPES[opcode - Bytecodes.ISTORE]);
+
+            return true;
+        }
+
+        if (opcode >= Bytecodes.ISTORE_0 && opcode <= Bytecodes.ASTORE_3) {
+            store((opcode - Bytecodes.ISTORE_0) % 4, LOAD_STORE_TYPES[(opcode - Bytecodes.ISTORE_0) / 4]);
+
+            return true;
+        }
+
+        switch (opcode) {
+            case Bytecodes.IINC:
+                checkLocal(instruction.getOperand(), INT);
+
+                return true;
+            case Bytecodes.LDC:
+            case Bytecodes.LDC_W:
+                switch (instruction.getOperand2()) {
+                    case ConstantPool.JVM_CONSTANT_Integer:
+                        push(INT);
+                        break;
+                    case ConstantPool.JVM_CONSTANT_Float:
+                        push(FLOAT);
+                        break;
+                    case ConstantPool.JVM_CONSTANT_String:
+                        push(REF);
+                        break;
+                    default:
+                        // 解释器对类常量什么也不压，和规范不一致
+                        throw fail("ldc不支持的常量类型: " + instruction.getOperand2());
+                }
+
+                return true;
+            case Bytecodes.LDC2_W:
+                push(ConstantPool.JVM_CONSTANT_Long == instruction.getOperand2() ? LONG : DOUBLE);
+
+                return true;
+            case Bytecodes.POP:
+                popSlots(1);
+
+                return true;
+            case Bytecodes.POP2:
+                popSlots(2);
+
+                return true;
+            case Bytecodes.DUP:
+            case Bytecodes.DUP2: {
+                int n = Bytecodes.DUP == opcode ? 1 : 2;
+
+                popSlots(n);
+                checkOverflow(2 * n);
+
+                System.arraycopy(stack, sp, stack, sp + n, n);
+                sp += 2 * n;
+
+                return true;
+            }
+            case Bytecodes.GETSTATIC: {
+                // 解释器取出的静态字段都按引用压栈，基本类型的字段不通过
+                String descriptor = ((MemberRef) instruction.getResolved()).getDescriptor();
+                if (REF != typeOf(descriptor.charAt(0))) {
+                    throw fail("getstatic基本类型的字段");
+                }
+
+                push(REF);
+
+                return true;
+            }
+            case Bytecodes.INVOKEVIRTUAL:
+            case Bytecodes.INVOKESPECIAL:
+            case Bytecodes.INVOKESTATIC:
+            case Bytecodes.INVOKEINTERFACE: {
+                ConstantPoolCacheEntry entry = (ConstantPoolCacheEntry) instruction.getResolved();
+
+                invoke(entry.getRef().getDescriptor(), Bytecodes.INVOKESTATIC != opcode);
+
+                return true;
+            }
+            case Bytecodes.INVOKEDYNAMIC: {
+                // 解释器不会从操作数栈取捕获的参数，有参数的不通过
+                String descriptor = method.getBelongKlass().getConstantPool().getDescriptorNameByDynamicInfo(instruction.getOperand());
+                if (!descriptor.startsWith("()")) {
+                    throw fail("invokedynamic带参数");
+                }
+
+                invoke(descriptor, false);
+
+                return true;
+            }
+            case Bytecodes.IRETURN:
+            case Bytecodes.LRETURN:
+            case Bytecodes.FRETURN:
+            case Bytecodes.DRETURN:
+            case Bytecodes.ARETURN:
+            case Bytecodes.RETURN: {
+                int type = Bytecodes.RETURN == opcode ? HALF : LOAD_STORE_TYPES[opcode - Bytecodes.IRETURN];
+
+                String descriptor = method.getDescriptorSymbol().asString();
+                if (type != returnType(descriptor)) {
+                    throw fail("返回指令和方法的返回值类型不一致");
+                }
+
+                if (HALF != type) {
+                    pop(type);
+                }
+
+                return false;
+            }
+            case Bytecodes.ATHROW:
+                pop(REF);
+
+                return false;
+            default:
+                break;
+        }
+
+        String effect = EFFECTS[opcode];
+        if (null == effect) {
+            throw fail("不支持的指令: " + opcode);
+        }
+
+        int separator = effect.indexOf(':');
+        for (int i = separator - 1; i >= 0; i--) {
+            pop(typeOf(effect.charAt(i)));
+        }
+
+        for (int i = separator + 1; i < effect.length(); i++) {
+            push(typeOf(effect.charAt(i)));
+        }
+
+        return Bytecodes.GOTO != opcode && Bytecodes.GOTO_W != opcode;
+    }
+
+    private void invoke(String descriptor, boolean hasReceiver) {
+        List<Integer> parameters = new ArrayList<>();
+        for (int i = 1; ')' != descriptor.charAt(i); i = skipType(descriptor, i)) {
+            parameters.add(typeOf(descriptor.charAt(i)));
+        }
+
+        for (int i = parameters.size() - 1; i >= 0; i--) {
+            pop(parameters.get(i));
+        }
+
+        if (hasReceiver) {
+            pop(REF);
+        }
+
+        int type = returnType(descriptor);
+        if (HALF != type) {
+            push(type);
+        }
+    }
+
+    private void load(int index, int type) {
+        checkLocal(index, type);
+
+        push(type);
+    }
+
+    private void store(int index, int type) {
+        int size = isCategory2(type) ? 2 : 1;
+        if (index + size > locals.length) {
+            throw fail("局部变量越界: " + index);
+        }
+
+        pop(type);
+
+        // 覆盖了long、double的一半，另一半也不能再用
+        if (index > 0 && isCategory2(locals[index - 1])) {
+            locals[index - 1] = TOP;
+        }
+
+        if (isCategory2(locals[index + size - 1]) && index + size < locals.length) {
+            locals[index + size] = TOP;
+        }
+
+        locals[index] = type;
+        if (2 == size) {
+            locals[index + 1] = HALF;
+        }
+    }
+
+    private void checkLocal(int index, int type) {
+        int size = isCategory2(type) ? 2 : 1;
+        if (index + size > locals.length) {
+            throw fail("局部变量越界: " + index);
+        }
+
+        if (locals[index] != type || (2 == size && HALF != locals[index + 1])) {
+            throw fail("局部变量" + index + "的类型不对");
+        }
+    }
+
+    private void push(int type) {
+        int size = isCategory2(type) ? 2 : 1;
+
+        checkOverflow(size);
+
+        stack[sp++] = type;
+        if (2 == size) {
+            stack[sp++] = HALF;
+        }
+    }
+
+    private void pop(int type) {
+        if (isCategory2(type)) {
+            if (sp < 2 || HALF != stack[sp - 1] || type != stack[sp - 2]) {
+                throw fail("操作数栈栈顶的类型不对");
+            }
+
+            sp -= 2;
+        } else {
+            if (sp < 1 || type != stack[sp - 1]) {
+                throw fail("操作数栈栈顶的类型不对");
+            }
+
+            sp--;
+        }
+    }
+
+    /**
+     * 按槽位出栈(pop、pop2、dup、dup2用)，不能把long、double拆开
+     */
+    private void popSlots(int n) {
+        if (sp < n || HALF == stack[sp - n]) {
+            throw fail("操作数栈栈顶的类型不对");
+        }
+
+        sp -= n;
+    }
+
+    private void checkOverflow(int n) {
+        if (sp + n > stack.length) {
+            throw fail("超出了操作数栈的最大深度");
+        }
+    }
+
+    private VerifyError fail(String message) {
+        return new VerifyError(message + ", bci: " + bci);
+    }
+
+    private static boolean isCategory2(int type) {
+        return LONG == type || DOUBLE == type;
+    }
+
+    /**
+     * 描述符中的类型，也用于EFFECTS
+     */
+    private static int typeOf(char c) {
+        switch (c) {
+            case 'B':
+            case 'C':
+            case 'S':
+            case 'Z':
+            case 'I':
+                return INT;
+            case 'F':
+                return FLOAT;
+            case 'J':
+                return LONG;
+            case 'D':
+                return DOUBLE;
+            case 'L':
+            case '[':
+            case 'A':
+                return REF;
+            default:
+                throw new VerifyError("无法识别的类型: " + c);
+        }
+    }
+
+    /**
+     * 方法的返回值类型，void为HALF
+     */
+    private static int returnType(String descriptor) {
+        char c = descriptor.charAt(descriptor.indexOf(')') + 1);
+
+        return 'V' == c ? HALF : typeOf(c);
+    }
+
+    /**
+     * 跳过描述符中的一个类型
+     * @return 下一个类型的位置
+     */
+    private static int skipType(String descriptor, int index) {
+        while ('[' == descriptor.charAt(index)) {
+            index++;
+        }
+
+        if ('L' == descriptor.charAt(index)) {
+            index = descriptor.indexOf(';', index);
+        }
+
+        return index + 1;
+    }
+
+    private static List<Integer> typesOf(StackMapTable.VerificationTypeInfo[] infos) {
+        List<Integer> types = new ArrayList<>();
+
+        for (StackMapTable.VerificationTypeInfo info : infos) {
+            switch (info.getTag()) {
+                case StackMapTable.ITEM_Top:
+                    types.add(TOP);
+                    break;
+                case StackMapTable.ITEM_Integer:
+                    types.add(INT);
+                    break;
+                case StackMapTable.ITEM_Float:
+                    types.add(FLOAT);
+                    break;
+                case StackMapTable.ITEM_Long:
+                    types.add(LONG);
+                    break;
+                case StackMapTable.ITEM_Double:
+                    types.add(DOUBLE);
+                    break;
+                default:
+                    // null、未初始化的对象都按引用处理
+                    types.add(REF);
+                    break;
+            }
+        }
+
+        return types;
+    }
+
+    /**
+     * 展开成槽位，long、double后面补一个HALF
+     */
+    private static int[] toSlots(List<Integer> types) {
+        int size = 0;
+        for (int type : types) {
+            size += isCategory2(type) ? 2 : 1;
+        }
+
+        int[] slots = new int[size];
+
+        int index = 0;
+        for (int type : types) {
+            slots[index++] = type;
+
+            if (isCategory2(type)) {
+                slots[index++] = HALF;
+            }
+        }
+
+        return slots;
+    }
+
+    private static class Frame {
+        final int[] locals;
+
+        final int[] stack;
+
+        Frame(int[] locals, int[] stack) {
+            this.locals = locals;
+            this.stack = stack;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.czh.jvm.hotspot.src.share.vm.classfile;
+
+import com.czh.jvm.hotspot.src.share.vm.memory.AllStatic;
+import com.czh.jvm.hotspot.src.share.vm.oops.Symbol;
+
+/**
+ * 虚拟机内部用到的符号，对应hotspot的vmSymbols.hpp
+ * 启动时就放入符号表，类文件中的同名常量解析出来就是这里的对象，直接用==判断
+ */
+public class VmSymbols extends AllStatic {
+
+    // 类、方法、Code的属性名
+    public static final Symbol SOURCE_FILE = SymbolTable.lookup("SourceFile");
+    public static final Symbol INNER_CLASSES = SymbolTable.lookup("InnerClasses");
+    public static final Symbol BOOTSTRAP_METHODS = SymbolTable.lookup("BootstrapMethods");
+    public static final Symbol RUNTIME_VISIBLE_ANNOTATIONS = SymbolTable.lookup("RuntimeVisibleAnnotations");
+    public static final Symbol RUNTIME_INVISIBLE_ANNOTATIONS = SymbolTable.lookup("RuntimeInvisibleAnnotations");
+    public static final Symbol CODE = SymbolTable.lookup("Code");
+    public static final Symbol EXCEPTIONS = SymbolTable.lookup("Exceptions");
+    public static final Symbol LINE_NUMBER_TABLE = SymbolTable.lookup("LineNumberTable");
+    public static final Symbol LOCAL_VARIABLE_TABLE = SymbolTable.lookup("LocalVariableTable");
+    public static final Symbol STACK_MAP_TABLE = SymbolTable.lookup("StackMapTable");
+
+    // 方法名、描述符
+    public static final Symbol OBJECT_INITIALIZER_NAME = SymbolTable.lookup("<init>");
+    public static final Symbol MAIN_NAME = SymbolTable.lookup("main");
+    public static final Symbol MAIN_SIGNATURE = SymbolTable.lookup("([Ljava/lang/String;)V");
+}
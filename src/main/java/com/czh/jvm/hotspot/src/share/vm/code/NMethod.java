@@ -0,0 +1,131 @@
+package com.czh.jvm.hotspot.src.share.vm.code;
+
+import com.czh.jvm.hotspot.src.share.vm.memory.ResourceObj;
+import com.czh.jvm.hotspot.src.share.vm.oops.MethodInfo;
+import com.czh.jvm.hotspot.src.share.vm.utilities.BasicType;
+
+import java.lang.invoke.MethodHandle;
+
+/**
+ * 编译好的方法，对应hotspot的nmethod.hpp
+ *
+ * 方法被翻译成宿主JVM的一个类中的同名静态方法，由宿主JVM执行，见HostCompiler
+ *  1、普通的：从方法开头执行，编译成功后挂到MethodInfo上，解释器之后调用该方法都走entry
+ *  2、栈上替换(OSR)的：只编译一个循环，解释执行到一半的栈帧从循环入口转过去接着执行，
+ *     离开循环时改过的局部变量写回栈帧，回到解释器继续执行，见BytecodeInterpreter.onStackReplace
+ *     同一个方法的按入口串成链表，挂到MethodInfo上
+ */
+public class NMethod extends ResourceObj {
+
+    // 普通方法的入口
+    public static final int INVOCATION_ENTRY = -1;
+
+    // OSR的版本执行到了返回指令，返回值已经压入操作数栈
+    public static final int OSR_RETURNED = -1;
+
+    private final MethodInfo method;
+
+    // 生成的类的内部名，其他编译好的方法直接按这个名字调用它
+    private final String holderName;
+
+    /**
+     * 普通的：直接读写操作数栈的桥接，类型为JavaCallBridge.METHOD_TYPE
+     * OSR的：(局部变量表, 操作数栈)int，返回解释器接着执行的指令下标，方法返回了时为OSR_RETURNED
+     */
+    private final MethodHandle entry;
+
+    // 编译的指令数，OSR的版本只算循环中的
+    private final int codeSize;
+
+    // 没有副作用，执行到一半失败了可以从头解释执行，见BytecodeInterpreter.invoke
+    private final boolean reexecutable;
+
+    // OSR的入口(循环入口的指令下标)，普通的为INVOCATION_ENTRY
+    private final int osrEntry;
+
+    // 同一个方法的下一个OSR版本
+    private NMethod osrLink;
+
+    public NMethod(MethodInfo method, String holderName, MethodHandle entry, int codeSize, boolean reexecutable, int osrEntry) {
+        this.method = method;
+        this.holderName = holderName;
+        this.entry = entry;
+        this.codeSize = codeSize;
+        this.reexecutable = reexecutable;
+        this.osrEntry = osrEntry;
+    }
+
+    public MethodInfo getMethod() {
+        return method;
+    }
+
+    public String getHolderName() {
+        return holderName;
+    }
+
+    public MethodHandle getEntry() {
+        return entry;
+    }
+
+    public int getCodeSize() {
+        return codeSize;
+    }
+
+    public boolean isReexecutable() {
+        return reexecutable;
+    }
+
+    public int getOsrEntry() {
+        return osrEntry;
+    }
+
+    public boolean isOsrMethod() {
+        return INVOCATION_ENTRY != osrEntry;
+    }
+
+    public NMethod getOsrLink() {
+        return osrLink;
+    }
+
+    public void setOsrLink(NMethod osrLink) {
+        this.osrLink = osrLink;
+    }
+
+    /**
+     * 返回值的类型，和返回指令一样int以下的都按int
+     */
+    public int getReturnType() {
+        String descriptor = method.getDescriptorSymbol().asString();
+
+        switch (descriptor.charAt(descriptor.indexOf(')') + 1)) {
+            case 'V':
+                return BasicType.T_VOID;
+            case 'J':
+                return BasicType.T_LONG;
+            case 'D':
+                return BasicType.T_DOUBLE;
+            case 'F':
+                return BasicType.T_FLOAT;
+            case 'L':
+            case '[':
+                return BasicType.T_OBJECT;
+            default:
+                return BasicType.T_INT;
+        }
+    }
+
+    /**
+     * 返回值占用的槽位数
+     */
+    public int getReturnSlotSize() {
+        switch (getReturnType()) {
+            case BasicType.T_VOID:
+                return 0;
+            case BasicType.T_LONG:
+            case BasicType.T_DOUBLE:
+                return 2;
+            default:
+                return 1;
+        }
+    }
+}
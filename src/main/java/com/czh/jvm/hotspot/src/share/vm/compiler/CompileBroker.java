@@ -0,0 +1,117 @@
+package com.czh.jvm.hotspot.src.share.vm.compiler;
+
+import com.czh.jvm.hotspot.src.share.vm.code.NMethod;
+import com.czh.jvm.hotspot.src.share.vm.memory.AllStatic;
+import com.czh.jvm.hotspot.src.share.vm.oops.MethodInfo;
+import com.czh.jvm.hotspot.src.share.vm.runtime.CompilationPolicy;
+import com.czh.jvm.hotspot.src.share.vm.runtime.Globals;
+
+/**
+ * 编译方法，对应hotspot的compileBroker.hpp
+ *
+ * 什么时候编译由CompilationPolicy决定，编译在调用线程中直接进行(没有后台编译线程)：
+ *  1、成功：编译好的方法挂到MethodInfo上，之后的调用都走它，见BytecodeInterpreter.invoke
+ *  2、失败：标记为不能编译，停在快速指令层。被调用的方法还没编译好的，计数不清零，阈值加倍后再试，
+ *     重试MAX_COMPILE_RETRIES次还不行也标记为不能编译，见CompilationPolicy.updateLimits
+ *  3、编译好的方法执行时宿主JVM栈溢出：去掉编译的版本，退回解释执行，见deoptimize
+ * 栈上替换的版本单独编译，从循环入口开始执行，见compileOsrMethod
+ */
+public class CompileBroker extends AllStatic {
+
+    // 被调用的方法还没编译好时，最多重试的次数
+    public static final int MAX_COMPILE_RETRIES = 3;
+
+    /**
+     * 编译方法，同一个方法只编译一次
+     */
+    public static synchronized NMethod compileMethod(MethodInfo method) {
+        if (null != method.getNmethod() || method.isNotCompilable()) {
+            return method.getNmethod();
+        }
+
+        try {
+            NMethod nm = HostCompiler.compile(method);
+
+            if (Globals.PrintCompilation) {
+                System.out.println("编译: " + nameOf(method) + " 指令数: " + nm.getCodeSize());
+            }
+
+            method.setNmethod(nm);
+            method.setCompLevel(CompilationPolicy.COMP_LEVEL_COMPILED);
+
+            return nm;
+        } catch (HostCompiler.Bailout e) {
+            if (Globals.PrintCompilation) {
+                System.out.println("不能编译: " + nameOf(method) + " 原因: " + e.getMessage());
+            }
+
+            if (e.isRetryable() && method.getCompileRetries() < MAX_COMPILE_RETRIES) {
+                method.setCompileRetries(method.getCompileRetries() + 1);
+            } else {
+                method.setNotCompilable(true);
+            }
+
+            return null;
+        }
+    }
+
+    /**
+     * 编译栈上替换的版本，同一个方法的同一个循环入口只编译一次
+     * @param entry 循环入口的指令下标
+     */
+    public static synchronized NMethod compileOsrMethod(MethodInfo method, int entry) {
+        NMethod osr = method.lookupOsrNmethod(entry);
+        if (null != osr || method.isNotOsrCompilable()) {
+            return osr;
+        }
+
+        try {
+            osr = HostCompiler.compileOsr(method, entry);
+
+            if (Globals.PrintCompilation) {
+                System.out.println("OSR编译: " + nameOf(method) + " @ " + method.getCodeAttribute().getInstructions()[entry].getBci()
+                        + " 指令数: " + osr.getCodeSize());
+            }
+
+            osr.setOsrLink(method.getOsrNmethods());
+            method.setOsrNmethods(osr);
+
+            return osr;
+        } catch (HostCompiler.Bailout e) {
+            if (Globals.PrintCompilation) {
+                System.out.println("不能OSR编译: " + nameOf(method) + " 原因: " + e.getMessage());
+            }
+
+            // 被调用的方法还没编译好的，回边再执行一段时间后重试，见CompilationPolicy.compileOsr
+            if (e.isRetryable() && method.getOsrCompileRetries() < MAX_COMPILE_RETRIES) {
+                method.setOsrCompileRetries(method.getOsrCompileRetries() + 1);
+            } else {
+                method.setNotOsrCompilable(true);
+            }
+
+            return null;
+        }
+    }
+
+    /**
+     * 去掉编译好的方法，之后一直解释执行。已经直接调用它的编译好的方法不受影响
+     */
+    public static synchronized void deoptimize(MethodInfo method, NMethod nm) {
+        if (method.getNmethod() != nm) {
+            return;
+        }
+
+        if (Globals.PrintCompilation) {
+            System.out.println("退回解释执行: " + nameOf(method));
+        }
+
+        method.setNmethod(null);
+        method.setNotCompilable(true);
+        method.setCompLevel(CompilationPolicy.COMP_LEVEL_QUICKENED);
+    }
+
+    public static String nameOf(MethodInfo method) {
+        return method.getBelongKlass().getConstantPool().getClassName(method.getBelongKlass().getThisClass())
+                + "." + method.getMethodName() + method.getDescriptorSymbol();
+    }
+}
@@ -0,0 +1,679 @@
+package com.czh.jvm.hotspot.src.share.vm.compiler;
+
+import com.czh.jvm.hotspot.src.share.vm.classfile.Verifier;
+import com.czh.jvm.hotspot.src.share.vm.classfile.VmSymbols;
+import com.czh.jvm.hotspot.src.share.vm.code.NMethod;
+import com.czh.jvm.hotspot.src.share.vm.interpreter.Bytecodes;
+import com.czh.jvm.hotspot.src.share.vm.interpreter.Instruction;
+import com.czh.jvm.hotspot.src.share.vm.interpreter.InterpreterRuntime;
+import com.czh.jvm.hotspot.src.share.vm.memory.ResourceObj;
+import com.czh.jvm.hotspot.src.share.vm.oops.CodeAttributeInfo;
+import com.czh.jvm.hotspot.src.share.vm.oops.ConstantPool;
+import com.czh.jvm.hotspot.src.share.vm.oops.ConstantPoolCacheEntry;
+import com.czh.jvm.hotspot.src.share.vm.oops.MemberRef;
+import com.czh.jvm.hotspot.src.share.vm.oops.MethodInfo;
+import com.czh.jvm.hotspot.src.share.vm.prims.JavaCallBridge;
+import com.czh.jvm.hotspot.src.share.vm.runtime.StackValueCollection;
+import com.czh.jvm.hotspot.src.share.vm.utilities.BasicType;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 把解释执行的方法翻译成宿主JVM的字节码，由宿主JVM解释、编译执行
+ *
+ * 每个方法生成一个类，类中只有一个同名、同描述符的public static方法，指令几乎一一对应：
+ *  1、超级指令只翻译第一条指令原来的部分，后面的指令原样保留，照常翻译
+ *  2、_fast指令按原来的指令翻译
+ *  3、invokestatic：java体系的方法、已经编译好的方法直接调用，递归调用自己也是
+ *  4、invokevirtual：只支持java体系的方法，由宿主JVM分派
+ * 目前只编译没有异常表的静态方法，参数、返回值只能是基本类型或java体系的类，
+ * 只支持常量、局部变量、操作数栈、算术、类型转换、比较、跳转、返回指令以及上面的getstatic、invokestatic、invokevirtual
+ *
+ * 栈上替换(OSR)的版本只编译一个循环：从循环入口到最后一条跳回入口的指令，方法的其他部分不用能编译
+ * 生成的方法为(局部变量表, 操作数栈)int：
+ *  1、开头按StackMapTable中循环入口处的类型，从解释器的局部变量表取出所有局部变量，跳到循环入口
+ *  2、局部变量整体后移两个槽位，前两个是参数
+ *  3、跳出循环时，把循环中改过的局部变量写回解释器的局部变量表，返回解释器接着执行的指令下标
+ *  4、返回指令改成把返回值压入解释器的操作数栈，返回NMethod.OSR_RETURNED，解释器再按正常返回处理
+ * 其他指令(对象、数组、字段、虚方法调用等)仍然由解释器执行，见CompileBroker
+ *
+ * 每次编译创建一个，保存编译过程中的状态
+ */
+public class HostCompiler extends ResourceObj {
+
+    private static final String HOLDER_PACKAGE = "com/czh/jvm/compiled/";
+
+    private static final String STACK_VALUE_COLLECTION = Type.getInternalName(StackValueCollection.class);
+
+    private static final String OSR_DESCRIPTOR = "(L" + STACK_VALUE_COLLECTION + ";L" + STACK_VALUE_COLLECTION + ";)I";
+
+    // OSR的版本：局部变量表、操作数栈两个参数占的槽位
+    private static final int OSR_PARAMS_SLOT_SIZE = 2;
+
+    private static final AtomicInteger compiledCount = new AtomicInteger();
+
+    // 生成的类都由它定义，互相之间按类名调用
+    private static final CompiledClassLoader loader = new CompiledClassLoader();
+
+    private final MethodInfo method;
+
+    // OSR的入口，普通的编译为NMethod.INVOCATION_ENTRY
+    private final int osrEntry;
+
+    // 局部变量在生成的方法中的槽位 = 原来的槽位 + slotBase
+    private final int slotBase;
+
+    private String holderName;
+
+    // 编译的指令范围[first, last]，普通的编译是整个方法，OSR的是循环
+    private int first;
+    private int last;
+
+    // 每条指令一个标签，跳转目标是指令下标
+    private Label[] labels;
+
+    // OSR的版本：跳出循环的目标 => 写回局部变量的代码
+    private final Map<Integer, Label> exits = new TreeMap<>();
+
+    // OSR的版本：各指令处局部变量的类型，见Verifier.frameLocals
+    private int[][] frames;
+
+    // OSR的版本：循环中写过的局部变量的类型，没写过的为T_ILLEGAL，long、double的高位为T_VOID
+    private int[] storedTypes;
+
+    // 没有调用java体系的方法，调用的编译好的方法也没有，宿主JVM栈溢出时可以退回解释器重新执行
+    private boolean reexecutable = true;
+
+    private HostCompiler(MethodInfo method, int osrEntry) {
+        this.method = method;
+        this.osrEntry = osrEntry;
+        this.slotBase = isOsr() ? OSR_PARAMS_SLOT_SIZE : 0;
+    }
+
+    /**
+     * 编译方法
+     * @throws Bailout 方法中有不支持的指令等，不能编译
+     */
+    public static NMethod compile(MethodInfo method) throws Bailout {
+        return new HostCompiler(method, NMethod.INVOCATION_ENTRY).compile();
+    }
+
+    /**
+     * 编译栈上替换的版本
+     * @param osrEntry 循环入口的指令下标
+     * @throws Bailout 方法中有不支持的指令、循环入口处操作数栈不为空等，不能编译
+     */
+    public static NMethod compileOsr(MethodInfo method, int osrEntry) throws Bailout {
+        return new HostCompiler(method, osrEntry).compile();
+    }
+
+    private boolean isOsr() {
+        return NMethod.INVOCATION_ENTRY != osrEntry;
+    }
+
+    private NMethod compile() throws Bailout {
+        CodeAttributeInfo codeAttributeInfo = method.getCodeAttribute();
+        Instruction[] code = codeAttributeInfo.getInstructions();
+
+        String descriptor = method.getDescriptorSymbol().asString();
+
+        if (isOsr()) {
+            findLoop(codeAttributeInfo);
+        } else {
+            if (!method.getAccessFlags().isStatic() || method.getMethodName().startsWith("<")) {
+                throw new Bailout("不是静态方法");
+            }
+
+            if (!codeAttributeInfo.getExceptionTable().isEmpty()) {
+                throw new Bailout("有异常处理器");
+            }
+
+            if (!isHostDescriptor(descriptor)) {
+                throw new Bailout("参数、返回值用到了自定义的类: " + descriptor);
+            }
+
+            first = 0;
+            last = code.length - 1;
+        }
+
+        String guestName = method.getBelongKlass().getConstantPool().getClassName(method.getBelongKlass().getThisClass());
+        holderName = HOLDER_PACKAGE + guestName.replace('/', '$') + "$" + compiledCount.incrementAndGet();
+
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
+        cw.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, holderName, null, "java/lang/Object", null);
+
+        MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, method.getMethodName(),
+                isOsr() ? OSR_DESCRIPTOR : descriptor, null, null);
+        mv.visitCode();
+
+        labels = new Label[code.length];
+        for (int i = 0; i < code.length; i++) {
+            labels[i] = new Label();
+        }
+
+        if (isOsr()) {
+            emitOsrEntry(mv);
+        }
+
+        for (int i = first; i <= last; i++) {
+            mv.visitLabel(labels[i]);
+
+            emit(mv, code[i]);
+        }
+
+        if (isOsr()) {
+            emitOsrExits(mv, code);
+        }
+
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        cw.visitEnd();
+
+        try {
+            byte[] bytes = cw.toByteArray();
+
+            Class<?> holder = loader.define(holderName.replace('/', '.'), bytes);
+
+            // 提前初始化，生成的字节码有问题时校验失败，在这里就能发现
+            Class.forName(holder.getName(), true, loader);
+
+            Method hostMethod = null;
+            for (Method candidate : holder.getMethods()) {
+                if (candidate.getDeclaringClass() == holder) {
+                    hostMethod = candidate;
+                }
+            }
+
+            MethodHandle entry = isOsr() ? MethodHandles.publicLookup().unreflect(hostMethod) : JavaCallBridge.bind(hostMethod);
+
+            return new NMethod(method, holderName, entry, last - first + 1, reexecutable, osrEntry);
+        } catch (Throwable e) {
+            throw new Bailout("生成的类无法使用: " + e);
+        }
+    }
+
+    private void emit(MethodVisitor mv, Instruction instruction) throws Bailout {
+        int opcode = Bytecodes.javaCode(instruction.getOpcode());
+
+        switch (opcode) {
+            // 超级指令：第一条指令原来是iload或iinc，后面的指令另外翻译
+            case Bytecodes.FAST_ILOAD_CONST_IF_ICMP:
+            case Bytecodes.FAST_ILOAD2_IF_ICMP:
+            case Bytecodes.FAST_ILOAD_CONST_IOP:
+            case Bytecodes.FAST_ILOAD2_IOP:
+                mv.visitVarInsn(Opcodes.ILOAD, slotBase + instruction.getOperand());
+                return;
+            case Bytecodes.FAST_IINC_GOTO:
+            case Bytecodes.IINC:
+                mv.visitIincInsn(slotBase + instruction.getOperand(), instruction.getOperand2());
+                return;
+            case Bytecodes.BIPUSH:
+            case Bytecodes.SIPUSH:
+                mv.visitIntInsn(opcode, instruction.getOperand());
+                return;
+            case Bytecodes.LDC:
+            case Bytecodes.LDC_W:
+            case Bytecodes.LDC2_W:
+                emitLdc(mv, instruction);
+                return;
+            case Bytecodes.GETSTATIC:
+                emitGetstatic(mv, instruction);
+                return;
+            case Bytecodes.INVOKESTATIC:
+                emitInvokestatic(mv, instruction);
+                return;
+            case Bytecodes.INVOKEVIRTUAL:
+                emitInvokevirtual(mv, instruction);
+                return;
+            case Bytecodes.GOTO_W:
+                mv.visitJumpInsn(Opcodes.GOTO, target(instruction.getTarget()));
+                return;
+            default:
+                break;
+        }
+
+        if (opcode <= Bytecodes.DCONST_1
+                || (opcode >= Bytecodes.POP && opcode < Bytecodes.IINC)
+                || (opcode > Bytecodes.IINC && opcode <= Bytecodes.DCMPG)) {
+            // 常量、操作数栈、算术、类型转换、比较
+            mv.visitInsn(opcode);
+        } else if (opcode >= Bytecodes.IRETURN && opcode <= Bytecodes.RETURN) {
+            emitReturn(mv, opcode);
+        } else if ((opcode >= Bytecodes.ILOAD && opcode <= Bytecodes.ALOAD) || (opcode >= Bytecodes.ISTORE && opcode <= Bytecodes.ASTORE)) {
+            mv.visitVarInsn(opcode, slotBase + instruction.getOperand());
+        } else if (opcode >= Bytecodes.ILOAD_0 && opcode <= Bytecodes.ALOAD_3) {
+            // xload_n：按类型每4个一组
+            mv.visitVarInsn(Bytecodes.ILOAD + (opcode - Bytecodes.ILOAD_0) / 4, slotBase + (opcode - Bytecodes.ILOAD_0) % 4);
+        } else if (opcode >= Bytecodes.ISTORE_0 && opcode <= Bytecodes.ASTORE_3) {
+            mv.visitVarInsn(Bytecodes.ISTORE + (opcode - Bytecodes.ISTORE_0) / 4, slotBase + (opcode - Bytecodes.ISTORE_0) % 4);
+        } else if ((opcode >= Bytecodes.IFEQ && opcode <= Bytecodes.GOTO) || Bytecodes.IFNULL == opcode || Bytecodes.IFNONNULL == opcode) {
+            mv.visitJumpInsn(opcode, target(instruction.getTarget()));
+        } else {
+            throw new Bailout("不支持的指令: " + opcode);
+        }
+    }
+
+    /**
+     * 只支持数值常量。字符串常量解释执行时不是驻留的，编译后用ldc会变成驻留的，==的结果可能不一样
+     */
+    private static void emitLdc(MethodVisitor mv, Instruction instruction) throws Bailout {
+        switch (instruction.getOperand2()) {
+            case ConstantPool.JVM_CONSTANT_Integer:
+            case ConstantPool.JVM_CONSTANT_Float:
+            case ConstantPool.JVM_CONSTANT_Long:
+            case ConstantPool.JVM_CONSTANT_Double:
+                mv.visitLdcInsn(instruction.getResolved());
+                return;
+            default:
+                throw new Bailout("不支持的常量类型: " + instruction.getOperand2());
+        }
+    }
+
+    /**
+     * 只支持java体系的静态字段。解释器读写自定义类的静态字段有自己的规则，见TemplateTable.getstatic
+     */
+    private static void emitGetstatic(MethodVisitor mv, Instruction instruction) throws Bailout {
+        MemberRef ref = (MemberRef) instruction.getResolved();
+
+        if (!ref.getClassName().startsWith("java")) {
+            throw new Bailout("读取自定义类的静态字段: " + ref);
+        }
+
+        mv.visitFieldInsn(Opcodes.GETSTATIC, ref.getClassName(), ref.getName(), ref.getDescriptor());
+    }
+
+    /**
+     * 调用点还没有执行过时在这里解析。自定义的方法要先编译好才能直接调用
+     */
+    private void emitInvokestatic(MethodVisitor mv, Instruction instruction) throws Bailout {
+        ConstantPoolCacheEntry entry = (ConstantPoolCacheEntry) instruction.getResolved();
+        MemberRef ref = entry.getRef();
+
+        if (!entry.isResolved()) {
+            try {
+                InterpreterRuntime.resolveInvoke(entry, Bytecodes.INVOKESTATIC, method.getBelongKlass());
+            } catch (Throwable e) {
+                throw new Bailout("无法解析的方法: " + ref);
+            }
+        }
+
+        if (entry.isHost()) {
+            boolean isInterface = entry.getHostMethod().getDeclaringClass().isInterface();
+
+            reexecutable = false;
+
+            mv.visitMethodInsn(Opcodes.INVOKESTATIC, ref.getClassName(), ref.getName(), ref.getDescriptor(), isInterface);
+            return;
+        }
+
+        MethodInfo callee = entry.getMethod();
+
+        // OSR的版本递归调用时走普通的版本
+        if (callee == method && !isOsr()) {
+            mv.visitMethodInsn(Opcodes.INVOKESTATIC, holderName, ref.getName(), ref.getDescriptor(), false);
+            return;
+        }
+
+        NMethod nm = callee.getNmethod();
+        if (null == nm) {
+            if (callee.isNotCompilable()) {
+                throw new Bailout("被调用的方法不能编译: " + ref);
+            }
+
+            throw new Bailout("被调用的方法还没有编译: " + ref, true);
+        }
+
+        reexecutable &= nm.isReexecutable();
+
+        mv.visitMethodInsn(Opcodes.INVOKESTATIC, nm.getHolderName(), ref.getName(), ref.getDescriptor(), false);
+    }
+
+    /**
+     * java体系的方法由宿主JVM分派，和解释器走桥接时一样
+     * 接收者是自定义的类重写了该方法时，由宿主JVM执行同一份类文件中的实现
+     */
+    private void emitInvokevirtual(MethodVisitor mv, Instruction instruction) throws Bailout {
+        MemberRef ref = ((ConstantPoolCacheEntry) instruction.getResolved()).getRef();
+
+        if (!ref.getClassName().startsWith("java")) {
+            throw new Bailout("调用自定义类的虚方法: " + ref);
+        }
+
+        reexecutable = false;
+
+        mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, ref.getClassName(), ref.getName(), ref.getDescriptor(), false);
+    }
+
+    /**
+     * 跳转目标的标签。OSR的版本跳到循环外时，先跳到写回局部变量的代码
+     */
+    private Label target(int index) {
+        if (index >= first && index <= last) {
+            return labels[index];
+        }
+
+        return exits.computeIfAbsent(index, k -> new Label());
+    }
+
+    /**
+     * OSR的版本：返回值先存到局部变量表后面的临时槽位，再压入解释器的操作数栈
+     */
+    private void emitReturn(MethodVisitor mv, int opcode) {
+        if (!isOsr()) {
+            mv.visitInsn(opcode);
+            return;
+        }
+
+        if (Bytecodes.RETURN != opcode) {
+            // ireturn、lreturn、freturn、dreturn、areturn和istore~astore、iload~aload的顺序相同
+            int kind = opcode - Bytecodes.IRETURN;
+            int temp = slotBase + method.getCodeAttribute().getMaxLocals();
+
+            mv.visitVarInsn(Bytecodes.ISTORE + kind, temp);
+            mv.visitVarInsn(Opcodes.ALOAD, 1);
+            mv.visitVarInsn(Bytecodes.ILOAD + kind, temp);
+            mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, STACK_VALUE_COLLECTION, PUSH_NAMES[kind], PUSH_DESCRIPTORS[kind], false);
+        }
+
+        mv.visitLdcInsn(NMethod.OSR_RETURNED);
+        mv.visitInsn(Opcodes.IRETURN);
+    }
+
+    // 以下按int、long、float、double、引用的顺序，和xload、xstore、xreturn一致
+    private static final int[] KIND_TYPES = {BasicType.T_INT, BasicType.T_LONG, BasicType.T_FLOAT, BasicType.T_DOUBLE, BasicType.T_OBJECT};
+    private static final int[] DEFAULT_VALUES = {Opcodes.ICONST_0, Opcodes.LCONST_0, Opcodes.FCONST_0, Opcodes.DCONST_0, Opcodes.ACONST_NULL};
+    private static final String[] PUSH_NAMES = {"pushInt", "pushLong", "pushFloat", "pushDouble", "pushObject"};
+    private static final String[] PUSH_DESCRIPTORS = {"(I)V", "(J)V", "(F)V", "(D)V", "(Ljava/lang/Object;)V"};
+    private static final String[] GET_NAMES = {"getInt", "getLong", "getFloat", "getDouble", "getObject"};
+    private static final String[] GET_DESCRIPTORS = {"(I)I", "(I)J", "(I)F", "(I)D", "(I)Ljava/lang/Object;"};
+    private static final String[] SET_NAMES = {"setInt", "setLong", "setFloat", "setDouble", "setObject"};
+    private static final String[] SET_DESCRIPTORS = {"(II)V", "(IJ)V", "(IF)V", "(ID)V", "(ILjava/lang/Object;)V"};
+
+    /**
+     * 槽位类型在上面几个表中的下标，不可用的、long和double的高位为-1
+     */
+    private static int kindOf(int type) {
+        for (int i = 0; i < KIND_TYPES.length; i++) {
+            if (KIND_TYPES[i] == type) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * OSR的版本只编译循环：从循环入口到最后一条跳回入口的指令
+     * 循环中抛出的异常不能有本方法的异常处理器，这样异常发生时不用把局部变量写回栈帧，栈帧直接弹出
+     */
+    private void findLoop(CodeAttributeInfo codeAttributeInfo) throws Bailout {
+        Instruction[] code = codeAttributeInfo.getInstructions();
+
+        if (VmSymbols.OBJECT_INITIALIZER_NAME == method.getNameSymbol()) {
+            throw new Bailout("构造方法");
+        }
+
+        first = osrEntry;
+        last = -1;
+        for (int i = osrEntry; i < code.length; i++) {
+            if (code[i].getTarget() == osrEntry) {
+                last = i;
+            }
+        }
+
+        if (-1 == last) {
+            throw new Bailout("找不到跳回循环入口的指令");
+        }
+
+        for (CodeAttributeInfo.ExceptionItem item : codeAttributeInfo.getExceptionTable()) {
+            if (item.getStartPc() <= code[last].getBci() && item.getEndPc() > code[first].getBci()) {
+                throw new Bailout("循环在异常处理器的范围内");
+            }
+        }
+
+        frames = Verifier.frameLocals(method);
+        if (null == frames || null == frames[osrEntry]) {
+            throw new Bailout("循环入口没有StackMapTable帧，或者操作数栈不为空");
+        }
+
+        storedTypes = storedTypes(code);
+    }
+
+    /**
+     * 循环中写过的局部变量的类型。同一个槽位在循环中、循环入口处必须是同一种类型，不然跳出循环时不知道按什么类型写回
+     */
+    private int[] storedTypes(Instruction[] code) throws Bailout {
+        int[] types = new int[frames[osrEntry].length];
+        Arrays.fill(types, BasicType.T_ILLEGAL);
+
+        for (int i = first; i <= last; i++) {
+            Instruction instruction = code[i];
+            int opcode = Bytecodes.javaCode(instruction.getOpcode());
+
+            if (opcode >= Bytecodes.ISTORE && opcode <= Bytecodes.ASTORE) {
+                markStored(types, instruction.getOperand(), KIND_TYPES[opcode - Bytecodes.ISTORE]);
+            } else if (opcode >= Bytecodes.ISTORE_0 && opcode <= Bytecodes.ASTORE_3) {
+                markStored(types, (opcode - Bytecodes.ISTORE_0) % 4, KIND_TYPES[(opcode - Bytecodes.ISTORE_0) / 4]);
+            } else if (Bytecodes.IINC == opcode || Bytecodes.FAST_IINC_GOTO == opcode) {
+                markStored(types, instruction.getOperand(), BasicType.T_INT);
+            }
+        }
+
+        return types;
+    }
+
+    private void markStored(int[] types, int slot, int type) throws Bailout {
+        markStoredSlot(types, slot, type);
+
+        if (BasicType.T_LONG == type || BasicType.T_DOUBLE == type) {
+            markStoredSlot(types, slot + 1, BasicType.T_VOID);
+        }
+    }
+
+    private void markStoredSlot(int[] types, int slot, int type) throws Bailout {
+        int entryType = frames[osrEntry][slot];
+
+        if ((BasicType.T_ILLEGAL != types[slot] && type != types[slot]) || (BasicType.T_ILLEGAL != entryType && type != entryType)) {
+            throw new Bailout("局部变量" + slot + "在循环中的类型不一致");
+        }
+
+        types[slot] = type;
+    }
+
+    /**
+     * OSR的入口：按循环入口处的类型取出局部变量，跳到循环入口
+     * 入口处不可用、在循环中才写的局部变量先初始化成默认值，跳出循环时它们都能按同一种类型写回
+     * StackMapTable的校验只区分到引用，不记录具体的类：
+     * 没有被重新赋值过的参数按声明的类型，其他的按Object处理，用到具体类型时生成的类通不过校验，不能编译
+     */
+    private void emitOsrEntry(MethodVisitor mv) {
+        int[] types = frames[osrEntry];
+
+        String[] parameterTypes = parameterReferenceTypes();
+
+        for (int i = 0; i < types.length; i++) {
+            int kind = kindOf(types[i]);
+
+            if (-1 != kind) {
+                mv.visitVarInsn(Opcodes.ALOAD, 0);
+                mv.visitLdcInsn(i);
+                mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, STACK_VALUE_COLLECTION, GET_NAMES[kind], GET_DESCRIPTORS[kind], false);
+
+                if (i < parameterTypes.length && null != parameterTypes[i]) {
+                    mv.visitTypeInsn(Opcodes.CHECKCAST, parameterTypes[i]);
+                }
+            } else {
+                kind = kindOf(storedTypes[i]);
+                if (-1 == kind) {
+                    continue;
+                }
+
+                mv.visitInsn(DEFAULT_VALUES[kind]);
+            }
+
+            mv.visitVarInsn(Bytecodes.ISTORE + kind, slotBase + i);
+        }
+
+        mv.visitJumpInsn(Opcodes.GOTO, labels[osrEntry]);
+    }
+
+    /**
+     * OSR的出口：循环中写过的局部变量写回解释器的局部变量表，返回接着执行的指令下标
+     * 跳回循环入口的分支不跳时，和跳到入口时一样操作数栈是空的；跳到循环外其他地方的，要求跳转目标处操作数栈也是空的
+     */
+    private void emitOsrExits(MethodVisitor mv, Instruction[] code) throws Bailout {
+        int lastOpcode = Bytecodes.javaCode(code[last].getOpcode());
+        if (Bytecodes.GOTO != lastOpcode && Bytecodes.GOTO_W != lastOpcode) {
+            mv.visitJumpInsn(Opcodes.GOTO, target(last + 1));
+        }
+
+        for (Map.Entry<Integer, Label> exit : exits.entrySet()) {
+            int index = exit.getKey();
+
+            if (last + 1 != index && (index >= frames.length || null == frames[index])) {
+                throw new Bailout("跳出循环的目标处操作数栈不为空: " + index);
+            }
+
+            mv.visitLabel(exit.getValue());
+
+            for (int i = 0; i < storedTypes.length; i++) {
+                int kind = kindOf(storedTypes[i]);
+                if (-1 == kind) {
+                    continue;
+                }
+
+                mv.visitVarInsn(Opcodes.ALOAD, 0);
+                mv.visitLdcInsn(i);
+                mv.visitVarInsn(Bytecodes.ILOAD + kind, slotBase + i);
+                mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, STACK_VALUE_COLLECTION, SET_NAMES[kind], SET_DESCRIPTORS[kind], false);
+            }
+
+            mv.visitLdcInsn(index);
+            mv.visitInsn(Opcodes.IRETURN);
+        }
+    }
+
+    /**
+     * 引用类型的参数在局部变量表中的槽位 => 类型的内部名，其他槽位为null
+     */
+    private String[] parameterReferenceTypes() {
+        String descriptor = method.getDescriptorSymbol().asString();
+        // 非静态方法的槽位0是this
+        int slot = method.getAccessFlags().isStatic() ? 0 : 1;
+        String[] types = new String[slot + method.getDescriptor().getMethodParamsSlotSize()];
+
+        for (int i = 1; ')' != descriptor.charAt(i); slot++) {
+            int start = i;
+
+            while ('[' == descriptor.charAt(i)) {
+                i++;
+            }
+
+            if ('L' == descriptor.charAt(i)) {
+                i = descriptor.indexOf(';', i);
+            }
+
+            i++;
+
+            // OSR的版本不要求参数是java体系的类，自定义的类按Object处理
+            if (!isHostDescriptor(descriptor.substring(start, i))) {
+                continue;
+            }
+
+            switch (descriptor.charAt(start)) {
+                case 'L':
+                    types[slot] = descriptor.substring(start + 1, i - 1);
+                    break;
+                case '[':
+                    types[slot] = descriptor.substring(start, i);
+                    break;
+                case 'J':
+                case 'D':
+                    slot++;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        // 被重新赋值过的参数，循环入口处不一定还是声明的类型
+        for (Instruction instruction : method.getCodeAttribute().getInstructions()) {
+            int opcode = Bytecodes.javaCode(instruction.getOpcode());
+
+            if (Bytecodes.ASTORE == opcode && instruction.getOperand() < types.length) {
+                types[instruction.getOperand()] = null;
+            } else if (opcode >= Bytecodes.ASTORE_0 && opcode <= Bytecodes.ASTORE_3 && opcode - Bytecodes.ASTORE_0 < types.length) {
+                types[opcode - Bytecodes.ASTORE_0] = null;
+            }
+        }
+
+        return types;
+    }
+
+    /**
+     * 参数、返回值是否都是基本类型或java体系的类(包括它们的数组)
+     */
+    private static boolean isHostDescriptor(String descriptor) {
+        for (int i = 0; i < descriptor.length(); i++) {
+            if ('L' != descriptor.charAt(i)) {
+                continue;
+            }
+
+            if (!descriptor.startsWith("java/", i + 1)) {
+                return false;
+            }
+
+            i = descriptor.indexOf(';', i);
+        }
+
+        return true;
+    }
+
+    /**
+     * 不能编译，编译器在遇到不支持的情况时抛出，对应hotspot的bailout
+     */
+    public static class Bailout extends Exception {
+
+        // 以后还可能编译成功，如被调用的方法还没有编译
+        private final boolean retryable;
+
+        public Bailout(String reason) {
+            this(reason, false);
+        }
+
+        public Bailout(String reason, boolean retryable) {
+            super(reason);
+            this.retryable = retryable;
+        }
+
+        public boolean isRetryable() {
+            return retryable;
+        }
+    }
+
+    /**
+     * 定义生成的类，相当于hotspot中给匿名类用的类加载器
+     */
+    private static class CompiledClassLoader extends ClassLoader {
+
+        CompiledClassLoader() {
+            super(HostCompiler.class.getClassLoader());
+        }
+
+        Class<?> define(String name, byte[] bytes) {
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+}
@@ -1,112 +1,33 @@
 package com.czh.jvm.hotspot.src.share.vm.interpreter;
 
-import com.czh.jvm.hotspot.src.share.tools.DataTranslate;
-import com.czh.jvm.hotspot.src.share.tools.Stream;
+import com.czh.jvm.hotspot.src.share.vm.memory.MetaspaceObj;
 import com.czh.jvm.hotspot.src.share.vm.oops.CodeAttributeInfo;
 import com.czh.jvm.hotspot.src.share.vm.oops.MethodInfo;
-import lombok.Data;
+import lombok.Getter;
 
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
-
-
-@Data
-public class BaseBytecodeStream {
+/**
+ * 方法的原始字节码
+ *
+ * 类解析完成后就不再修改，被所有执行该方法的栈帧、线程共享
+ * 所以这里不保存执行位置，程序计数器放在栈帧中(JavaVFrame#pc)
+ */
+@Getter
+public class BaseBytecodeStream extends MetaspaceObj {
 
     protected MethodInfo belongMethod;
     protected CodeAttributeInfo belongCode;
 
     protected int length;
-    protected int index;
     protected byte[] codes;
 
     /**
-     * 一次取一字节数据，自动累加
-     * @return
+     * 按字节码位置取一字节数据
      */
-    public int getU1Code() {
-        if (index < 0 || index >= length) {
-            throw new Error("字节码指令的索引超过了最大值");
-        }
-
-        return Byte.toUnsignedInt(codes[index++]);
-    }
-
-    public int getU1Code2() {
-        if (index < 0 || index >= length) {
-            throw new Error("字节码指令的索引超过了最大值");
-        }
-
-        return codes[index++];
-    }
-
-    public int getU2Code() {
-        if (index < 0 || index >= length) {
+    public int getU1Code(int bci) {
+        if (bci < 0 || bci >= length) {
             throw new Error("字节码指令的索引超过了最大值");
         }
 
-        byte[] u2Arr = new byte[2];
-
-        Stream.readU2Simple(codes, index, u2Arr);
-
-        index += 2;
-
-        return DataTranslate.byteArrayToInt(u2Arr);
-    }
-
-    public int getU2CodeNew(){
-        if (index < 0 || index >= length) {
-            throw new Error("字节码指令的索引超过了最大值");
-        }
-
-        byte[] u2Arr = new byte[2];
-
-        Stream.readU2Simple(codes, index, u2Arr);
-
-        index += 2;
-
-        return Byte.toUnsignedInt((byte) ((u2Arr[0]<<8)|u2Arr[1]));
-    }
-
-    public short getUnsignedShort() {
-        if (index < 0 || index >= length) {
-            throw new Error("字节码指令的索引超过了最大值");
-        }
-
-        byte[] u2Arr = new byte[2];
-
-        Stream.readU2Simple(codes, index, u2Arr);
-
-        index += 2;
-
-        return (short) DataTranslate.byteToUnsignedShort(u2Arr);
-    }
-
-    public int getU4Code() {
-        if (index < 0 || index >= length) {
-            throw new Error("字节码指令的索引超过了最大值");
-        }
-
-        byte[] arr = new byte[4];
-
-        Stream.readU2Simple(codes, index, arr);
-        index += 4;
-
-        ByteBuffer buffer = ByteBuffer.wrap(arr);
-        buffer.order(ByteOrder.LITTLE_ENDIAN);
-
-        return buffer.getInt();
-    }
-
-    public void reset() {
-        index = 0;
-    }
-
-    public boolean end() {
-        return index >= length;
-    }
-
-    public void inc(int step) {
-        index +=  step;
+        return Byte.toUnsignedInt(codes[bci]);
     }
 }
@@ -9,7 +9,6 @@ public class BytecodeStream extends BaseBytecodeStream {
         this.belongMethod = belongMethod;
         this.belongCode = belongCode;
         this.length = belongCode.getCodeLength();
-        this.index = 0;
         this.codes = new byte[this.length];
     }
 
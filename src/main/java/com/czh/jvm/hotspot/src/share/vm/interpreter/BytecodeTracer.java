@@ -0,0 +1,60 @@
+package com.czh.jvm.hotspot.src.share.vm.interpreter;
+
+import com.czh.jvm.hotspot.src.share.vm.memory.AllStatic;
+import com.czh.jvm.hotspot.src.share.vm.oops.MethodInfo;
+import com.czh.jvm.hotspot.src.share.vm.runtime.Globals;
+
+import java.io.PrintStream;
+
+/**
+ * 字节码执行跟踪
+ *
+ * 只有开启了TraceBytecodes才会调用，解释器中的调用点都用Globals.TraceBytecodes判断包起来
+ * 每执行一条指令记录一条：方法、字节码位置、操作码、操作数栈深度
+ * 记录存在环形缓冲区(几个并列的数组)中，不拼接字符串，打印时才格式化
+ */
+public class BytecodeTracer extends AllStatic {
+
+    private static final int SIZE = Math.max(1, Globals.TraceBytecodesBufferSize);
+
+    private static final MethodInfo[] methods = new MethodInfo[SIZE];
+    private static final int[] bcis = new int[SIZE];
+    private static final int[] opcodes = new int[SIZE];
+    private static final int[] stackDepths = new int[SIZE];
+
+    /**
+     * 累计记录的条数，count % SIZE是下一条记录的位置
+     */
+    private static long count;
+
+    static {
+        if (Globals.TraceBytecodes) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> print(System.err)));
+        }
+    }
+
+    public static synchronized void trace(MethodInfo method, Instruction instruction, int stackDepth) {
+        int index = (int) (count++ % SIZE);
+
+        methods[index] = method;
+        bcis[index] = instruction.getBci();
+        opcodes[index] = instruction.getOpcode();
+        stackDepths[index] = stackDepth;
+    }
+
+    /**
+     * 按执行顺序打印缓冲区中的记录
+     */
+    public static synchronized void print(PrintStream out) {
+        long start = Math.max(0, count - SIZE);
+
+        out.println("字节码跟踪: 共执行 " + count + " 条指令，最近 " + (count - start) + " 条:");
+
+        for (long i = start; i < count; i++) {
+            int index = (int) (i % SIZE);
+
+            out.println(String.format("%8d  %-40s bci: %-5d opcode: %-3d stack: %d",
+                    i, methods[index].getMethodName(), bcis[index], opcodes[index], stackDepths[index]));
+        }
+    }
+}
@@ -5,6 +5,7 @@ public class Bytecodes {
     public static final int ILLEGAL = -1;
     public static final int NOP = 0;
     public static final int ACONST_NULL = 1;    // 0x01
+    public static final int ICONST_M1 = 2;  // 0x02
     public static final int ICONST_0 = 3;   // 0x03
     public static final int ICONST_1 = 4;   // 0x04
     public static final int ICONST_2 = 5;   // 0x05
@@ -30,7 +31,10 @@ public class Bytecodes {
     public static final int LDC2_W = 20;    // 0x14
 
     public static final int ILOAD = 21;   // 0x15
+    public static final int LLOAD = 22;   // 0x16
+    public static final int FLOAD = 23;   // 0x17
     public static final int DLOAD = 24;   //0x18
+    public static final int ALOAD = 25;   // 0x19
 
     public static final int ILOAD_0 = 26;   // 0x1a
     public static final int ILOAD_1 = 27;   // 0x1b
@@ -105,6 +109,8 @@ public class Bytecodes {
     public static final int CASTORE = 85; // 0x55
     public static final int SASTORE = 86; // 0x56
 
+    public static final int POP = 87;        // 0x57
+    public static final int POP2 = 88;       // 0x58
     public static final int DUP = 89;        // 0x59
     public static final int DUP_X1 = 90;     // 0x5a
     public static final int DUP_X2 = 91;     // 0x5b
@@ -178,9 +184,15 @@ public class Bytecodes {
     public static final int IF_ACMPNE = 166;    // 0xa6
 
     public static final int GOTO = 167;    // 0xa7
+    public static final int JSR = 168;     // 0xa8
+    public static final int RET = 169;     // 0xa9
+    public static final int TABLESWITCH = 170;     // 0xaa
+    public static final int LOOKUPSWITCH = 171;    // 0xab
 
     public static final int IRETURN = 172;      // 0xac
-
+    public static final int LRETURN = 173;      // 0xad
+    public static final int FRETURN = 174;      // 0xae
+    public static final int DRETURN = 175;      // 0xaf
     public static final int ARETURN = 176;      // 0xb0
     public static final int RETURN = 177;       // 0xb1
 
@@ -202,7 +214,123 @@ public class Bytecodes {
 
     public static final int ATHROW = 191;       // 0xbf
     public static final int CHECKCAST = 192;    // 0xc0
+    public static final int INSTANCEOF = 193;   // 0xc1
+    public static final int MONITORENTER = 194; // 0xc2
+    public static final int MONITOREXIT = 195;  // 0xc3
+    public static final int WIDE = 196;         // 0xc4
+    public static final int MULTIANEWARRAY = 197;   // 0xc5
 
     public static final int IFNULL = 198;       // 0xc6
     public static final int IFNONNULL = 199;    // 0xc7
+    public static final int GOTO_W = 200;       // 0xc8
+    public static final int JSR_W = 201;        // 0xc9
+
+    public static final int NUMBER_OF_JAVA_CODES = 202;
+
+    /**
+     * 虚拟机内部使用的指令，不会出现在类文件中
+     *
+     * 1、超级指令：Rewriter把经常连在一起执行的几条指令合并成一条，解释器一次分派执行完
+     *   只改写第一条指令的操作码，后面的指令原样保留，从中间跳进来时照常逐条执行
+     * 2、_fast指令：需要解析的指令第一次执行解析成功后改写成对应的_fast指令，解析结果挂在指令上，之后不再解析
+     */
+    public static final int FAST_ILOAD_CONST_IF_ICMP = 203;    // iload、int常量、if_icmpXX
+    public static final int FAST_ILOAD2_IF_ICMP = 204;         // iload、iload、if_icmpXX
+    public static final int FAST_ILOAD_CONST_IOP = 205;        // iload、int常量、iadd/isub/imul
+    public static final int FAST_ILOAD2_IOP = 206;             // iload、iload、iadd/isub/imul
+    public static final int FAST_IINC_GOTO = 207;              // iinc、goto
+
+    public static final int FAST_GETSTATIC = 208;
+    public static final int FAST_NEW = 209;
+    public static final int FAST_INVOKEVIRTUAL = 210;
+    public static final int FAST_INVOKESPECIAL = 211;
+    public static final int FAST_INVOKESTATIC = 212;
+    public static final int FAST_INVOKEINTERFACE = 213;
+
+    public static final int NUMBER_OF_CODES = 214;
+
+    /**
+     * 每条指令占用的字节数（包含操作码本身）
+     * 0表示变长指令（tableswitch、lookupswitch、wide）或者非法指令
+     */
+    private static final int[] LENGTHS = new int[256];
+
+    /**
+     * _fast指令对应的原始指令，其他指令对应自己
+     */
+    private static final int[] JAVA_CODES = new int[256];
+
+    static {
+        for (int i = 0; i < NUMBER_OF_JAVA_CODES; i++) {
+            LENGTHS[i] = 1;
+        }
+
+        // 带1字节操作数
+        LENGTHS[BIPUSH] = 2;
+        LENGTHS[LDC] = 2;
+        LENGTHS[RET] = 2;
+        LENGTHS[NEWARRAY] = 2;
+        for (int i = ILOAD; i <= ALOAD; i++) {
+            LENGTHS[i] = 2;
+        }
+        for (int i = ISTORE; i <= ASTORE; i++) {
+            LENGTHS[i] = 2;
+        }
+
+        // 带2字节操作数
+        LENGTHS[SIPUSH] = 3;
+        LENGTHS[LDC_W] = 3;
+        LENGTHS[LDC2_W] = 3;
+        LENGTHS[IINC] = 3;
+        for (int i = IFEQ; i <= JSR; i++) {
+            LENGTHS[i] = 3;
+        }
+        for (int i = GETSTATIC; i <= INVOKESTATIC; i++) {
+            LENGTHS[i] = 3;
+        }
+        LENGTHS[NEW] = 3;
+        LENGTHS[ANEWARRAY] = 3;
+        LENGTHS[CHECKCAST] = 3;
+        LENGTHS[INSTANCEOF] = 3;
+        LENGTHS[IFNULL] = 3;
+        LENGTHS[IFNONNULL] = 3;
+
+        LENGTHS[MULTIANEWARRAY] = 4;
+
+        LENGTHS[INVOKEINTERFACE] = 5;
+        LENGTHS[INVOKEDYNAMIC] = 5;
+        LENGTHS[GOTO_W] = 5;
+        LENGTHS[JSR_W] = 5;
+
+        // 变长指令
+        LENGTHS[TABLESWITCH] = 0;
+        LENGTHS[LOOKUPSWITCH] = 0;
+        LENGTHS[WIDE] = 0;
+
+        for (int i = 0; i < JAVA_CODES.length; i++) {
+            JAVA_CODES[i] = i;
+        }
+
+        JAVA_CODES[FAST_GETSTATIC] = GETSTATIC;
+        JAVA_CODES[FAST_NEW] = NEW;
+        JAVA_CODES[FAST_INVOKEVIRTUAL] = INVOKEVIRTUAL;
+        JAVA_CODES[FAST_INVOKESPECIAL] = INVOKESPECIAL;
+        JAVA_CODES[FAST_INVOKESTATIC] = INVOKESTATIC;
+        JAVA_CODES[FAST_INVOKEINTERFACE] = INVOKEINTERFACE;
+    }
+
+    public static int lengthFor(int code) {
+        return LENGTHS[code & 0xFF];
+    }
+
+    public static int javaCode(int code) {
+        return JAVA_CODES[code & 0xFF];
+    }
+
+    /**
+     * 是否是以16位偏移量跳转的分支指令
+     */
+    public static boolean isBranch(int code) {
+        return (code >= IFEQ && code <= JSR) || IFNULL == code || IFNONNULL == code;
+    }
 }
@@ -0,0 +1,171 @@
+package com.czh.jvm.hotspot.src.share.vm.interpreter;
+
+import com.czh.jvm.hotspot.src.share.vm.memory.ResourceObj;
+import com.czh.jvm.hotspot.src.share.vm.oops.ConstantPoolCacheEntry;
+import com.czh.jvm.hotspot.src.share.vm.oops.MethodInfo;
+import com.czh.jvm.hotspot.src.share.vm.runtime.Globals;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 调用点的内联缓存，对应hotspot的compiledIC.hpp
+ *
+ * invokevirtual、invokeinterface改写成_fast指令后挂在指令上，每个调用点一个，按接收者的类缓存调用目标：
+ *  clean        还没有执行过
+ *  monomorphic  只见过一种接收者，比较一次就拿到调用目标
+ *  polymorphic  见过不超过InlineCacheSize种，逐个比较
+ *  megamorphic  见过的太多，不再添加，没命中的每次都完整查找，见InterpreterRuntime.resolveVirtualCall
+ * 调用目标是解释执行的MethodInfo，或者java体系方法的桥接
+ */
+public class InlineCache extends ResourceObj {
+
+    private static final Entry[] CLEAN = new Entry[0];
+
+    // 开启了PrintInlineCacheStatistics时，记录所有调用点，退出时打印
+    private static final List<InlineCache> caches = new ArrayList<>();
+
+    static {
+        if (Globals.PrintInlineCacheStatistics) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> print(System.err)));
+        }
+    }
+
+    private final ConstantPoolCacheEntry entry;
+
+    // 调用点所在的方法、字节码位置
+    private final MethodInfo method;
+    private final int bci;
+
+    // 接收者到栈顶的槽位数，见StackValueCollection.peekObject
+    private final int receiverOffset;
+
+    // 只整体替换，不修改数组元素，读的时候不用加锁
+    private volatile Entry[] entries = CLEAN;
+
+    private volatile boolean megamorphic;
+
+    // 统计用，多线程同时执行时不精确
+    private long hits;
+    private long misses;
+
+    public InlineCache(ConstantPoolCacheEntry entry, MethodInfo method, int bci) {
+        this.entry = entry;
+        this.method = method;
+        this.bci = bci;
+        this.receiverOffset = entry.getDescriptor().getMethodParamsSlotSize() + 1;
+
+        if (Globals.PrintInlineCacheStatistics) {
+            synchronized (caches) {
+                caches.add(this);
+            }
+        }
+    }
+
+    public int getReceiverOffset() {
+        return receiverOffset;
+    }
+
+    /**
+     * 按接收者的类找调用目标
+     * @param receiver 不能为null，调用者先检查，见TemplateTable.fast_invokevirtual
+     */
+    public Object lookup(Object receiver) {
+        Class<?> klass = receiver.getClass();
+
+        for (Entry cached : entries) {
+            if (cached.klass == klass) {
+                hits++;
+
+                return cached.target;
+            }
+        }
+
+        misses++;
+
+        Object target = InterpreterRuntime.resolveVirtualCall(entry, klass, method.getBelongKlass());
+
+        if (!megamorphic) {
+            add(klass, target);
+        }
+
+        return target;
+    }
+
+    private synchronized void add(Class<?> klass, Object target) {
+        Entry[] entries = this.entries;
+
+        // 别的线程已经加进来了
+        for (Entry cached : entries) {
+            if (cached.klass == klass) {
+                return;
+            }
+        }
+
+        if (entries.length >= Globals.InlineCacheSize) {
+            megamorphic = true;
+
+            return;
+        }
+
+        Entry[] grown = new Entry[entries.length + 1];
+        System.arraycopy(entries, 0, grown, 0, entries.length);
+        grown[entries.length] = new Entry(klass, target);
+
+        this.entries = grown;
+    }
+
+    public String getState() {
+        if (megamorphic) {
+            return "megamorphic";
+        }
+
+        switch (entries.length) {
+            case 0:
+                return "clean";
+            case 1:
+                return "monomorphic";
+            default:
+                return "polymorphic";
+        }
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * 打印所有调用点的状态和命中次数
+     */
+    public static void print(PrintStream out) {
+        List<InlineCache> snapshot;
+        synchronized (caches) {
+            snapshot = new ArrayList<>(caches);
+        }
+
+        out.println("内联缓存: 共 " + snapshot.size() + " 个调用点");
+
+        for (InlineCache cache : snapshot) {
+            out.println(String.format("  %-40s bci: %-5d %-12s hits: %-10d misses: %-6d %s",
+                    cache.method.getMethodName(), cache.bci, cache.getState(), cache.hits, cache.misses, cache.entry.getRef()));
+        }
+    }
+
+    /**
+     * 接收者的类 => 调用目标
+     */
+    private static class Entry {
+        final Class<?> klass;
+        final Object target;
+
+        Entry(Class<?> klass, Object target) {
+            this.klass = klass;
+            this.target = target;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.czh.jvm.hotspot.src.share.vm.interpreter;
+
+import com.czh.jvm.hotspot.src.share.vm.memory.MetaspaceObj;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 预解码后的字节码指令
+ * 链接阶段由Rewriter从原始字节流一次性解析得到，解释器直接执行，不再逐字节读取
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+public class Instruction extends MetaspaceObj {
+
+    /**
+     * 操作码
+     * 运行时会被改写成_fast指令、超级指令，别的线程可能正在执行。改写时操作数、解析结果先写好，操作码最后写，
+     * volatile保证看到新操作码的线程也能看到之前写好的这些字段，见TemplateTable.quicken、Rewriter.rewriteFrequentPairs
+     */
+    private volatile int opcode;
+
+    // 在原始字节码中的位置
+    private int bci;
+
+    // 第一个操作数：局部变量槽位、常量池索引、立即数等
+    private int operand;
+
+    // 第二个操作数：iinc的增量、ldc的常量类型、invokeinterface的参数个数等
+    private int operand2;
+
+    // 跳转指令的目标，已经换算成指令数组的下标
+    private int target = -1;
+
+    // 链接阶段已经解析好的操作数，如常量值、类名、字段或方法的符号引用
+    private Object resolved;
+
+    // 改写成_fast指令后挂上的解析结果，如字段、构造方法、调用目标。运行时才有，不写入共享存档
+    private transient Object quickened;
+
+    public Instruction(int opcode, int bci) {
+        this.opcode = opcode;
+        this.bci = bci;
+    }
+
+    @Override
+    public String toString() {
+        return "Instruction{" +
+                "opcode=" + opcode +
+                ", bci=" + bci +
+                '}';
+    }
+}
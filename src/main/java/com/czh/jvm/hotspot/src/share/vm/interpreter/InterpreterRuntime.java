@@ -0,0 +1,127 @@
+package com.czh.jvm.hotspot.src.share.vm.interpreter;
+
+import com.czh.jvm.hotspot.src.share.vm.classfile.DescriptorStream2;
+import com.czh.jvm.hotspot.src.share.vm.classfile.VmSymbols;
+import com.czh.jvm.hotspot.src.share.vm.memory.AllStatic;
+import com.czh.jvm.hotspot.src.share.vm.oops.ConstantPoolCacheEntry;
+import com.czh.jvm.hotspot.src.share.vm.oops.InstanceKlass;
+import com.czh.jvm.hotspot.src.share.vm.oops.MemberRef;
+import com.czh.jvm.hotspot.src.share.vm.oops.MethodInfo;
+import com.czh.jvm.hotspot.src.share.vm.prims.JavaCallBridge;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+
+/**
+ * 解释器执行过程中需要的运行时支持，对应hotspot的interpreterRuntime.cpp
+ */
+public class InterpreterRuntime extends AllStatic {
+
+    /**
+     * 解析方法调用点：找到调用目标，结果存入缓存项
+     * 多个线程同时解析同一项得到的结果相同，重复解析也没有影响，所以不用加锁
+     *
+     * @param bytecode 调用指令。接口方法要按实例的类型分派，不管是不是java体系的都走桥接
+     * @param caller 调用指令所在的类，被调用的类由加载它的类加载器加载
+     */
+    public static void resolveInvoke(ConstantPoolCacheEntry entry, int bytecode, InstanceKlass caller) {
+        MemberRef ref = entry.getRef();
+
+        DescriptorStream2 descriptor = new DescriptorStream2(ref.getDescriptor());
+        descriptor.parseMethod();
+
+        entry.setDescriptor(descriptor);
+        entry.setHost(Bytecodes.INVOKEINTERFACE == bytecode || ref.getClassName().startsWith("java"));
+
+        if (entry.isHost()) {
+            resolveHostMethod(entry);
+        } else {
+            InstanceKlass klass = caller.getClassLoaderData().loadKlass(ref.getClassName());
+
+            // 方法可能是从父类继承的
+            MethodInfo methodID = klass.lookupMethod(ref.getNameSymbol(), ref.getDescriptorSymbol());
+            if (null == methodID) {
+                throw new Error("不存在的方法: " + ref.getName() + "#" + ref.getDescriptor());
+            }
+
+            entry.setMethod(methodID);
+        }
+
+        // 自定义的接口：记下接口方法，实现类在虚拟机中加载过时按接口方法表分派
+        if (Bytecodes.INVOKEINTERFACE == bytecode && !ref.getClassName().startsWith("java")) {
+            InstanceKlass klass = caller.getClassLoaderData().loadKlass(ref.getClassName());
+
+            entry.setMethod(klass.lookupInterfaceMethod(ref.getNameSymbol(), ref.getDescriptorSymbol()));
+        }
+
+        entry.setResolved(true);
+    }
+
+    /**
+     * 按接收者的类找虚方法、接口方法的调用目标，内联缓存没命中时调用
+     * 接收者的类在虚拟机中加载过时，用解析调用点时找到的方法的下标查表，找到的方法解释执行：
+     *  1、自定义的接口方法：查接口方法表，见KlassItable
+     *  2、自定义的类的方法：查虚方法表，见KlassVtable
+     *  3、java体系的方法：不在表中，按名称、描述符在接收者的类和父类中找重写的方法
+     * 其他情况(由java体系创建、没有重写java体系的方法)用解析调用点时找到的目标
+     * 接收者为null时调用者已经抛出NullPointerException，不会走到这里
+     *
+     * @param receiverClass 接收者的类
+     * @return MethodInfo，或java体系方法的桥接
+     */
+    public static Object resolveVirtualCall(ConstantPoolCacheEntry entry, Class<?> receiverClass, InstanceKlass caller) {
+        InstanceKlass klass = caller.getClassLoaderData().findLoadedKlass(receiverClass.getName());
+
+        if (null != klass) {
+            MethodInfo resolved = entry.getMethod();
+            MethodInfo method;
+
+            if (null == resolved) {
+                MemberRef ref = entry.getRef();
+
+                method = klass.lookupMethod(ref.getNameSymbol(), ref.getDescriptorSymbol());
+            } else if (resolved.getBelongKlass().isInterface()) {
+                method = klass.itableMethod(resolved.getBelongKlass(), resolved.getVtableIndex());
+            } else if (-1 != resolved.getVtableIndex() && resolved.getVtableIndex() < klass.getVtable().length) {
+                method = klass.getVtable()[resolved.getVtableIndex()];
+            } else {
+                method = resolved;
+            }
+
+            if (null != method && !method.getAccessFlags().isAbstract() && !method.getAccessFlags().isStatic()) {
+                return method;
+            }
+        }
+
+        return entry.isHost() ? entry.getBridge() : entry.getMethod();
+    }
+
+    /**
+     * java体系的方法：提前找好Method、Constructor，转成直接读写操作数栈的桥接
+     */
+    private static void resolveHostMethod(ConstantPoolCacheEntry entry) {
+        MemberRef ref = entry.getRef();
+
+        Class<?>[] paramsType = entry.getDescriptor().getParamsType();
+
+        try {
+            Class<?> clazz = Class.forName(ref.getClassName().replace('/', '.'));
+
+            if (VmSymbols.OBJECT_INITIALIZER_NAME == ref.getNameSymbol()) {
+                Constructor<?> constructor = clazz.getConstructor(paramsType);
+
+                entry.setHostConstructor(constructor);
+                entry.setBridge(JavaCallBridge.bind(constructor));
+            } else {
+                Method method = clazz.getMethod(ref.getName(), paramsType);
+
+                entry.setHostMethod(method);
+                entry.setBridge(JavaCallBridge.bind(method));
+            }
+        } catch (ClassNotFoundException | NoSuchMethodException e) {
+            throw new Error("不存在的方法: " + ref, e);
+        } catch (IllegalAccessException e) {
+            throw new Error("无法访问的方法: " + ref, e);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.czh.jvm.hotspot.src.share.vm.interpreter;
+
+/**
+ * 计数器，对应hotspot的invocationCounter.hpp
+ *
+ * 记录方法的调用次数、循环回边的执行次数，解释器每次调用方法、往回跳时加一，见CompilationPolicy
+ * 计数会衰减：偶尔执行的方法累积很久也能达到阈值，每过CounterHalfLifeTime秒计数减半，
+ * 只有一段时间内执行得足够频繁的方法才会升级。不在每次加一时衰减，到达阈值时才按经过的时间一次算清
+ * 多线程同时加一时不精确，计数只用来判断冷热，差几次没有影响
+ */
+public class InvocationCounter {
+
+    private int count;
+
+    // 开始计数(或上一次衰减)的时间，纳秒
+    private long startTime;
+
+    /**
+     * 加一
+     * @return 加一后的计数
+     */
+    public int increment() {
+        if (0 == count) {
+            startTime = System.nanoTime();
+        }
+
+        return ++count;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * 按经过的时间衰减，每经过一个半衰期减半
+     * @param halfLife 半衰期，纳秒
+     */
+    public void decay(long halfLife) {
+        long now = System.nanoTime();
+
+        long halvings = (now - startTime) / halfLife;
+        if (halvings <= 0) {
+            return;
+        }
+
+        count = halvings >= Integer.SIZE ? 0 : count >>> halvings;
+        startTime = now;
+    }
+
+    public void reset() {
+        count = 0;
+    }
+}
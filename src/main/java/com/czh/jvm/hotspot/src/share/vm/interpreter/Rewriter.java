@@ -0,0 +1,424 @@
+package com.czh.jvm.hotspot.src.share.vm.interpreter;
+
+import com.czh.jvm.hotspot.src.share.vm.classfile.Verifier;
+import com.czh.jvm.hotspot.src.share.vm.memory.AllStatic;
+import com.czh.jvm.hotspot.src.share.vm.oops.CodeAttributeInfo;
+import com.czh.jvm.hotspot.src.share.vm.oops.ConstantPool;
+import com.czh.jvm.hotspot.src.share.vm.oops.InstanceKlass;
+import com.czh.jvm.hotspot.src.share.vm.oops.MethodInfo;
+import com.czh.jvm.hotspot.src.share.vm.runtime.Globals;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 链接阶段对方法字节码做一次性预解码
+ *
+ * 1、把字节流拆成指令数组，操作数提前读出来
+ * 2、常量池中的字符串、常量值提前取出来挂在指令上，方法调用指令挂上调用点缓存项
+ * 3、跳转偏移量换算成指令数组的下标
+ * 4、用StackMapTable校验，见Verifier
+ * 5、常用的指令序列合并成超级指令
+ *
+ * 解释器执行的是这里生成的指令数组，不再逐字节读取字节码
+ */
+public class Rewriter extends AllStatic {
+
+    private static Logger logger = LoggerFactory.getLogger(Rewriter.class);
+
+    public static void rewrite(InstanceKlass klass) {
+        for (MethodInfo method : klass.getMethods()) {
+            rewrite(method);
+        }
+    }
+
+    /**
+     * 延迟解析方法体时，多个线程可能同时第一次调用同一个方法，和MethodInfo.getCodeAttribute一样双重检查加锁：
+     * 只有一个线程预解码、校验，其他线程拿到的是同一个指令数组，改写、合并指令不会丢
+     * instructions是volatile的，最后写入，看到指令数组的线程一定能看到verified、bciToIndex
+     */
+    public static void rewrite(MethodInfo method) {
+        if (null == method.getAttributes() || 0 == method.getAttributes().length) {
+            return;
+        }
+
+        CodeAttributeInfo codeAttributeInfo = method.getCodeAttribute();
+
+        // 没有Code属性(抽象方法、本地方法)或者已经处理过
+        if (null == codeAttributeInfo || null != codeAttributeInfo.getInstructions()) {
+            return;
+        }
+
+        synchronized (codeAttributeInfo) {
+            if (null == codeAttributeInfo.getInstructions()) {
+                rewrite(method, codeAttributeInfo);
+            }
+        }
+    }
+
+    private static void rewrite(MethodInfo method, CodeAttributeInfo codeAttributeInfo) {
+        byte[] codes = codeAttributeInfo.getCode().getCodes();
+        ConstantPool pool = method.getBelongKlass().getConstantPool();
+
+        List<Instruction> instructions = new ArrayList<>();
+
+        // 字节码位置 => 指令数组下标，不是指令起始位置的为-1
+        int[] bciToIndex = new int[codes.length];
+        Arrays.fill(bciToIndex, -1);
+
+        int bci = 0;
+        while (bci < codes.length) {
+            Instruction instruction = new Instruction(Byte.toUnsignedInt(codes[bci]), bci);
+
+            bciToIndex[bci] = instructions.size();
+            instructions.add(instruction);
+
+            bci = decode(instruction, codes, pool);
+        }
+
+        // 解码时target存的是跳转的字节码位置，这里统一换算成指令下标
+        for (Instruction instruction : instructions) {
+            if (-1 == instruction.getTarget()) {
+                continue;
+            }
+
+            int index = bciToIndex[instruction.getTarget()];
+            if (-1 == index) {
+                throw new Error("非法的跳转目标: " + instruction.getTarget());
+            }
+
+            instruction.setTarget(index);
+        }
+
+        // 异常表：处理器位置换算成指令下标，捕获的异常类型取出类名
+        for (CodeAttributeInfo.ExceptionItem item : codeAttributeInfo.getExceptionTable()) {
+            int index = bciToIndex[item.getHandlerPc()];
+            if (-1 == index) {
+                throw new Error("非法的异常处理器位置: " + item.getHandlerPc());
+            }
+
+            item.setHandlerIndex(index);
+
+            if (0 != item.getCatchType()) {
+                item.setCatchClassName(pool.getClassName(item.getCatchType()));
+            }
+        }
+
+        Instruction[] code = instructions.toArray(new Instruction[0]);
+
+        // 校验：通过的方法执行时不再检查类型
+        if (Globals.BytecodeVerification) {
+            codeAttributeInfo.setVerified(Verifier.verify(method, code, bciToIndex));
+        }
+
+        codeAttributeInfo.setBciToIndex(bciToIndex);
+
+        // 最后发布
+        codeAttributeInfo.setInstructions(code);
+
+        logger.info("方法 [ " + method.getMethodName() + " ] 预解码完成，指令数: " + instructions.size());
+    }
+
+    /**
+     * 解码一条指令
+     * @return 下一条指令的位置
+     */
+    private static int decode(Instruction instruction, byte[] codes, ConstantPool pool) {
+        int bci = instruction.getBci();
+        int opcode = instruction.getOpcode();
+
+        switch (opcode) {
+            case Bytecodes.BIPUSH:
+                // 带符号扩展
+                instruction.setOperand(codes[bci + 1]);
+                break;
+            case Bytecodes.SIPUSH:
+                instruction.setOperand(s2(codes, bci + 1));
+                break;
+            case Bytecodes.LDC:
+                instruction.setOperand(u1(codes, bci + 1));
+
+                resolveConstant(instruction, pool);
+                break;
+            case Bytecodes.LDC_W:
+            case Bytecodes.LDC2_W:
+                instruction.setOperand(u2(codes, bci + 1));
+
+                resolveConstant(instruction, pool);
+                break;
+            case Bytecodes.ILOAD:
+            case Bytecodes.LLOAD:
+            case Bytecodes.FLOAD:
+            case Bytecodes.DLOAD:
+            case Bytecodes.ALOAD:
+            case Bytecodes.ISTORE:
+            case Bytecodes.LSTORE:
+            case Bytecodes.FSTORE:
+            case Bytecodes.DSTORE:
+            case Bytecodes.ASTORE:
+            case Bytecodes.RET:
+            case Bytecodes.NEWARRAY:
+                instruction.setOperand(u1(codes, bci + 1));
+                break;
+            case Bytecodes.IINC:
+                instruction.setOperand(u1(codes, bci + 1));
+                instruction.setOperand2(codes[bci + 2]);
+                break;
+            case Bytecodes.GETSTATIC:
+            case Bytecodes.PUTSTATIC:
+            case Bytecodes.GETFIELD:
+            case Bytecodes.PUTFIELD:
+                instruction.setOperand(u2(codes, bci + 1));
+
+                resolveMember(instruction, pool);
+                break;
+            case Bytecodes.INVOKEVIRTUAL:
+            case Bytecodes.INVOKESPECIAL:
+            case Bytecodes.INVOKESTATIC:
+                instruction.setOperand(u2(codes, bci + 1));
+
+                instruction.setResolved(pool.getCacheEntry(instruction.getOperand()));
+                break;
+            case Bytecodes.INVOKEINTERFACE:
+                instruction.setOperand(u2(codes, bci + 1));
+                instruction.setOperand2(u1(codes, bci + 3));
+
+                instruction.setResolved(pool.getCacheEntry(instruction.getOperand()));
+                break;
+            case Bytecodes.INVOKEDYNAMIC:
+                instruction.setOperand(u2(codes, bci + 1));
+                break;
+            case Bytecodes.NEW:
+            case Bytecodes.ANEWARRAY:
+            case Bytecodes.CHECKCAST:
+            case Bytecodes.INSTANCEOF:
+                instruction.setOperand(u2(codes, bci + 1));
+                instruction.setResolved(pool.getClassName(instruction.getOperand()));
+                break;
+            case Bytecodes.MULTIANEWARRAY:
+                instruction.setOperand(u2(codes, bci + 1));
+                instruction.setOperand2(u1(codes, bci + 3));
+                instruction.setResolved(pool.getClassName(instruction.getOperand()));
+                break;
+            case Bytecodes.GOTO_W:
+            case Bytecodes.JSR_W:
+                instruction.setTarget(bci + s4(codes, bci + 1));
+                break;
+            case Bytecodes.WIDE: {
+                // wide修饰的是后面那条指令，直接解码成被修饰的指令
+                int modified = u1(codes, bci + 1);
+
+                instruction.setOpcode(modified);
+                instruction.setOperand(u2(codes, bci + 2));
+
+                if (Bytecodes.IINC == modified) {
+                    instruction.setOperand2(s2(codes, bci + 4));
+
+                    return bci + 6;
+                }
+
+                return bci + 4;
+            }
+            case Bytecodes.TABLESWITCH: {
+                // 跳过对齐用的0~3个字节
+                int base = (bci + 4) & ~3;
+                int low = s4(codes, base + 4);
+                int high = s4(codes, base + 8);
+
+                return base + 12 + (high - low + 1) * 4;
+            }
+            case Bytecodes.LOOKUPSWITCH: {
+                int base = (bci + 4) & ~3;
+                int pairs = s4(codes, base + 4);
+
+                return base + 8 + pairs * 8;
+            }
+            default:
+                if (Bytecodes.isBranch(opcode)) {
+                    instruction.setTarget(bci + s2(codes, bci + 1));
+                }
+                break;
+        }
+
+        int length = Bytecodes.lengthFor(opcode);
+        if (0 == length) {
+            throw new Error("无法识别的指令: " + opcode);
+        }
+
+        return bci + length;
+    }
+
+    /**
+     * 合并超级指令，序列取自示例程序的字节码跟踪中执行次数最多的几组(循环条件、循环变量自增、递归参数计算)
+     *
+     * 第一条指令改成超级指令的操作码，操作数换成整个序列要用的：
+     *  operand   第一个iload的槽位
+     *  operand2  int常量，或第二个iload的槽位
+     *  target    序列中分支指令的跳转目标
+     * 运算、比较的种类由解释器从后面保留的原始指令中读取。合并的序列都不会抛出异常
+     * 方法升级到快速指令层时调用，见CompilationPolicy。别的线程可能正在执行，操作码最后改
+     */
+    public static void rewriteFrequentPairs(Instruction[] code) {
+        int i = 0;
+        while (i < code.length) {
+            Instruction first = code[i];
+
+            if (Bytecodes.IINC == first.getOpcode() && i + 1 < code.length && Bytecodes.GOTO == code[i + 1].getOpcode()) {
+                first.setTarget(code[i + 1].getTarget());
+                first.setOpcode(Bytecodes.FAST_IINC_GOTO);
+
+                i += 2;
+                continue;
+            }
+
+            int slot = loadIndex(first);
+            if (-1 == slot || i + 2 >= code.length) {
+                i++;
+                continue;
+            }
+
+            Instruction second = code[i + 1];
+            Instruction third = code[i + 2];
+
+            Integer constant = intConstant(second);
+            int slot2 = loadIndex(second);
+
+            int opcode;
+            if (isIntCompare(third.getOpcode())) {
+                opcode = null != constant ? Bytecodes.FAST_ILOAD_CONST_IF_ICMP
+                        : -1 != slot2 ? Bytecodes.FAST_ILOAD2_IF_ICMP : -1;
+            } else if (isIntArithmetic(third.getOpcode())) {
+                opcode = null != constant ? Bytecodes.FAST_ILOAD_CONST_IOP
+                        : -1 != slot2 ? Bytecodes.FAST_ILOAD2_IOP : -1;
+            } else {
+                opcode = -1;
+            }
+
+            if (-1 == opcode) {
+                i++;
+                continue;
+            }
+
+            first.setOperand(slot);
+            first.setOperand2(null != constant ? constant : slot2);
+            first.setTarget(third.getTarget());
+            first.setOpcode(opcode);
+
+            i += 3;
+        }
+    }
+
+    /**
+     * iload系列指令读取的槽位，其他指令为-1
+     */
+    private static int loadIndex(Instruction instruction) {
+        int opcode = instruction.getOpcode();
+
+        if (Bytecodes.ILOAD == opcode) {
+            return instruction.getOperand();
+        }
+
+        if (opcode >= Bytecodes.ILOAD_0 && opcode <= Bytecodes.ILOAD_3) {
+            return opcode - Bytecodes.ILOAD_0;
+        }
+
+        return -1;
+    }
+
+    /**
+     * 解释器支持的压入int常量的指令压入的值，其他指令为null
+     */
+    private static Integer intConstant(Instruction instruction) {
+        int opcode = instruction.getOpcode();
+
+        if (opcode >= Bytecodes.ICONST_0 && opcode <= Bytecodes.ICONST_5) {
+            return opcode - Bytecodes.ICONST_0;
+        }
+
+        switch (opcode) {
+            case Bytecodes.BIPUSH:
+                return instruction.getOperand();
+            case Bytecodes.LDC:
+            case Bytecodes.LDC_W:
+                return ConstantPool.JVM_CONSTANT_Integer == instruction.getOperand2() ? (Integer) instruction.getResolved() : null;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * 解释器支持的int比较分支指令
+     */
+    private static boolean isIntCompare(int opcode) {
+        switch (opcode) {
+            case Bytecodes.IF_ICMPEQ:
+            case Bytecodes.IF_ICMPNE:
+            case Bytecodes.IF_ICMPGE:
+            case Bytecodes.IF_ICMPGT:
+            case Bytecodes.IF_ICMPLE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * 不会抛出异常的int运算
+     */
+    private static boolean isIntArithmetic(int opcode) {
+        return Bytecodes.IADD == opcode || Bytecodes.ISUB == opcode || Bytecodes.IMUL == opcode;
+    }
+
+    /**
+     * ldc系列指令：直接取出常量值
+     */
+    private static void resolveConstant(Instruction instruction, ConstantPool pool) {
+        int index = instruction.getOperand();
+        int tag = pool.getTag()[index];
+
+        instruction.setOperand2(tag);
+
+        switch (tag) {
+            case ConstantPool.JVM_CONSTANT_String:
+                instruction.setResolved(pool.getString(index));
+                break;
+            case ConstantPool.JVM_CONSTANT_Class:
+                instruction.setResolved(pool.getClassName(index));
+                break;
+            default:
+                instruction.setResolved(pool.getValue(index));
+                break;
+        }
+    }
+
+    /**
+     * 字段、方法指令：取出类名、名称、描述符，常量池中同一项只解析一次
+     */
+    private static void resolveMember(Instruction instruction, ConstantPool pool) {
+        int index = instruction.getOperand();
+
+        instruction.setResolved(pool.getMemberRef(index));
+    }
+
+    private static int u1(byte[] codes, int index) {
+        return codes[index] & 0xFF;
+    }
+
+    private static int u2(byte[] codes, int index) {
+        return (codes[index] & 0xFF) << 8 | (codes[index + 1] & 0xFF);
+    }
+
+    private static int s2(byte[] codes, int index) {
+        return (short) u2(codes, index);
+    }
+
+    private static int s4(byte[] codes, int index) {
+        return (codes[index] & 0xFF) << 24
+                | (codes[index + 1] & 0xFF) << 16
+                | (codes[index + 2] & 0xFF) << 8
+                | (codes[index + 3] & 0xFF);
+    }
+}
@@ -0,0 +1,1352 @@
+package com.czh.jvm.hotspot.src.share.vm.interpreter;
+
+import com.czh.jvm.hotspot.src.share.vm.code.NMethod;
+import com.czh.jvm.hotspot.src.share.vm.memory.AllStatic;
+import com.czh.jvm.hotspot.src.share.vm.oops.ArrayOop;
+import com.czh.jvm.hotspot.src.share.vm.oops.ConstantPool;
+import com.czh.jvm.hotspot.src.share.vm.oops.ConstantPoolCacheEntry;
+import com.czh.jvm.hotspot.src.share.vm.oops.MemberRef;
+import com.czh.jvm.hotspot.src.share.vm.oops.MethodInfo;
+import com.czh.jvm.hotspot.src.share.vm.runtime.CompilationPolicy;
+import com.czh.jvm.hotspot.src.share.vm.runtime.Globals;
+import com.czh.jvm.hotspot.src.share.vm.runtime.StackValueCollection;
+import com.czh.jvm.hotspot.src.share.vm.utilities.BasicType;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * 每条字节码指令的执行代码，对应hotspot的templateTable.hpp
+ *
+ * 按操作码放在表中，解释器取出指令后直接查表执行，见BytecodeInterpreter.run
+ * 每条指令的代码都是一个很小的方法，宿主JVM可以单独编译、内联，不会因为整个解释器方法太大而放弃编译
+ *
+ * 执行完返回下一条指令的下标，跳转指令返回跳转目标。切换了栈帧时返回FRAME_CHANGED，入口方法返回时返回ENTRY_RETURNED
+ */
+public class TemplateTable extends AllStatic {
+
+    /**
+     * 调用、返回、抛出异常后栈帧已经切换，需要重新加载执行状态
+     */
+    public static final int FRAME_CHANGED = -1;
+
+    /**
+     * 入口方法已经返回，解释器退出
+     */
+    public static final int ENTRY_RETURNED = -2;
+
+    @FunctionalInterface
+    public interface Template {
+        /**
+         * @param pc 下一条指令的下标
+         * @return 接下来要执行的指令的下标，或FRAME_CHANGED、ENTRY_RETURNED
+         */
+        int execute(BytecodeInterpreter istate, Instruction instruction, int pc);
+    }
+
+    private static final Template[] templates = new Template[256];
+
+    public static Template templateFor(int opcode) {
+        return templates[opcode];
+    }
+
+    private static void def(int opcode, Template template) {
+        templates[opcode] = template;
+    }
+
+    static {
+        // 不支持的指令
+        for (int i = 0; i < templates.length; i++) {
+            int opcode = i;
+
+            templates[i] = (istate, instruction, pc) -> {
+                throw new Error("无效指令" + opcode);
+            };
+        }
+
+        // 常量
+        def(Bytecodes.ACONST_NULL, TemplateTable::aconst_null);
+        def(Bytecodes.ICONST_0, iconst(0));
+        def(Bytecodes.ICONST_1, iconst(1));
+        def(Bytecodes.ICONST_2, iconst(2));
+        def(Bytecodes.ICONST_3, iconst(3));
+        def(Bytecodes.ICONST_4, iconst(4));
+        def(Bytecodes.ICONST_5, iconst(5));
+        def(Bytecodes.LCONST_0, lconst(0));
+        def(Bytecodes.LCONST_1, lconst(1));
+        def(Bytecodes.FCONST_0, fconst(0f));
+        def(Bytecodes.FCONST_1, fconst(1f));
+        def(Bytecodes.FCONST_2, fconst(2f));
+        def(Bytecodes.DCONST_0, dconst(0));
+        def(Bytecodes.DCONST_1, dconst(1));
+        def(Bytecodes.BIPUSH, TemplateTable::bipush);
+        def(Bytecodes.LDC, TemplateTable::ldc);
+        def(Bytecodes.LDC_W, TemplateTable::ldc);
+        def(Bytecodes.LDC2_W, TemplateTable::ldc2_w);
+
+        // 局部变量
+        def(Bytecodes.ILOAD, TemplateTable::iload);
+        def(Bytecodes.DLOAD, TemplateTable::dload);
+        def(Bytecodes.ILOAD_0, iload(0));
+        def(Bytecodes.ILOAD_1, iload(1));
+        def(Bytecodes.ILOAD_2, iload(2));
+        def(Bytecodes.ILOAD_3, iload(3));
+        def(Bytecodes.LLOAD_0, lload(0));
+        def(Bytecodes.LLOAD_1, lload(1));
+        def(Bytecodes.LLOAD_2, lload(2));
+        def(Bytecodes.LLOAD_3, lload(3));
+        def(Bytecodes.FLOAD_0, fload(0));
+        def(Bytecodes.FLOAD_1, fload(1));
+        def(Bytecodes.FLOAD_2, fload(2));
+        def(Bytecodes.DLOAD_0, dload(0));
+        def(Bytecodes.DLOAD_1, dload(1));
+        def(Bytecodes.DLOAD_2, dload(2));
+        def(Bytecodes.ALOAD_0, aload(0));
+        def(Bytecodes.ALOAD_1, aload(1));
+        def(Bytecodes.ALOAD_2, aload(2));
+        def(Bytecodes.ISTORE, TemplateTable::istore);
+        def(Bytecodes.DSTORE, TemplateTable::dstore);
+        def(Bytecodes.ISTORE_0, istore(0));
+        def(Bytecodes.ISTORE_1, istore(1));
+        def(Bytecodes.ISTORE_2, istore(2));
+        def(Bytecodes.ISTORE_3, istore(3));
+        def(Bytecodes.LSTORE_0, lstore(0));
+        def(Bytecodes.LSTORE_1, lstore(1));
+        def(Bytecodes.LSTORE_2, lstore(2));
+        def(Bytecodes.LSTORE_3, lstore(3));
+        def(Bytecodes.FSTORE_0, fstore(0));
+        def(Bytecodes.FSTORE_1, fstore(1));
+        def(Bytecodes.FSTORE_2, fstore(2));
+        def(Bytecodes.DSTORE_0, dstore(0));
+        def(Bytecodes.DSTORE_1, dstore(1));
+        def(Bytecodes.DSTORE_2, dstore(2));
+        def(Bytecodes.ASTORE_0, astore(0));
+        def(Bytecodes.ASTORE_1, astore(1));
+        def(Bytecodes.ASTORE_2, astore(2));
+        def(Bytecodes.IINC, TemplateTable::iinc);
+
+        // 数组
+        def(Bytecodes.IALOAD, TemplateTable::iaload);
+        def(Bytecodes.BALOAD, TemplateTable::iaload);
+        def(Bytecodes.AALOAD, TemplateTable::aaload);
+        def(Bytecodes.IASTORE, TemplateTable::iastore);
+        def(Bytecodes.BASTORE, TemplateTable::iastore);
+        def(Bytecodes.AASTORE, TemplateTable::aastore);
+        def(Bytecodes.NEWARRAY, TemplateTable::newarray);
+        def(Bytecodes.ANEWARRAY, TemplateTable::anewarray);
+        def(Bytecodes.ARRAYLENGTH, TemplateTable::arraylength);
+
+        // 操作数栈
+        def(Bytecodes.DUP, TemplateTable::dup);
+        def(Bytecodes.DUP2, TemplateTable::dup2);
+
+        // 运算
+        def(Bytecodes.IADD, TemplateTable::iadd);
+        def(Bytecodes.LADD, TemplateTable::ladd);
+        def(Bytecodes.FADD, TemplateTable::fadd);
+        def(Bytecodes.DADD, TemplateTable::dadd);
+        def(Bytecodes.ISUB, TemplateTable::isub);
+        def(Bytecodes.LSUB, TemplateTable::lsub);
+        def(Bytecodes.FSUB, TemplateTable::fsub);
+        def(Bytecodes.DSUB, TemplateTable::dsub);
+        def(Bytecodes.IMUL, TemplateTable::imul);
+        def(Bytecodes.LMUL, TemplateTable::lmul);
+        def(Bytecodes.FMUL, TemplateTable::fmul);
+        def(Bytecodes.DMUL, TemplateTable::dmul);
+        def(Bytecodes.IDIV, TemplateTable::idiv);
+        def(Bytecodes.LDIV, TemplateTable::ldiv);
+        def(Bytecodes.FDIV, TemplateTable::fdiv);
+        def(Bytecodes.DDIV, TemplateTable::ddiv);
+        def(Bytecodes.IREM, TemplateTable::irem);
+        def(Bytecodes.LREM, TemplateTable::lrem);
+        def(Bytecodes.FREM, TemplateTable::frem);
+        def(Bytecodes.DREM, TemplateTable::drem);
+        def(Bytecodes.LCMP, TemplateTable::lcmp);
+
+        // 类型转换
+        def(Bytecodes.I2L, TemplateTable::i2l);
+        def(Bytecodes.I2F, TemplateTable::i2f);
+        def(Bytecodes.I2D, TemplateTable::i2d);
+        def(Bytecodes.L2I, TemplateTable::l2i);
+        def(Bytecodes.L2F, TemplateTable::l2f);
+        def(Bytecodes.L2D, TemplateTable::l2d);
+        def(Bytecodes.F2I, TemplateTable::f2i);
+        def(Bytecodes.F2L, TemplateTable::f2l);
+        def(Bytecodes.F2D, TemplateTable::f2d);
+        def(Bytecodes.D2I, TemplateTable::d2i);
+        def(Bytecodes.D2L, TemplateTable::d2l);
+        def(Bytecodes.D2F, TemplateTable::d2f);
+        def(Bytecodes.I2B, TemplateTable::i2b);
+        def(Bytecodes.I2C, TemplateTable::i2c);
+        def(Bytecodes.I2S, TemplateTable::i2s);
+
+        // 分支
+        def(Bytecodes.IFEQ, TemplateTable::ifeq);
+        def(Bytecodes.IFNE, TemplateTable::ifne);
+        def(Bytecodes.IFLT, TemplateTable::iflt);
+        def(Bytecodes.IFGE, TemplateTable::ifge);
+        def(Bytecodes.IFGT, TemplateTable::ifgt);
+        def(Bytecodes.IFLE, TemplateTable::ifle);
+        def(Bytecodes.IF_ICMPEQ, TemplateTable::if_icmpeq);
+        def(Bytecodes.IF_ICMPNE, TemplateTable::if_icmpne);
+        def(Bytecodes.IF_ICMPGE, TemplateTable::if_icmpge);
+        def(Bytecodes.IF_ICMPGT, TemplateTable::if_icmpgt);
+        def(Bytecodes.IF_ICMPLE, TemplateTable::if_icmple);
+        def(Bytecodes.IFNONNULL, TemplateTable::ifnonnull);
+        def(Bytecodes.GOTO, TemplateTable::_goto);
+
+        // 对象、方法调用、返回、异常
+        def(Bytecodes.GETSTATIC, TemplateTable::getstatic);
+        def(Bytecodes.NEW, TemplateTable::_new);
+        def(Bytecodes.INVOKEVIRTUAL, TemplateTable::invokevirtual);
+        def(Bytecodes.INVOKESPECIAL, TemplateTable::invokespecial);
+        def(Bytecodes.INVOKESTATIC, TemplateTable::invokestatic);
+        def(Bytecodes.INVOKEINTERFACE, TemplateTable::invokeinterface);
+        def(Bytecodes.INVOKEDYNAMIC, TemplateTable::invokedynamic);
+        def(Bytecodes.RETURN, (istate, instruction, pc) -> istate.doReturn(0, BasicType.T_VOID));
+        def(Bytecodes.IRETURN, (istate, instruction, pc) -> istate.doReturn(1, BasicType.T_INT));
+        def(Bytecodes.FRETURN, (istate, instruction, pc) -> istate.doReturn(1, BasicType.T_FLOAT));
+        def(Bytecodes.ARETURN, (istate, instruction, pc) -> istate.doReturn(1, BasicType.T_OBJECT));
+        def(Bytecodes.LRETURN, (istate, instruction, pc) -> istate.doReturn(2, BasicType.T_LONG));
+        def(Bytecodes.DRETURN, (istate, instruction, pc) -> istate.doReturn(2, BasicType.T_DOUBLE));
+        def(Bytecodes.ATHROW, TemplateTable::athrow);
+
+        // 超级指令
+        def(Bytecodes.FAST_ILOAD_CONST_IF_ICMP, TemplateTable::fast_iload_const_if_icmp);
+        def(Bytecodes.FAST_ILOAD2_IF_ICMP, TemplateTable::fast_iload2_if_icmp);
+        def(Bytecodes.FAST_ILOAD_CONST_IOP, TemplateTable::fast_iload_const_iop);
+        def(Bytecodes.FAST_ILOAD2_IOP, TemplateTable::fast_iload2_iop);
+        def(Bytecodes.FAST_IINC_GOTO, TemplateTable::fast_iinc_goto);
+
+        // _fast指令
+        def(Bytecodes.FAST_GETSTATIC, TemplateTable::fast_getstatic);
+        def(Bytecodes.FAST_NEW, TemplateTable::fast_new);
+        def(Bytecodes.FAST_INVOKEVIRTUAL, TemplateTable::fast_invokevirtual);
+        def(Bytecodes.FAST_INVOKESPECIAL, TemplateTable::fast_invoke);
+        def(Bytecodes.FAST_INVOKESTATIC, TemplateTable::fast_invoke);
+        def(Bytecodes.FAST_INVOKEINTERFACE, TemplateTable::fast_invokevirtual);
+    }
+
+    // ==================== 常量 ====================
+
+    private static int aconst_null(BytecodeInterpreter istate, Instruction instruction, int pc) { // 将一个null值入栈到操作数栈中
+        istate.stack.pushNull();
+
+        return pc;
+    }
+
+    private static Template iconst(int value) { // 将int类型常量入栈到操作数栈中
+        return (istate, instruction, pc) -> {
+            istate.stack.pushInt(value);
+
+            return pc;
+        };
+    }
+
+    private static Template lconst(long value) { // 把long类型数据入栈到操作数栈中
+        return (istate, instruction, pc) -> {
+            istate.stack.pushLong(value);
+
+            return pc;
+        };
+    }
+
+    private static Template fconst(float value) { // 将float数据类型入栈操作数栈中
+        return (istate, instruction, pc) -> {
+            istate.stack.pushFloat(value);
+
+            return pc;
+        };
+    }
+
+    private static Template dconst(double value) { // 把double类型入栈到操作数栈中
+        return (istate, instruction, pc) -> {
+            istate.stack.pushDouble(value);
+
+            return pc;
+        };
+    }
+
+    private static int bipush(BytecodeInterpreter istate, Instruction instruction, int pc) { // 将一个byte类型入栈
+        // 立刻将byte类型带符号扩展为一个int类型的值value，然后将value入栈到操作数栈中
+        istate.stack.pushInt(instruction.getOperand());
+
+        return pc;
+    }
+
+    private static int ldc(BytecodeInterpreter istate, Instruction instruction, int pc) { //从运行时常量池中提取数据并压入操作数栈
+        // 常量类型、常量值在链接阶段已经取出
+        switch (instruction.getOperand2()) {
+            case ConstantPool.JVM_CONSTANT_Integer: {
+                istate.stack.pushInt((int) instruction.getResolved());
+                break;
+            }
+            case ConstantPool.JVM_CONSTANT_Float: {
+                istate.stack.pushFloat((float) instruction.getResolved());
+                break;
+            }
+            case ConstantPool.JVM_CONSTANT_String: {
+                istate.stack.pushObject(instruction.getResolved());
+                break;
+            }
+            case ConstantPool.JVM_CONSTANT_Class: {
+                break;
+            }
+            default: {
+                throw new Error("未知类型");
+            }
+        }
+
+        return pc;
+    }
+
+    private static int ldc2_w(BytecodeInterpreter istate, Instruction instruction, int pc) { // 从运行时常量池中提取long或者double数据并压人操作数栈
+        // 数值入栈，long、double都占两个槽位
+        int tag = instruction.getOperand2();
+
+        if (ConstantPool.JVM_CONSTANT_Long == tag) {
+            istate.stack.pushLong((long) instruction.getResolved());
+        } else if (ConstantPool.JVM_CONSTANT_Double == tag) {
+            istate.stack.pushDouble((double) instruction.getResolved());
+        } else {
+            throw new Error("无法识别的格式");
+        }
+
+        return pc;
+    }
+
+    // ==================== 局部变量 ====================
+
+    private static int iload(BytecodeInterpreter istate, Instruction instruction, int pc) { // 从局部变量表加载一个int类型值到操作数栈中
+        istate.stack.pushInt(istate.locals.getInt(instruction.getOperand()));
+
+        return pc;
+    }
+
+    private static int dload(BytecodeInterpreter istate, Instruction instruction, int pc) { // 从局部变量表中加载一个double类型值到操作数栈中
+        istate.stack.pushDouble(istate.locals.getDouble(instruction.getOperand()));
+
+        return pc;
+    }
+
+    private static Template iload(int index) {
+        return (istate, instruction, pc) -> {
+            istate.stack.pushInt(istate.locals.getInt(index));
+
+            return pc;
+        };
+    }
+
+    private static Template lload(int index) {
+        return (istate, instruction, pc) -> {
+            istate.stack.pushLong(istate.locals.getLong(index));
+
+            return pc;
+        };
+    }
+
+    private static Template fload(int index) {
+        return (istate, instruction, pc) -> {
+            istate.stack.pushFloat(istate.locals.getFloat(index));
+
+            return pc;
+        };
+    }
+
+    private static Template dload(int index) {
+        return (istate, instruction, pc) -> {
+            istate.stack.pushDouble(istate.locals.getDouble(index));
+
+            return pc;
+        };
+    }
+
+    private static Template aload(int index) { // 从局部变量表加载一个reference类型值到操作数栈中
+        return (istate, instruction, pc) -> {
+            istate.stack.pushObject(istate.locals.getObject(index));
+
+            return pc;
+        };
+    }
+
+    private static int istore(BytecodeInterpreter istate, Instruction instruction, int pc) { // 将int类型数据保存到本地变量表中,index是一个无符号byte类型整数，指向当前栈帧局部变量表的索引值
+        istate.locals.setInt(instruction.getOperand(), istate.stack.popInt());
+
+        return pc;
+    }
+
+    private static int dstore(BytecodeInterpreter istate, Instruction instruction, int pc) {
+        istate.locals.setDouble(instruction.getOperand(), istate.stack.popDouble());
+
+        return pc;
+    }
+
+    private static Template istore(int index) { // 将int类型数据保存到本地变量表中,后面的数字代表指向当前栈帧的索引值
+        return (istate, instruction, pc) -> {
+            istate.locals.setInt(index, istate.stack.popInt());
+
+            return pc;
+        };
+    }
+
+    private static Template lstore(int index) {
+        return (istate, instruction, pc) -> {
+            istate.locals.setLong(index, istate.stack.popLong());
+
+            return pc;
+        };
+    }
+
+    private static Template fstore(int index) {
+        return (istate, instruction, pc) -> {
+            istate.locals.setFloat(index, istate.stack.popFloat());
+
+            return pc;
+        };
+    }
+
+    private static Template dstore(int index) { // 将一个double类型数据保存到本地变量表中，index和index+1必须是指向当前栈帧局部变量表的索引值
+        return (istate, instruction, pc) -> {
+            istate.locals.setDouble(index, istate.stack.popDouble());
+
+            return pc;
+        };
+    }
+
+    private static Template astore(int index) { // 将一个reference类型的数据保存到本地变量表中
+        return (istate, instruction, pc) -> {
+            istate.locals.setObject(index, istate.stack.popObject());
+
+            return pc;
+        };
+    }
+
+    private static int iinc(BytecodeInterpreter istate, Instruction instruction, int pc) { // 以常数为变量的局部变量自增
+        // 第一个操作数：slot的index，第二个操作数：增加多少
+        int index = instruction.getOperand();
+
+        istate.locals.setInt(index, istate.locals.getInt(index) + instruction.getOperand2());
+
+        return pc;
+    }
+
+    // ==================== 数组 ====================
+
+    private static int iaload(BytecodeInterpreter istate, Instruction instruction, int pc) { // 从数组中加载一个int、byte或boolean数据到操作数栈中
+        StackValueCollection stack = istate.stack;
+
+        int index = stack.popInt();
+        ArrayOop oop = stack.popArray();
+
+        if (index > oop.getSize() - 1) {
+            throw new Error("数组访问越界");
+        }
+
+        stack.pushInt((int) oop.getData().get(index));
+
+        return pc;
+    }
+
+    private static int aaload(BytecodeInterpreter istate, Instruction instruction, int pc) { // 从数组中加载一个reference类型数据到操作数栈
+        StackValueCollection stack = istate.stack;
+
+        int index = stack.popInt();
+        ArrayOop oop = stack.popArray();
+
+        if (index > oop.getSize() - 1) {
+            throw new Error("数组访问越界");
+        }
+
+        stack.pushObject(oop.getData().get(index));
+
+        return pc;
+    }
+
+    private static int iastore(BytecodeInterpreter istate, Instruction instruction, int pc) { // 从操作数栈读取一个int、byte或boolean数据并存入数组
+        StackValueCollection stack = istate.stack;
+
+        int val = stack.popInt();
+        int index = stack.popInt();
+        ArrayOop oop = stack.popArray();
+
+        store(oop, index, val);
+
+        return pc;
+    }
+
+    private static int aastore(BytecodeInterpreter istate, Instruction instruction, int pc) { // 从操作数栈中读取一个reference类型数据到数组中
+        StackValueCollection stack = istate.stack;
+
+        Object value = stack.popObject();
+        int index = stack.popInt();
+        ArrayOop oop = stack.popArray();
+
+        store(oop, index, value);
+
+        return pc;
+    }
+
+    /**
+     * 向数组中添加元素、修改元素都是xastore指令，已有的元素修改，没有的追加
+     */
+    private static void store(ArrayOop oop, int index, Object value) {
+        if (index > oop.getSize() - 1) {
+            throw new Error("数组访问越界");
+        }
+
+        try {
+            oop.getData().get(index);
+
+            oop.getData().set(index, value);
+        } catch (Exception e) {
+            oop.getData().add(value);
+        }
+    }
+
+    private static int newarray(BytecodeInterpreter istate, Instruction instruction, int pc) { // 创建一个新数组
+        int arrSize = istate.stack.popInt();
+
+        istate.stack.pushArray(new ArrayOop(instruction.getOperand(), arrSize));
+
+        return pc;
+    }
+
+    private static int anewarray(BytecodeInterpreter istate, Instruction instruction, int pc) { // 创建一个组件类型为reference类型的数组
+        int arrSize = istate.stack.popInt();
+
+        istate.stack.pushArray(new ArrayOop(BasicType.T_OBJECT, (String) instruction.getResolved(), arrSize));
+
+        return pc;
+    }
+
+    private static int arraylength(BytecodeInterpreter istate, Instruction instruction, int pc) { // 取数组长度
+        istate.stack.pushInt(istate.stack.popArray().getSize());
+
+        return pc;
+    }
+
+    // ==================== 操作数栈 ====================
+
+    private static int dup(BytecodeInterpreter istate, Instruction instruction, int pc) { // 复制操作数栈栈顶的值，并插入到栈顶
+        istate.stack.dup(1);
+
+        return pc;
+    }
+
+    private static int dup2(BytecodeInterpreter istate, Instruction instruction, int pc) { // 复制栈顶一个long或double类型的数据
+        // long、double占两个槽位，直接复制栈顶的两个槽位即可。两个int等单槽位的值也是一样的处理
+        istate.stack.dup(2);
+
+        return pc;
+    }
+
+    // ==================== 运算 ====================
+    // 先出栈的是第二个操作数
+
+    private static int iadd(BytecodeInterpreter istate, Instruction instruction, int pc) {
+        StackValueCollection stack = istate.stack;
+
+        int value1 = stack.popInt();
+        int value2 = stack.popInt();
+
+        stack.pushInt(value2 + value1);
+
+        return pc;
+    }
+
+    private static int ladd(BytecodeInterpreter istate, Instruction instruction, int pc) {
+        StackValueCollection stack = istate.stack;
+
+        long value1 = stack.popLong();
+        long value2 = stack.popLong();
+
+        stack.pushLong(value2 + value1);
+
+        return pc;
+    }
+
+    private static int fadd(BytecodeInterpreter istate, Instruction instruction, int pc) {
+        StackValueCollection stack = istate.stack;
+
+        float value1 = stack.popFloat();
+        float value2 = stack.popFloat();
+
+        stack.pushFloat(value2 + value1);
+
+        return pc;
+    }
+
+    private static int dadd(BytecodeInterpreter istate, Instruction instruction, int pc) {
+        StackValueCollection stack = istate.stack;
+
+        double value1 = stack.popDouble();
+        double value2 = stack.popDouble();
+
+        stack.pushDouble(value2 + value1);
+
+        return pc;
+    }
+
+    private static int isub(BytecodeInterpreter istate, Instruction instruction, int pc) {
+        StackValueCollection stack = istate.stack;
+
+        int value1 = stack.popInt();
+        int value2 = stack.popInt();
+
+        stack.pushInt(value2 - value1);
+
+        return pc;
+    }
+
+    private static int lsub(BytecodeInterpreter istate, Instruction instruction, int pc) {
+        StackValueCollection stack = istate.stack;
+
+        long value1 = stack.popLong();
+        long value2 = stack.popLong();
+
+        stack.pushLong(value2 - value1);
+
+        return pc;
+    }
+
+    private static int fsub(BytecodeInterpreter istate, Instruction instruction, int pc) {
+        StackValueCollection stack = istate.stack;
+
+        float value1 = stack.popFloat();
+        float value2 = stack.popFloat();
+
+        stack.pushFloat(value2 - value1);
+
+        return pc;
+    }
+
+    private static int dsub(BytecodeInterpreter istate, Instruction instruction, int pc) {
+        StackValueCollection stack = istate.stack;
+
+        double value1 = stack.popDouble();
+        double value2 = stack.popDouble();
+
+        stack.pushDouble(value2 - value1);
+
+        return pc;
+    }
+
+    private static int imul(BytecodeInterpreter istate, Instruction instruction, int pc) {
+        StackValueCollection stack = istate.stack;
+
+        int value1 = stack.popInt();
+        int value2 = stack.popInt();
+
+        stack.pushInt(value2 * value1);
+
+        return pc;
+    }
+
+    private static int lmul(BytecodeInterpreter istate, Instruction instruction, int pc) {
+        StackValueCollection stack = istate.stack;
+
+        long value1 = stack.popLong();
+        long value2 = stack.popLong();
+
+        stack.pushLong(value2 * value1);
+
+        return pc;
+    }
+
+    private static int fmul(BytecodeInterpreter istate, Instruction instruction, int pc) {
+        StackValueCollection stack = istate.stack;
+
+        float value1 = stack.popFloat();
+        float value2 = stack.popFloat();
+
+        stack.pushFloat(value2 * value1);
+
+        return pc;
+    }
+
+    private static int dmul(BytecodeInterpreter istate, Instruction instruction, int pc) {
+        StackValueCollection stack = istate.stack;
+
+        double value1 = stack.popDouble();
+        double value2 = stack.popDouble();
+
+        stack.pushDouble(value2 * value1);
+
+        return pc;
+    }
+
+    private static int idiv(BytecodeInterpreter istate, Instruction instruction, int pc) {
+        StackValueCollection stack = istate.stack;
+
+        int value1 = stack.popInt();
+        int value2 = stack.popInt();
+
+        if (0 == value1) {
+            return istate.throwException(pc, new ArithmeticException("/ by zero"));
+        }
+
+        stack.pushInt(value2 / value1);
+
+        return pc;
+    }
+
+    private static int ldiv(BytecodeInterpreter istate, Instruction instruction, int pc) {
+        StackValueCollection stack = istate.stack;
+
+        long value1 = stack.popLong();
+        long value2 = stack.popLong();
+
+        if (0 == value1) {
+            return istate.throwException(pc, new ArithmeticException("/ by zero"));
+        }
+
+        stack.pushLong(value2 / value1);
+
+        return pc;
+    }
+
+    private static int fdiv(BytecodeInterpreter istate, Instruction instruction, int pc) {
+        StackValueCollection stack = istate.stack;
+
+        float value1 = stack.popFloat();
+        float value2 = stack.popFloat();
+
+        stack.pushFloat(value2 / value1);
+
+        return pc;
+    }
+
+    private static int ddiv(BytecodeInterpreter istate, Instruction instruction, int pc) {
+        StackValueCollection stack = istate.stack;
+
+        double value1 = stack.popDouble();
+        double value2 = stack.popDouble();
+
+        stack.pushDouble(value2 / value1);
+
+        return pc;
+    }
+
+    private static int irem(BytecodeInterpreter istate, Instruction instruction, int pc) {
+        StackValueCollection stack = istate.stack;
+
+        int value1 = stack.popInt();
+        int value2 = stack.popInt();
+
+        if (0 == value1) {
+            return istate.throwException(pc, new ArithmeticException("/ by zero"));
+        }
+
+        stack.pushInt(value2 % value1);
+
+        return pc;
+    }
+
+    private static int lrem(BytecodeInterpreter istate, Instruction instruction, int pc) {
+        StackValueCollection stack = istate.stack;
+
+        long value1 = stack.popLong();
+        long value2 = stack.popLong();
+
+        if (0 == value1) {
+            return istate.throwException(pc, new ArithmeticException("/ by zero"));
+        }
+
+        stack.pushLong(value2 % value1);
+
+        return pc;
+    }
+
+    private static int frem(BytecodeInterpreter istate, Instruction instruction, int pc) {
+        StackValueCollection stack = istate.stack;
+
+        float value1 = stack.popFloat();
+        float value2 = stack.popFloat();
+
+        stack.pushFloat(value2 % value1);
+
+        return pc;
+    }
+
+    private static int drem(BytecodeInterpreter istate, Instruction instruction, int pc) {
+        StackValueCollection stack = istate.stack;
+
+        double value1 = stack.popDouble();
+        double value2 = stack.popDouble();
+
+        stack.pushDouble(value2 % value1);
+
+        return pc;
+    }
+
+    private static int lcmp(BytecodeInterpreter istate, Instruction instruction, int pc) { // 比较二个long类型数据的大小
+        StackValueCollection stack = istate.stack;
+
+        long l2 = stack.popLong();
+        long l1 = stack.popLong();
+
+        stack.pushInt(Long.compare(l1, l2));
+
+        return pc;
+    }
+
+    // ==================== 类型转换 ====================
+
+    private static int i2l(BytecodeInterpreter istate, Instruction instruction, int pc) {
+        istate.stack.pushLong(istate.stack.popInt());
+
+        return pc;
+    }
+
+    private static int i2f(BytecodeInterpreter istate, Instruction instruction, int pc) {
+        istate.stack.pushFloat(istate.stack.popInt());
+
+        return pc;
+    }
+
+    private static int i2d(BytecodeInterpreter istate, Instruction instruction, int pc) {
+        istate.stack.pushDouble(istate.stack.popInt());
+
+        return pc;
+    }
+
+    private static int l2i(BytecodeInterpreter istate, Instruction instruction, int pc) {
+        istate.stack.pushInt((int) istate.stack.popLong());
+
+        return pc;
+    }
+
+    private static int l2f(BytecodeInterpreter istate, Instruction instruction, int pc) {
+        istate.stack.pushFloat(istate.stack.popLong());
+
+        return pc;
+    }
+
+    private static int l2d(BytecodeInterpreter istate, Instruction instruction, int pc) {
+        istate.stack.pushDouble(istate.stack.popLong());
+
+        return pc;
+    }
+
+    private static int f2i(BytecodeInterpreter istate, Instruction instruction, int pc) {
+        istate.stack.pushInt((int) istate.stack.popFloat());
+
+        return pc;
+    }
+
+    private static int f2l(BytecodeInterpreter istate, Instruction instruction, int pc) {
+        istate.stack.pushLong((long) istate.stack.popFloat());
+
+        return pc;
+    }
+
+    private static int f2d(BytecodeInterpreter istate, Instruction instruction, int pc) {
+        istate.stack.pushDouble(istate.stack.popFloat());
+
+        return pc;
+    }
+
+    private static int d2i(BytecodeInterpreter istate, Instruction instruction, int pc) {
+        istate.stack.pushInt((int) istate.stack.popDouble());
+
+        return pc;
+    }
+
+    private static int d2l(BytecodeInterpreter istate, Instruction instruction, int pc) {
+        istate.stack.pushLong((long) istate.stack.popDouble());
+
+        return pc;
+    }
+
+    private static int d2f(BytecodeInterpreter istate, Instruction instruction, int pc) {
+        istate.stack.pushFloat((float) istate.stack.popDouble());
+
+        return pc;
+    }
+
+    private static int i2b(BytecodeInterpreter istate, Instruction instruction, int pc) {
+        istate.stack.pushInt((byte) istate.stack.popInt());
+
+        return pc;
+    }
+
+    private static int i2c(BytecodeInterpreter istate, Instruction instruction, int pc) {
+        istate.stack.pushInt((char) istate.stack.popInt());
+
+        return pc;
+    }
+
+    private static int i2s(BytecodeInterpreter istate, Instruction instruction, int pc) {
+        istate.stack.pushInt((short) istate.stack.popInt());
+
+        return pc;
+    }
+
+    // ==================== 分支 ====================
+    // 条件成立时返回跳转目标，否则顺序执行
+
+    private static int ifeq(BytecodeInterpreter istate, Instruction instruction, int pc) { // 整数与0比较的条件分支判断
+        return 0 == istate.stack.popInt() ? branch(istate, instruction, pc) : pc;
+    }
+
+    private static int ifne(BytecodeInterpreter istate, Instruction instruction, int pc) {
+        return 0 != istate.stack.popInt() ? branch(istate, instruction, pc) : pc;
+    }
+
+    private static int iflt(BytecodeInterpreter istate, Instruction instruction, int pc) {
+        return istate.stack.popInt() < 0 ? branch(istate, instruction, pc) : pc;
+    }
+
+    private static int ifge(BytecodeInterpreter istate, Instruction instruction, int pc) {
+        return istate.stack.popInt() >= 0 ? branch(istate, instruction, pc) : pc;
+    }
+
+    private static int ifgt(BytecodeInterpreter istate, Instruction instruction, int pc) {
+        return istate.stack.popInt() > 0 ? branch(istate, instruction, pc) : pc;
+    }
+
+    private static int ifle(BytecodeInterpreter istate, Instruction instruction, int pc) {
+        return istate.stack.popInt() <= 0 ? branch(istate, instruction, pc) : pc;
+    }
+
+    private static int if_icmpeq(BytecodeInterpreter istate, Instruction instruction, int pc) { // int数值的条件分支判断
+        int value1 = istate.stack.popInt();
+        int value2 = istate.stack.popInt();
+
+        return value2 == value1 ? branch(istate, instruction, pc) : pc;
+    }
+
+    private static int if_icmpne(BytecodeInterpreter istate, Instruction instruction, int pc) {
+        int value1 = istate.stack.popInt();
+        int value2 = istate.stack.popInt();
+
+        return value2 != value1 ? branch(istate, instruction, pc) : pc;
+    }
+
+    private static int if_icmpge(BytecodeInterpreter istate, Instruction instruction, int pc) {
+        int value1 = istate.stack.popInt();
+        int value2 = istate.stack.popInt();
+
+        return value2 >= value1 ? branch(istate, instruction, pc) : pc;
+    }
+
+    private static int if_icmpgt(BytecodeInterpreter istate, Instruction instruction, int pc) {
+        int value1 = istate.stack.popInt();
+        int value2 = istate.stack.popInt();
+
+        return value2 > value1 ? branch(istate, instruction, pc) : pc;
+    }
+
+    private static int if_icmple(BytecodeInterpreter istate, Instruction instruction, int pc) {
+        int value1 = istate.stack.popInt();
+        int value2 = istate.stack.popInt();
+
+        return value2 <= value1 ? branch(istate, instruction, pc) : pc;
+    }
+
+    private static int ifnonnull(BytecodeInterpreter istate, Instruction instruction, int pc) { // 引用不为空的条件分支判断
+        return null != istate.stack.popObject() ? branch(istate, instruction, pc) : pc;
+    }
+
+    private static int _goto(BytecodeInterpreter istate, Instruction instruction, int pc) { // 无条件分支跳转
+        return branch(istate, instruction, pc);
+    }
+
+    /**
+     * 跳转。往回跳的是循环的回边，计数，见CompilationPolicy.backedgeEvent
+     * 有了栈上替换的版本，当前栈帧转过去执行完整个方法
+     */
+    private static int branch(BytecodeInterpreter istate, Instruction instruction, int pc) {
+        int target = instruction.getTarget();
+
+        if (target < pc) {
+            NMethod osr = CompilationPolicy.policy().backedgeEvent(istate.method, target);
+            if (null != osr) {
+                return istate.onStackReplace(osr, pc);
+            }
+        }
+
+        return target;
+    }
+
+    // ==================== 对象、方法调用、异常 ====================
+
+    private static int getstatic(BytecodeInterpreter istate, Instruction instruction, int pc) { //获取类的静态字段值
+        MemberRef ref = (MemberRef) instruction.getResolved();
+
+        try {
+            Class<?> clazz = Class.forName(ref.getClassName().replace('/', '.'));
+
+            Field field = clazz.getField(ref.getName());
+
+            quicken(istate, instruction, Bytecodes.FAST_GETSTATIC, field);
+
+            istate.stack.pushObject(field.get(null));
+        } catch (ClassNotFoundException | NoSuchFieldException | IllegalAccessException e) {
+            return istate.throwException(pc, e);
+        }
+
+        return pc;
+    }
+
+    private static int _new(BytecodeInterpreter istate, Instruction instruction, int pc) { // 创建一个对象
+        String className = (String) instruction.getResolved();
+
+        try {
+            Class<?> clazz = Class.forName(className.replace('/', '.'));
+            Constructor<?> constructor = clazz.getConstructor();
+
+            quicken(istate, instruction, Bytecodes.FAST_NEW, constructor);
+
+            istate.stack.pushObject(constructor.newInstance());
+        } catch (NoSuchMethodException e) {
+            /**
+             * 如果没有无参构造函数，就传null，保证栈帧平衡
+             * 后面调用到构造方法的时候进行判断处理
+             */
+            istate.stack.pushNull();
+        } catch (InvocationTargetException e) {
+            // 构造方法抛出的异常
+            return istate.throwException(pc, e.getTargetException());
+        } catch (ClassNotFoundException | IllegalAccessException | InstantiationException e) {
+            return istate.throwException(pc, e);
+        }
+
+        return pc;
+    }
+
+    /**
+     * 调用点缓存项，第一次执行时解析
+     */
+    private static ConstantPoolCacheEntry resolve(BytecodeInterpreter istate, Instruction instruction, int pc) {
+        // 调用前写回程序计数器
+        istate.frame.setPc(pc);
+
+        ConstantPoolCacheEntry entry = (ConstantPoolCacheEntry) instruction.getResolved();
+        if (!entry.isResolved()) {
+            InterpreterRuntime.resolveInvoke(entry, Bytecodes.javaCode(instruction.getOpcode()), istate.method.getBelongKlass());
+        }
+
+        return entry;
+    }
+
+    /**
+     * 方法升级到快速指令层后才改写，执行次数少的方法每次都解析，见CompilationPolicy
+     */
+    private static boolean canQuicken(BytecodeInterpreter istate) {
+        return Globals.RewriteBytecodes && istate.method.getCompLevel() >= CompilationPolicy.COMP_LEVEL_QUICKENED;
+    }
+
+    /**
+     * 改写成_fast指令，见fast_getstatic等
+     * 先挂上解析结果再改操作码，操作码是volatile的，看到新操作码的线程一定能看到解析结果，见Instruction.opcode
+     * 解析结果为null只有一种情况：从共享存档中还原的指令(quickened不写入存档)，这时按原来的指令执行
+     */
+    private static void quicken(BytecodeInterpreter istate, Instruction instruction, int fastCode, Object quickened) {
+        if (!canQuicken(istate)) {
+            return;
+        }
+
+        instruction.setQuickened(quickened);
+        instruction.setOpcode(fastCode);
+    }
+
+    /**
+     * 调用指令改写后挂上的调用目标：自定义的类是方法本身，java体系的是桥接
+     */
+    private static void quickenInvoke(BytecodeInterpreter istate, Instruction instruction, int fastCode, ConstantPoolCacheEntry entry) {
+        quicken(istate, instruction, fastCode, entry.isHost() ? entry.getBridge() : entry.getMethod());
+    }
+
+    /**
+     * 按接收者的类分派：改写成_fast指令，挂上该调用点的内联缓存，之后都从缓存中找调用目标
+     * 不能改写时(关闭了RewriteBytecodes，方法还在解释执行层)没有地方放内联缓存，每次都完整查找
+     * 接收者为null时查找之前就抛出NullPointerException
+     */
+    private static int invokeVirtual(BytecodeInterpreter istate, Instruction instruction, int pc, int fastCode) {
+        ConstantPoolCacheEntry entry = resolve(istate, instruction, pc);
+
+        Object receiver = istate.stack.peekObject(entry.getDescriptor().getMethodParamsSlotSize() + 1);
+        if (null == receiver) {
+            return istate.throwException(pc, new NullPointerException());
+        }
+
+        if (canQuicken(istate)) {
+            InlineCache cache = new InlineCache(entry, istate.method, instruction.getBci());
+
+            quicken(istate, instruction, fastCode, cache);
+
+            return invokeTarget(istate, cache.lookup(receiver), pc);
+        }
+
+        Object target = InterpreterRuntime.resolveVirtualCall(entry, receiver.getClass(), istate.method.getBelongKlass());
+
+        return invokeTarget(istate, target, pc);
+    }
+
+    /**
+     * 调用解析好的目标：解释执行的方法压入栈帧，java体系的方法走桥接
+     */
+    private static int invokeTarget(BytecodeInterpreter istate, Object target, int pc) {
+        if (target instanceof MethodInfo) {
+            return istate.invoke(pc, (MethodInfo) target);
+        }
+
+        return callHost(istate, (MethodHandle) target, pc);
+    }
+
+    /**
+     * java体系的方法走桥接：直接从操作数栈取参数，返回值压回操作数栈
+     * 抛出的异常交给调用者的异常处理器
+     */
+    private static int callHost(BytecodeInterpreter istate, MethodHandle bridge, int pc) {
+        try {
+            bridge.invokeExact(istate.stack);
+        } catch (Throwable e) {
+            return istate.throwException(pc, e);
+        }
+
+        return pc;
+    }
+
+    private static int invokestatic(BytecodeInterpreter istate, Instruction instruction, int pc) { //调用类静态方法
+        ConstantPoolCacheEntry entry = resolve(istate, instruction, pc);
+
+        quickenInvoke(istate, instruction, Bytecodes.FAST_INVOKESTATIC, entry);
+
+        if (entry.isHost()) {
+            return callHost(istate, entry.getBridge(), pc);
+        }
+
+        // 调用：压入新栈帧后切换过去执行
+        return istate.invoke(pc, entry.getMethod());
+    }
+
+    private static int invokeinterface(BytecodeInterpreter istate, Instruction instruction, int pc) { // 调用接口方法
+        /**
+         * 后面两个字节的操作数：
+         *  1、调用的方法的参数个数：long、double记2,其他记1，可以通过解析函数描述符获得，历史原因存在
+         *  2、为额外的运算元预留空间，固定为0
+         * 链接阶段已经跳过，这里不用管
+         */
+        // 按实例的类型分派：实现类在虚拟机中加载过时解释执行，否则走桥接，由MethodHandle分派
+        return invokeVirtual(istate, instruction, pc, Bytecodes.FAST_INVOKEINTERFACE);
+    }
+
+    private static int invokevirtual(BytecodeInterpreter istate, Instruction instruction, int pc) { // 调用实例方法，依据实例的类型进行分派
+        /**
+         * 按实例的类型分派，见InlineCache
+         *  实例的类是自定义的类，并且在虚拟机中加载过：沿父类找到的方法解释执行
+         *  系统类走桥接，MethodHandle会按实例的类型分派
+         */
+        return invokeVirtual(istate, instruction, pc, Bytecodes.FAST_INVOKEVIRTUAL);
+    }
+
+    private static int invokespecial(BytecodeInterpreter istate, Instruction instruction, int pc) { // 调用实例方法，专门调用父类方法，私有方法和实例初始化方法
+        ConstantPoolCacheEntry entry = resolve(istate, instruction, pc);
+
+        if (!entry.isHost()) {
+            // java体系的构造方法、父类方法每次都要处理对象引用，不改写
+            quickenInvoke(istate, instruction, Bytecodes.FAST_INVOKESPECIAL, entry);
+
+            return istate.invoke(pc, entry.getMethod());
+        }
+
+        // 判断调用的是构造方法还是普通方法
+        if (null == entry.getHostConstructor()) {
+            // java体系，非构造方法
+            throw new Error("java体系，非构造方法，未做处理");
+        }
+
+        StackValueCollection stack = istate.stack;
+
+        // 参数槽位数，参数在对象引用上面
+        int slotSize = entry.getDescriptor().getMethodParamsSlotSize();
+
+        /**
+         * 1、为什么要出栈?
+         *      因为非静态方法调用前都会压入对象指针，构建环境时给this赋值
+         *      而java体系，我的设计中走的是桥接。所以需要手动完成出栈，保持堆栈平衡
+         * 2、为什么对象引用在参数下面？
+         * | 参数1 |
+         * --------
+         * | 参数2 |
+         * --------
+         * | 对象引用 |
+         * -----------
+         */
+        Object object = stack.peekObject(slotSize + 1);
+
+        try {
+            if (null == object || object.equals("")) {
+                object = (Object) entry.getBridge().invokeExact(stack);
+            }
+        } catch (Throwable e) {
+            // java体系的方法抛出的异常，交给调用者的异常处理器
+            return istate.throwException(pc, e);
+        }
+
+        stack.drop(slotSize + 1);
+
+        if (!entry.getRef().getClassName().equals("java/lang/Object")) {
+            // 注意：这里应该是给栈顶的引用赋值，而不是创建新的压栈
+            stack.setTopObject(object);
+        }
+
+        return pc;
+    }
+
+    private static int invokedynamic(BytecodeInterpreter istate, Instruction instruction, int pc) { // 调用动态方法
+        istate.frame.setPc(pc);
+
+        Object object = new LambdaEngine(istate.method, instruction.getOperand()).createObject();
+
+        istate.stack.pushObject(object);
+
+        return pc;
+    }
+
+    private static int athrow(BytecodeInterpreter istate, Instruction instruction, int pc) { // 抛出一个异常或错误
+        Throwable throwable = (Throwable) istate.stack.popObject();
+
+        return istate.throwException(pc, throwable);
+    }
+
+    // ==================== _fast指令 ====================
+    // 原来的指令第一次执行时改写而成，见quicken。没有解析结果(共享存档中还原的指令)时按原来的指令执行
+
+    private static int fast_getstatic(BytecodeInterpreter istate, Instruction instruction, int pc) { // 直接读取解析好的静态字段
+        Field field = (Field) instruction.getQuickened();
+        if (null == field) {
+            return getstatic(istate, instruction, pc);
+        }
+
+        try {
+            istate.stack.pushObject(field.get(null));
+        } catch (IllegalAccessException e) {
+            return istate.throwException(pc, e);
+        }
+
+        return pc;
+    }
+
+    private static int fast_new(BytecodeInterpreter istate, Instruction instruction, int pc) { // 直接用解析好的构造方法创建对象
+        Constructor<?> constructor = (Constructor<?>) instruction.getQuickened();
+        if (null == constructor) {
+            return _new(istate, instruction, pc);
+        }
+
+        try {
+            istate.stack.pushObject(constructor.newInstance());
+        } catch (InvocationTargetException e) {
+            // 构造方法抛出的异常
+            return istate.throwException(pc, e.getTargetException());
+        } catch (IllegalAccessException | InstantiationException e) {
+            return istate.throwException(pc, e);
+        }
+
+        return pc;
+    }
+
+    private static int fast_invoke(BytecodeInterpreter istate, Instruction instruction, int pc) { // 直接调用解析好的调用目标
+        Object target = instruction.getQuickened();
+        if (null == target) {
+            return templateFor(Bytecodes.javaCode(instruction.getOpcode())).execute(istate, instruction, pc);
+        }
+
+        return invokeTarget(istate, target, pc);
+    }
+
+    private static int fast_invokevirtual(BytecodeInterpreter istate, Instruction instruction, int pc) { // 从内联缓存中找调用目标，invokeinterface也是它
+        InlineCache cache = (InlineCache) instruction.getQuickened();
+        if (null == cache) {
+            return templateFor(Bytecodes.javaCode(instruction.getOpcode())).execute(istate, instruction, pc);
+        }
+
+        Object receiver = istate.stack.peekObject(cache.getReceiverOffset());
+        if (null == receiver) {
+            return istate.throwException(pc, new NullPointerException());
+        }
+
+        return invokeTarget(istate, cache.lookup(receiver), pc);
+    }
+
+    // ==================== 超级指令 ====================
+    // 由Rewriter合并而成，操作数的含义见Rewriter.rewriteFrequentPairs。pc指向序列的第二条指令
+
+    private static int fast_iload_const_if_icmp(BytecodeInterpreter istate, Instruction instruction, int pc) { // 局部变量和常量比较后分支
+        int value = istate.locals.getInt(instruction.getOperand());
+
+        return compare(istate.code[pc + 1].getOpcode(), value, instruction.getOperand2()) ? branch(istate, instruction, pc) : pc + 2;
+    }
+
+    private static int fast_iload2_if_icmp(BytecodeInterpreter istate, Instruction instruction, int pc) { // 两个局部变量比较后分支
+        int value1 = istate.locals.getInt(instruction.getOperand());
+        int value2 = istate.locals.getInt(instruction.getOperand2());
+
+        return compare(istate.code[pc + 1].getOpcode(), value1, value2) ? branch(istate, instruction, pc) : pc + 2;
+    }
+
+    private static int fast_iload_const_iop(BytecodeInterpreter istate, Instruction instruction, int pc) { // 局部变量和常量运算，结果入栈
+        int value = istate.locals.getInt(instruction.getOperand());
+
+        istate.stack.pushInt(arithmetic(istate.code[pc + 1].getOpcode(), value, instruction.getOperand2()));
+
+        return pc + 2;
+    }
+
+    private static int fast_iload2_iop(BytecodeInterpreter istate, Instruction instruction, int pc) { // 两个局部变量运算，结果入栈
+        int value1 = istate.locals.getInt(instruction.getOperand());
+        int value2 = istate.locals.getInt(instruction.getOperand2());
+
+        istate.stack.pushInt(arithmetic(istate.code[pc + 1].getOpcode(), value1, value2));
+
+        return pc + 2;
+    }
+
+    private static int fast_iinc_goto(BytecodeInterpreter istate, Instruction instruction, int pc) { // 循环变量自增后跳回循环开头
+        int index = instruction.getOperand();
+
+        istate.locals.setInt(index, istate.locals.getInt(index) + instruction.getOperand2());
+
+        return branch(istate, instruction, pc);
+    }
+
+    /**
+     * 按if_icmpXX的操作码比较value1、value2
+     */
+    private static boolean compare(int opcode, int value1, int value2) {
+        switch (opcode) {
+            case Bytecodes.IF_ICMPEQ:
+                return value1 == value2;
+            case Bytecodes.IF_ICMPNE:
+                return value1 != value2;
+            case Bytecodes.IF_ICMPGE:
+                return value1 >= value2;
+            case Bytecodes.IF_ICMPGT:
+                return value1 > value2;
+            case Bytecodes.IF_ICMPLE:
+                return value1 <= value2;
+            default:
+                throw new Error("无效指令" + opcode);
+        }
+    }
+
+    /**
+     * 按iadd、isub、imul的操作码计算value1、value2
+     */
+    private static int arithmetic(int opcode, int value1, int value2) {
+        switch (opcode) {
+            case Bytecodes.IADD:
+                return value1 + value2;
+            case Bytecodes.ISUB:
+                return value1 - value2;
+            case Bytecodes.IMUL:
+                return value1 * value2;
+            default:
+                throw new Error("无效指令" + opcode);
+        }
+    }
+}
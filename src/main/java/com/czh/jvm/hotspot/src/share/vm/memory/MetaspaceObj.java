@@ -0,0 +1,12 @@
+package com.czh.jvm.hotspot.src.share.vm.memory;
+
+import java.io.Serializable;
+
+/**
+ * 类的元数据，对应hotspot的MetaspaceObj
+ *
+ * 类、常量池、方法、字段及其属性都继承它，可以整体写入共享存档，见MetaspaceShared
+ * 只在运行时有意义的字段(反射得到的Method、MethodHandle、其他类的引用)标记为transient，从存档加载后重新解析
+ */
+public class MetaspaceObj extends AllocatedObj implements Serializable {
+}
@@ -0,0 +1,279 @@
+package com.czh.jvm.hotspot.src.share.vm.memory;
+
+import com.czh.jvm.hotspot.src.share.vm.classfile.BootClassLoader;
+import com.czh.jvm.hotspot.src.share.vm.oops.CodeAttributeInfo;
+import com.czh.jvm.hotspot.src.share.vm.oops.InstanceKlass;
+import com.czh.jvm.hotspot.src.share.vm.oops.MethodInfo;
+import com.czh.jvm.hotspot.src.share.vm.runtime.Globals;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 类数据共享(CDS)，对应hotspot的metaspaceShared.hpp、filemap.hpp
+ *
+ * 1、-DArchiveClassesAtExit=文件：main方法执行完后，把加载过的类(常量池、方法、字段、已经预解码的指令)写入存档
+ * 2、-DSharedArchiveFile=文件：启动时映射存档，只读取目录，类第一次加载时才从存档中还原，不再经过ClassFileParser
+ *    类文件在写存档后改过(指纹对不上)的，不用存档中的，重新解析类文件，对应hotspot的共享路径表(SharedPathsMiscInfo)
+ *
+ * 存档格式：
+ *  magic     u4
+ *  version   u4      存档格式的版本，和当前的不一致时不使用存档
+ *  classPath UTF     写存档时的类加载路径，和当前的不一致时不使用存档
+ *  count     u4
+ *  目录      count * (类名 UTF, offset u4, length u4, size u8, stamp u8)
+ *            类名用'.'分隔，offset相对于目录后的数据区，size、stamp是类文件的指纹，见ClassPathEntry.stamp
+ *  数据区    每个类单独序列化，互不引用，可以单独还原
+ */
+public class MetaspaceShared extends AllStatic {
+
+    private static Logger logger = LoggerFactory.getLogger(MetaspaceShared.class);
+
+    private static final int MAGIC = 0xCAFEDA7A;
+
+    private static final int VERSION = 2;
+
+    // 映射的存档，从目录后的数据区开始。没有存档或存档不可用时为null
+    private static ByteBuffer archive;
+
+    // 类名 => 目录项
+    private static Map<String, DirectoryEntry> directory = Collections.emptyMap();
+
+    private static volatile boolean initialized;
+
+    /**
+     * 从共享存档中还原类，存档中没有时返回null
+     */
+    public static InstanceKlass findKlass(String name) {
+        if (null == Globals.SharedArchiveFile) {
+            return null;
+        }
+
+        initialize();
+
+        // 调用方传的类名有的用'/'分隔，存档中统一用'.'
+        String key = name.replace('/', '.');
+
+        DirectoryEntry location = directory.get(key);
+        if (null == location) {
+            return null;
+        }
+
+        long[] stamp = BootClassLoader.getAppLoader().classFileStamp(key);
+        if (null == stamp || stamp[0] != location.size || stamp[1] != location.stamp) {
+            logger.warn("类文件在写共享存档后改过，重新解析: " + name);
+
+            return null;
+        }
+
+        ByteBuffer buffer = archive.duplicate();
+        buffer.position(location.offset);
+        buffer.limit(location.offset + location.length);
+
+        try (ObjectInputStream in = new ObjectInputStream(new ByteBufferInputStream(buffer))) {
+            InstanceKlass klass = (InstanceKlass) in.readObject();
+
+            logger.info("从共享存档加载类: " + name);
+
+            return klass;
+        } catch (IOException | ClassNotFoundException e) {
+            // 虚拟机的代码改过，存档中的类结构对不上了，重新解析类文件
+            logger.warn("共享存档中的类无法还原: " + name + ", " + e);
+
+            return null;
+        }
+    }
+
+    private static synchronized void initialize() {
+        if (initialized) {
+            return;
+        }
+
+        initialized = true;
+
+        Path path = Paths.get(Globals.SharedArchiveFile);
+        if (!Files.isRegularFile(path)) {
+            logger.warn("共享存档不存在: " + path);
+
+            return;
+        }
+
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new Error("映射共享存档失败: " + path, e);
+        }
+
+        try {
+            DataInputStream in = new DataInputStream(new ByteBufferInputStream(buffer));
+
+            if (MAGIC != in.readInt()) {
+                logger.warn("不是共享存档: " + path);
+
+                return;
+            }
+
+            int version = in.readInt();
+            if (VERSION != version) {
+                logger.warn("共享存档的版本和当前的不一致，不使用: " + version);
+
+                return;
+            }
+
+            String classPath = in.readUTF();
+            if (!classPath.equals(BootClassLoader.getClassPathString())) {
+                logger.warn("共享存档的类加载路径和当前的不一致，不使用: " + classPath);
+
+                return;
+            }
+
+            int count = in.readInt();
+
+            Map<String, DirectoryEntry> entries = new HashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                entries.put(in.readUTF(), new DirectoryEntry(in.readInt(), in.readInt(), in.readLong(), in.readLong()));
+            }
+
+            archive = buffer.slice();
+            directory = entries;
+        } catch (IOException e) {
+            throw new Error("读取共享存档失败: " + path, e);
+        }
+
+        logger.info("映射共享存档: " + path + "，类 " + directory.size() + " 个");
+    }
+
+    /**
+     * 把app加载过的所有类写入存档
+     */
+    public static void dump(String file) {
+        List<String> names = new ArrayList<>();
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        List<DirectoryEntry> locations = new ArrayList<>();
+
+        // 存档只在app加载时使用，见ClassLoaderData.readAndParse
+        for (InstanceKlass klass : BootClassLoader.getAppLoader().getDefinedKlasses()) {
+            String name = klass.getConstantPool().getClassName(klass.getThisClass()).replace('/', '.');
+
+            // 类文件已经删掉了，使用存档时也对不上，不用写入
+            long[] stamp = BootClassLoader.getAppLoader().classFileStamp(name);
+            if (null == stamp) {
+                logger.warn("找不到类文件，不写入共享存档: " + name);
+
+                continue;
+            }
+
+            prepare(klass);
+
+            int offset = data.size();
+            try (ObjectOutputStream out = new ObjectOutputStream(data)) {
+                out.writeObject(klass);
+            } catch (IOException e) {
+                throw new Error("写入共享存档失败: " + name, e);
+            }
+
+            names.add(name);
+            locations.add(new DirectoryEntry(offset, data.size() - offset, stamp[0], stamp[1]));
+        }
+
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(Paths.get(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(BootClassLoader.getClassPathString());
+            out.writeInt(names.size());
+
+            for (int i = 0; i < names.size(); i++) {
+                DirectoryEntry location = locations.get(i);
+
+                out.writeUTF(names.get(i));
+                out.writeInt(location.offset);
+                out.writeInt(location.length);
+                out.writeLong(location.size);
+                out.writeLong(location.stamp);
+            }
+
+            data.writeTo(out);
+        } catch (IOException e) {
+            throw new Error("写入共享存档失败: " + file, e);
+        }
+
+        logger.info("写入共享存档: " + file + "，类 " + names.size() + " 个，" + data.size() + " 字节");
+    }
+
+    /**
+     * 延迟解析的方法体、调试属性引用的是映射的类文件，写入前全部解析出来
+     */
+    private static void prepare(InstanceKlass klass) {
+        for (MethodInfo method : klass.getMethods()) {
+            CodeAttributeInfo codeAttributeInfo = method.getCodeAttribute();
+            if (null != codeAttributeInfo) {
+                codeAttributeInfo.getAttributes();
+            }
+        }
+    }
+
+    /**
+     * 目录项：类在数据区中的位置，以及写存档时类文件的指纹
+     */
+    private static class DirectoryEntry {
+        final int offset;
+        final int length;
+        final long size;
+        final long stamp;
+
+        DirectoryEntry(int offset, int length, long size, long stamp) {
+            this.offset = offset;
+            this.length = length;
+            this.size = size;
+            this.stamp = stamp;
+        }
+    }
+
+    /**
+     * 从ByteBuffer读取，映射的存档不用拷贝到堆中
+     */
+    private static class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+
+            len = Math.min(len, buffer.remaining());
+            buffer.get(b, off, len);
+
+            return len;
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package com.czh.jvm.hotspot.src.share.vm.oops;
 
+import com.czh.jvm.hotspot.src.share.vm.memory.MetaspaceObj;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 
 @Data
-public class Annotation {
+@EqualsAndHashCode(callSuper = false)
+public class Annotation extends MetaspaceObj {
 
     private int typeIndex;
     private int elementsNum;
@@ -1,9 +1,12 @@
 package com.czh.jvm.hotspot.src.share.vm.oops;
 
+import com.czh.jvm.hotspot.src.share.vm.memory.MetaspaceObj;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 
 @Data
-public class AttributeInfo {
+@EqualsAndHashCode(callSuper = false)
+public class AttributeInfo extends MetaspaceObj {
 
     private int attrNameIndex;
     private int attrLength;
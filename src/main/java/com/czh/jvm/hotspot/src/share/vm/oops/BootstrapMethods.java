@@ -1,6 +1,8 @@
 package com.czh.jvm.hotspot.src.share.vm.oops;
 
+import com.czh.jvm.hotspot.src.share.vm.memory.MetaspaceObj;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -17,7 +19,8 @@ public class BootstrapMethods extends AttributeInfo {
     private List<Item> bootstrapMethods = new ArrayList<>();
 
     @Data
-    public class Item {
+    @EqualsAndHashCode(callSuper = false)
+    public class Item extends MetaspaceObj {
         private int bootstrapMethodRef;// 对应一个CONSTANT_MethodHandle_info的索引
         private int numBootstrapArguments;// bootstrap_arguments数组元素的个数
         private int[] bootstrapArguments;// 常量池的有效索引
@@ -0,0 +1,20 @@
+package com.czh.jvm.hotspot.src.share.vm.oops;
+
+import com.czh.jvm.hotspot.src.share.vm.memory.MetaspaceObj;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 常量池项：CONSTANT_Class_info
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+public class ClassRefInfo extends MetaspaceObj {
+
+    // 类的全限定名在常量池中的索引
+    private int nameIndex;
+
+    public ClassRefInfo(int nameIndex) {
+        this.nameIndex = nameIndex;
+    }
+}
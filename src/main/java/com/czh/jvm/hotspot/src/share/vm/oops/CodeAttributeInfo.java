@@ -1,15 +1,21 @@
 package com.czh.jvm.hotspot.src.share.vm.oops;
 
+import com.czh.jvm.hotspot.src.share.vm.classfile.ClassFileParser;
 import com.czh.jvm.hotspot.src.share.vm.interpreter.BytecodeStream;
+import com.czh.jvm.hotspot.src.share.vm.interpreter.Instruction;
+import com.czh.jvm.hotspot.src.share.vm.memory.MetaspaceObj;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 @Data
-public class CodeAttributeInfo {
+@EqualsAndHashCode(callSuper = false)
+public class CodeAttributeInfo extends MetaspaceObj {
 
     private int attrNameIndex;
     private int attrLength;
@@ -22,6 +28,16 @@ public class CodeAttributeInfo {
     private int codeLength;
     private BytecodeStream code;
 
+    // 链接阶段预解码得到的指令数组，解释器执行的是它
+    // 在bciToIndex、verified之后写入，volatile保证看到它的线程也能看到这两个字段，见Rewriter.rewrite
+    private volatile Instruction[] instructions;
+
+    // 字节码位置 => 指令数组下标
+    private int[] bciToIndex;
+
+    // 链接时是否通过了字节码校验，通过的方法执行时不检查类型，见Verifier
+    private boolean verified;
+
     private int exceptionTableLength;
     private List<ExceptionItem> exceptionTable = new ArrayList<>();
 
@@ -30,14 +46,42 @@ public class CodeAttributeInfo {
 
     private Map<String, AttributeInfo> attributes = new HashMap<>();
 
+    // 延迟解析：上面这些属性在类文件中的位置，解析完后置为-1
+    private transient ByteBuffer classFile;
+    private transient ConstantPool constantPool;
+    private volatile int attributesOffset = -1;
+
+    /**
+     * 行号表、局部变量表、StackMapTable等，延迟解析时第一次用到才解析
+     */
+    public Map<String, AttributeInfo> getAttributes() {
+        if (-1 != attributesOffset) {
+            synchronized (this) {
+                if (-1 != attributesOffset) {
+                    attributes = ClassFileParser.parseCodeAttributes(classFile, attributesOffset, attributesCount, constantPool);
+
+                    classFile = null;
+                    constantPool = null;
+                    attributesOffset = -1;
+                }
+            }
+        }
+
+        return attributes;
+    }
+
     @Override
     public String toString() {
         return "CodeAttributeInfo{}";
     }
 
-    public ExceptionItem findExceptionHandle(int current) {
+    /**
+     * 按异常表的顺序查找能处理该异常的处理器
+     * @param current 抛出异常的字节码位置，范围是[startPc, endPc)
+     */
+    public ExceptionItem findExceptionHandle(int current, Throwable throwable) {
         for (ExceptionItem item: exceptionTable) {
-            if (item.getStartPc() <= current && item.getEndPc() >= current) {
+            if (item.getStartPc() <= current && item.getEndPc() > current && item.canCatch(throwable)) {
                 return item;
             }
         }
@@ -46,10 +90,27 @@ public class CodeAttributeInfo {
     }
 
     @Data
-    public class ExceptionItem {
+    @EqualsAndHashCode(callSuper = false)
+    public class ExceptionItem extends MetaspaceObj {
         private int startPc;
         private int endPc;
         private int handlerPc;
         private int catchType;
+
+        // 链接阶段填充：处理器在指令数组中的下标、捕获的异常类名(catchType为0时为null，表示捕获所有异常，如finally)
+        private int handlerIndex;
+        private String catchClassName;
+
+        public boolean canCatch(Throwable throwable) {
+            if (null == catchClassName) {
+                return true;
+            }
+
+            try {
+                return Class.forName(catchClassName.replace('/', '.')).isInstance(throwable);
+            } catch (ClassNotFoundException e) {
+                throw new Error("找不到异常类: " + catchClassName);
+            }
+        }
     }
 }
\ No newline at end of file
@@ -1,13 +1,35 @@
 package com.czh.jvm.hotspot.src.share.vm.oops;
 
+import com.czh.jvm.hotspot.src.share.vm.memory.MetaspaceObj;
 import lombok.Data;
-
-import java.util.HashMap;
-import java.util.Map;
-
-
+import lombok.EqualsAndHashCode;
+
+
+/**
+ * 运行时常量池
+ *
+ * 按常量池索引直接用数组存取：
+ *  tag       index=>类型
+ *  entries   index=>解析类文件得到的常量池项
+ *              Utf8                        Symbol，所有类共用，见SymbolTable
+ *              Integer、Float、Long、Double  对应的包装类型
+ *              Class                       ClassRefInfo
+ *              String、MethodType           Integer，指向Utf8的索引
+ *              Fieldref、Methodref等        MemberRefInfo
+ *              NameAndType                 NameAndTypeInfo
+ *              MethodHandle                MethodHandleInfo
+ *              InvokeDynamic               InvokeDynamicInfo
+ *  resolved  index=>解析结果，第一次用到时填充，之后直接取
+ *              Class                       类的全限定名
+ *              String                      字符串内容
+ *              Fieldref、Methodref等        MemberRef
+ *  cache     index=>方法调用点的解析结果，见ConstantPoolCacheEntry
+ *
+ * 解析结果是不可变的，多个线程同时解析同一项得到的值相同，所以不用加锁
+ */
 @Data
-public class ConstantPool {
+@EqualsAndHashCode(callSuper = false)
+public class ConstantPool extends MetaspaceObj {
 
     /*常量值基本种类*/
     public static final int JVM_CONSTANT_Utf8 = 1;
@@ -34,154 +56,149 @@ public class ConstantPool {
     // index=>type
     private int[] tag;
 
-    // index=>value
-    private Map<Integer, Object> dataMap;
+    // index=>常量池项
+    private Object[] entries;
+
+    // index=>解析结果
+    private Object[] resolved;
+
+    // index=>方法调用点的解析结果
+    private ConstantPoolCacheEntry[] cache;
 
     public void initContainer() {
         tag = new int[length];
-        dataMap = new HashMap<>(length);
+        entries = new Object[length];
+        resolved = new Object[length];
+        cache = new ConstantPoolCacheEntry[length];
     }
 
-    public String getClassName(int index) {
-        if (0 == index || index > length) {
-            return null;
+    private void checkIndex(int index, int expectTag) {
+        if (index <= 0 || index >= length || tag[index] != expectTag) {
+            throw new Error("错误的常量池索引: " + index + "，期望类型: " + expectTag);
         }
+    }
 
-        /**
-         * 解释：
-         *  1、参数index对应的是JVM_CONSTANT_Class
-         *  2、JVM_CONSTANT_Class中的信息才是类的全限定名在常量池中的索引
-         */
-        return (String) getDataMap().get(getDataMap().get(index));
+    public Symbol getSymbol(int index) {
+        checkIndex(index, JVM_CONSTANT_Utf8);
+
+        return (Symbol) entries[index];
     }
 
-    public String getSuperClassName(int index) {
-        if (0 == index || index > length) {
-            return null;
-        }
+    public String getUtf8(int index) {
+        return getSymbol(index).asString();
+    }
 
-        /**
-         * 解释：
-         *  1、参数index对应的是JVM_CONSTANT_Class
-         *  2、JVM_CONSTANT_Class中的信息才是类的全限定名在常量池中的索引
-         */
-        return (String) getDataMap().get(index);
+    /**
+     * Integer、Float、Long、Double常量的值
+     */
+    public Object getValue(int index) {
+        return entries[index];
     }
 
-    public String getMethodName(int index) {
-        if (0 == index || index > length) {
+    public String getClassName(int index) {
+        if (0 == index || index >= length) {
             return null;
         }
 
-        return (String) getDataMap().get(index);
-    }
+        Object result = resolved[index];
+        if (null == result) {
+            checkIndex(index, JVM_CONSTANT_Class);
 
-    public String getDescriptorName(int index) {
-        if (0 == index || index > length) {
-            return null;
+            /**
+             * 解释：
+             *  1、参数index对应的是JVM_CONSTANT_Class
+             *  2、JVM_CONSTANT_Class中的信息才是类的全限定名在常量池中的索引
+             */
+            result = resolved[index] = getUtf8(((ClassRefInfo) entries[index]).getNameIndex());
         }
 
-        return (String) getDataMap().get(index);
+        return (String) result;
     }
 
-    public String getClassNameByFieldInfo(int index) {
-        // 获取Class信息在常量池中的index
-        int data = (int) getDataMap().get(index);
-        int classIndex = data >> 16;
+    public String getString(int index) {
+        Object result = resolved[index];
+        if (null == result) {
+            checkIndex(index, JVM_CONSTANT_String);
 
-        // 获取Class全限定名的index
-        int classNameIndex = (int) getDataMap().get(classIndex);
+            result = resolved[index] = getUtf8((int) entries[index]);
+        }
 
-        return (String) getDataMap().get(classNameIndex);
+        return (String) result;
     }
 
-    public String getClassNameByMethodInfo(int index) {
-        return getClassNameByFieldInfo(index);
+    public NameAndTypeInfo getNameAndType(int index) {
+        checkIndex(index, JVM_CONSTANT_NameAndType);
+
+        return (NameAndTypeInfo) entries[index];
     }
 
-    public String getFieldName(int index) {
-        // 获取NameAndType在常量池中的index
-        int data = (int) getDataMap().get(index);
-        int i = data & 0xFF;
+    /**
+     * Fieldref、Methodref、InterfaceMethodref解析成符号引用
+     */
+    public MemberRef getMemberRef(int index) {
+        Object result = resolved[index];
+        if (null == result) {
+            if (!(entries[index] instanceof MemberRefInfo)) {
+                throw new Error("错误的常量池索引: " + index + "，不是字段或方法");
+            }
 
-        int nameAndType = (int) getDataMap().get(i);
-        i = nameAndType >> 16;
+            MemberRefInfo info = (MemberRefInfo) entries[index];
+            NameAndTypeInfo nameAndType = getNameAndType(info.getNameAndTypeIndex());
 
-        return (String) getDataMap().get(i);
-    }
+            result = resolved[index] = new MemberRef(
+                    getClassName(info.getClassIndex()),
+                    getSymbol(nameAndType.getNameIndex()),
+                    getSymbol(nameAndType.getDescriptorIndex()));
+        }
 
-    public String getMethodNameByMethodInfo(int operand) {
-        // 获取MethodInfo在常量池中的index
-        int i = (int) getDataMap().get(operand);
-        int nameAndTypeIndex = i & 0xff;
+        return (MemberRef) result;
+    }
 
-        // 获取NameAndType的值
-        int data = (int) getDataMap().get(nameAndTypeIndex);
-        i = data >> 16;
+    /**
+     * Methodref、InterfaceMethodref对应的调用点缓存项，同一项的所有调用指令共用
+     */
+    public ConstantPoolCacheEntry getCacheEntry(int index) {
+        ConstantPoolCacheEntry entry = cache[index];
+        if (null == entry) {
+            entry = cache[index] = new ConstantPoolCacheEntry(getMemberRef(index));
+        }
 
-        return (String) getDataMap().get(i);
+        return entry;
     }
 
-    public String getDescriptorNameByMethodInfo(int operand) {
-        // 获取MethodInfo在常量池中的index
-        int i = (int) getDataMap().get(operand);
-        int nameAndTypeIndex = i & 0xff;
+    public InvokeDynamicInfo getInvokeDynamic(int index) {
+        checkIndex(index, JVM_CONSTANT_InvokeDynamic);
+
+        return (InvokeDynamicInfo) entries[index];
+    }
 
-        // 获取NameAndType的值
-        int data = (int) getDataMap().get(nameAndTypeIndex);
-        i = data & 0xFF;
+    public MethodHandleInfo getMethodHandle(int index) {
+        checkIndex(index, JVM_CONSTANT_MethodHandle);
 
-        return (String) getDataMap().get(i);
+        return (MethodHandleInfo) entries[index];
     }
 
     public int getBootMethodIndexByDynamicInfo(int operand) {
-        int data = (int) getDataMap().get(operand);
-        return data >> 16;
+        return getInvokeDynamic(operand).getBootstrapMethodAttrIndex();
     }
 
     public String getMethodNameByDynamicInfo(int operand) {
-        // 获取Methodinfo在常量池中的index
-        int i = (int) getDataMap().get(operand);
-        int nameAndTypeIndex = i & 0xff;
-
-        // 获取NameAndType的值
-        int data = (int) getDataMap().get(nameAndTypeIndex);
-        i = data >> 16;
-
-        return (String) getDataMap().get(i);
+        return getUtf8(getNameAndType(getInvokeDynamic(operand).getNameAndTypeIndex()).getNameIndex());
     }
 
     public String getDescriptorNameByDynamicInfo(int operand) {
-        // 获取Methodinfo在常量池中的index
-        int i = (int) getDataMap().get(operand);
-        int nameAndTypeIndex = i & 0xff;
-
-        // 获取NameAndType的值
-        int data = (int) getDataMap().get(nameAndTypeIndex);
-        i = data & 0xFF;
-
-        return (String) getDataMap().get(i);
+        return getUtf8(getNameAndType(getInvokeDynamic(operand).getNameAndTypeIndex()).getDescriptorIndex());
     }
 
-
     public String getClassNameByMethodHandleInfo(int operand) {
-        int i = (int) getDataMap().get(operand);
-        int methodrefInfoIndex = i & 0xFF;
-
-        return getClassNameByMethodInfo(methodrefInfoIndex);
+        return getMemberRef(getMethodHandle(operand).getReferenceIndex()).getClassName();
     }
 
     public String getMethodNameByMethodHandleInfo(int operand) {
-        int i = (int) getDataMap().get(operand);
-        int methodrefInfoIndex = i & 0xFF;
-
-        return getMethodNameByMethodInfo(methodrefInfoIndex);
+        return getMemberRef(getMethodHandle(operand).getReferenceIndex()).getName();
     }
 
     public String getDescriptorNameByMethodHandleInfo(int operand) {
-        int i = (int) getDataMap().get(operand);
-        int methodrefInfoIndex = i & 0xFF;
-
-        return getDescriptorNameByMethodInfo(methodrefInfoIndex);
+        return getMemberRef(getMethodHandle(operand).getReferenceIndex()).getDescriptor();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,57 @@
+package com.czh.jvm.hotspot.src.share.vm.oops;
+
+import com.czh.jvm.hotspot.src.share.vm.classfile.DescriptorStream2;
+import com.czh.jvm.hotspot.src.share.vm.memory.MetaspaceObj;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+
+/**
+ * 方法调用点的解析结果，对应hotspot的cpCache.hpp
+ *
+ * 同一个Methodref、InterfaceMethodref常量共用一项：
+ *  1、链接阶段：取出符号引用
+ *  2、第一次执行调用指令：解析方法描述符，找到调用目标，之后直接用
+ *      自定义的类            method
+ *      java体系、接口方法    hostMethod，构造方法是hostConstructor，实际调用的是bridge
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+public class ConstantPoolCacheEntry extends MetaspaceObj {
+
+    private MemberRef ref;
+
+    // 解析好的方法描述符，参数、返回值的类型
+    private DescriptorStream2 descriptor;
+
+    // 是否走桥接调用：java体系的方法、接口方法
+    private boolean host;
+
+    // 以下是运行时解析的结果，不写入共享存档
+    private transient MethodInfo method;
+
+    private transient Method hostMethod;
+
+    private transient Constructor<?> hostConstructor;
+
+    // hostMethod、hostConstructor转成的桥接，见JavaCallBridge
+    private transient MethodHandle bridge;
+
+    /**
+     * 调用目标是否已经找到
+     * 其他字段都在它之前赋值，读到true就能看到完整的解析结果
+     */
+    private transient volatile boolean resolved;
+
+    public ConstantPoolCacheEntry(MemberRef ref) {
+        this.ref = ref;
+    }
+
+    @Override
+    public String toString() {
+        return "ConstantPoolCacheEntry{" + ref + ", resolved=" + resolved + "}";
+    }
+}
@@ -1,9 +1,12 @@
 package com.czh.jvm.hotspot.src.share.vm.oops;
 
+import com.czh.jvm.hotspot.src.share.vm.memory.MetaspaceObj;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 
 @Data
-public class DescriptorInfo {
+@EqualsAndHashCode(callSuper = false)
+public class DescriptorInfo extends MetaspaceObj {
 
     /**
      * 是否完成解析并赋值
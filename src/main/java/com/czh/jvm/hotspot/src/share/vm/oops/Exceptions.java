@@ -1,6 +1,8 @@
 package com.czh.jvm.hotspot.src.share.vm.oops;
 
+import com.czh.jvm.hotspot.src.share.vm.memory.MetaspaceObj;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -9,7 +11,8 @@ import java.util.List;
  * 指出一个方法可能抛出的受检异常
  */
 @Data
-public class Exceptions {
+@EqualsAndHashCode(callSuper = false)
+public class Exceptions extends MetaspaceObj {
     private int attrNameIndex;
     private int attrLength;
     private int exceptionsNum;
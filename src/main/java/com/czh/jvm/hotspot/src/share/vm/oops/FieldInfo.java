@@ -1,9 +1,12 @@
 package com.czh.jvm.hotspot.src.share.vm.oops;
 
+import com.czh.jvm.hotspot.src.share.vm.memory.MetaspaceObj;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 
 @Data
-public class FieldInfo {
+@EqualsAndHashCode(callSuper = false)
+public class FieldInfo extends MetaspaceObj {
 
     private int accessFlags;
     private int nameIndex;
@@ -12,4 +15,11 @@ public class FieldInfo {
 
     private CodeAttributeInfo[] attributes;
 
+    private String name;
+    private String descriptor;
+
+    // 字段名、描述符的符号，查找字段时按引用比较
+    private Symbol nameSymbol;
+    private Symbol descriptorSymbol;
+
 }
\ No newline at end of file
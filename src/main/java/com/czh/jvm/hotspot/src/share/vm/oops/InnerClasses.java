@@ -1,7 +1,9 @@
 package com.czh.jvm.hotspot.src.share.vm.oops;
 
+import com.czh.jvm.hotspot.src.share.vm.memory.MetaspaceObj;
 import com.czh.jvm.hotspot.src.share.vm.utilities.AccessFlags;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -15,7 +17,8 @@ public class InnerClasses extends AttributeInfo {
     private List<Item> classes = new ArrayList<>();
 
     @Data
-    public class Item {
+    @EqualsAndHashCode(callSuper = false)
+    public class Item extends MetaspaceObj {
         private int interClassInfoIndex;
         private int outerClassInfoIndex;
         private int innerNameIndex;
@@ -1,9 +1,13 @@
 package com.czh.jvm.hotspot.src.share.vm.oops;
 
+import com.czh.jvm.hotspot.src.share.vm.classfile.ClassLoaderData;
+import com.czh.jvm.hotspot.src.share.vm.classfile.SymbolTable;
+import com.czh.jvm.hotspot.src.share.vm.utilities.BasicType;
 import lombok.Data;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -32,6 +36,26 @@ public class InstanceKlass extends Klass {
     private int attributeLength;
     private Map<String, AttributeInfo> attributeInfos = new HashMap<>();
 
+    // 方法名 => 同名的方法(重载)，解析完方法后建立。符号是唯一的，按引用比较
+    private Map<Symbol, List<MethodInfo>> methodTable;
+
+    // 字段名 => 同名的字段
+    private Map<Symbol, List<FieldInfo>> fieldTable;
+
+    // 加载该类的类加载器，解析该类引用的其他类时也用它
+    private transient ClassLoaderData classLoaderData;
+
+    // 以下在链接时设置，见ClassLoaderData.link。java体系的父类、接口不在虚拟机中加载，父类为null、接口不记录
+    private transient InstanceKlass superKlass;
+
+    private transient List<InstanceKlass> localInterfaces;
+
+    // 虚方法表，下标是MethodInfo.vtableIndex，见KlassVtable
+    private transient MethodInfo[] vtable;
+
+    // 接口方法表：实现的每个接口一项，见KlassItable
+    private transient KlassItable.OffsetEntry[] itable;
+
     public InstanceKlass() {
         constantPool = new ConstantPool();
 
@@ -42,6 +66,125 @@ public class InstanceKlass extends Klass {
         methods = new MethodInfo[methodLength];
     }
 
+    /**
+     * 建立方法、字段的查找表，按名称+描述符直接查到，不用逐个比较
+     */
+    public void initLookupTables() {
+        methodTable = new IdentityHashMap<>(methodLength);
+        for (MethodInfo method : methods) {
+            methodTable.computeIfAbsent(method.getNameSymbol(), k -> new ArrayList<>(1)).add(method);
+        }
+
+        fieldTable = new IdentityHashMap<>(fieldsLength);
+        for (FieldInfo field : fields) {
+            fieldTable.computeIfAbsent(field.getNameSymbol(), k -> new ArrayList<>(1)).add(field);
+        }
+    }
+
+    public MethodInfo findMethod(Symbol name, Symbol descriptor) {
+        List<MethodInfo> candidates = methodTable.get(name);
+        if (null == candidates) {
+            return null;
+        }
+
+        for (MethodInfo method : candidates) {
+            if (method.getDescriptorSymbol() == descriptor) {
+                return method;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * 在本类和父类中查找方法，对应hotspot的uncached_lookup_method
+     */
+    public MethodInfo lookupMethod(Symbol name, Symbol descriptor) {
+        for (InstanceKlass klass = this; null != klass; klass = klass.superKlass) {
+            MethodInfo method = klass.findMethod(name, descriptor);
+            if (null != method) {
+                return method;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * 在接口和它继承的接口中查找方法
+     */
+    public MethodInfo lookupInterfaceMethod(Symbol name, Symbol descriptor) {
+        MethodInfo method = findMethod(name, descriptor);
+        if (null != method) {
+            return method;
+        }
+
+        for (InstanceKlass iface : localInterfaces) {
+            method = iface.lookupInterfaceMethod(name, descriptor);
+            if (null != method) {
+                return method;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * 接口方法的实现，没有实现该接口时返回null
+     * @param index 接口方法的MethodInfo.vtableIndex
+     */
+    public MethodInfo itableMethod(InstanceKlass iface, int index) {
+        for (KlassItable.OffsetEntry entry : itable) {
+            if (entry.getInterfaceKlass() == iface) {
+                return entry.getMethods()[index];
+            }
+        }
+
+        return null;
+    }
+
+    public boolean isInterface() {
+        return (accessFlag & BasicType.JVM_ACC_INTERFACE) != 0;
+    }
+
+    public FieldInfo findField(Symbol name, Symbol descriptor) {
+        List<FieldInfo> candidates = fieldTable.get(name);
+        if (null == candidates) {
+            return null;
+        }
+
+        for (FieldInfo field : candidates) {
+            if (field.getDescriptorSymbol() == descriptor) {
+                return field;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * 按字符串查找，符号表中没有这个名字时一定找不到
+     */
+    public MethodInfo findMethod(String name, String descriptor) {
+        Symbol nameSymbol = SymbolTable.probe(name);
+        Symbol descriptorSymbol = SymbolTable.probe(descriptor);
+        if (null == nameSymbol || null == descriptorSymbol) {
+            return null;
+        }
+
+        return findMethod(nameSymbol, descriptorSymbol);
+    }
+
+    public FieldInfo findField(String name, String descriptor) {
+        Symbol nameSymbol = SymbolTable.probe(name);
+        Symbol descriptorSymbol = SymbolTable.probe(descriptor);
+        if (null == nameSymbol || null == descriptorSymbol) {
+            return null;
+        }
+
+        return findField(nameSymbol, descriptorSymbol);
+    }
+
     @Override
     public String toString() {
         return "InstanceKlass{ }";
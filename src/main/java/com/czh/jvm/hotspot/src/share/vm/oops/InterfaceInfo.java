@@ -1,9 +1,12 @@
 package com.czh.jvm.hotspot.src.share.vm.oops;
 
+import com.czh.jvm.hotspot.src.share.vm.memory.MetaspaceObj;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 
 @Data
-public class InterfaceInfo {
+@EqualsAndHashCode(callSuper = false)
+public class InterfaceInfo extends MetaspaceObj {
 
     private int constantPoolIndex;
 
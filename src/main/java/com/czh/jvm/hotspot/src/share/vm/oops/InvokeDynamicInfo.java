@@ -0,0 +1,24 @@
+package com.czh.jvm.hotspot.src.share.vm.oops;
+
+import com.czh.jvm.hotspot.src.share.vm.memory.MetaspaceObj;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 常量池项：CONSTANT_InvokeDynamic_info
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+public class InvokeDynamicInfo extends MetaspaceObj {
+
+    // 引导方法在BootstrapMethods属性中的下标
+    private int bootstrapMethodAttrIndex;
+
+    // NameAndType_info在常量池中的索引
+    private int nameAndTypeIndex;
+
+    public InvokeDynamicInfo(int bootstrapMethodAttrIndex, int nameAndTypeIndex) {
+        this.bootstrapMethodAttrIndex = bootstrapMethodAttrIndex;
+        this.nameAndTypeIndex = nameAndTypeIndex;
+    }
+}
@@ -1,4 +1,6 @@
 package com.czh.jvm.hotspot.src.share.vm.oops;
 
-public class Klass {
+import com.czh.jvm.hotspot.src.share.vm.memory.MetaspaceObj;
+
+public class Klass extends MetaspaceObj {
 }
\ No newline at end of file
@@ -0,0 +1,114 @@
+package com.czh.jvm.hotspot.src.share.vm.oops;
+
+import com.czh.jvm.hotspot.src.share.vm.memory.AllStatic;
+import com.czh.jvm.hotspot.src.share.vm.memory.ResourceObj;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 接口方法表，对应hotspot的klassVtable.hpp中的klassItable
+ *
+ * 类实现的每个接口(包括父类实现的、接口继承的)一项，记录接口的每个方法在本类中的实现
+ * 实现的接口一般很少，调用时逐项比较找到接口，再按接口方法的下标直接取出实现
+ * 接口方法没有实现时用接口自己的方法(默认方法，或者抽象方法)
+ */
+public class KlassItable extends AllStatic {
+
+    private static final OffsetEntry[] EMPTY = new OffsetEntry[0];
+
+    public static void initialize(InstanceKlass klass) {
+        if (klass.isInterface()) {
+            klass.setItable(EMPTY);
+            return;
+        }
+
+        List<InstanceKlass> interfaces = new ArrayList<>();
+        collectInterfaces(klass, interfaces);
+
+        OffsetEntry[] itable = new OffsetEntry[interfaces.size()];
+
+        for (int i = 0; i < itable.length; i++) {
+            InstanceKlass iface = interfaces.get(i);
+
+            itable[i] = new OffsetEntry(iface, implementations(klass, iface));
+        }
+
+        klass.setItable(itable);
+    }
+
+    /**
+     * 接口的每个方法在klass中的实现，下标是接口方法的vtableIndex
+     */
+    private static MethodInfo[] implementations(InstanceKlass klass, InstanceKlass iface) {
+        List<MethodInfo> methods = new ArrayList<>();
+
+        for (MethodInfo method : iface.getMethods()) {
+            if (-1 == method.getVtableIndex()) {
+                continue;
+            }
+
+            MethodInfo implementation = klass.lookupMethod(method.getNameSymbol(), method.getDescriptorSymbol());
+            if (null == implementation
+                    || implementation.getAccessFlags().isStatic()
+                    || implementation.getAccessFlags().isAbstract()) {
+                implementation = method;
+            }
+
+            methods.add(implementation);
+        }
+
+        return methods.toArray(new MethodInfo[0]);
+    }
+
+    /**
+     * 本类、父类实现的接口以及它们继承的接口，每个只记一次
+     */
+    private static void collectInterfaces(InstanceKlass klass, List<InstanceKlass> interfaces) {
+        for (InstanceKlass iface : klass.getLocalInterfaces()) {
+            if (!containsKlass(interfaces, iface)) {
+                interfaces.add(iface);
+
+                collectInterfaces(iface, interfaces);
+            }
+        }
+
+        if (null != klass.getSuperKlass()) {
+            collectInterfaces(klass.getSuperKlass(), interfaces);
+        }
+    }
+
+    /**
+     * 按引用比较，元数据对象的equals、hashCode会递归比较所有字段
+     */
+    private static boolean containsKlass(List<InstanceKlass> klasses, InstanceKlass klass) {
+        for (InstanceKlass k : klasses) {
+            if (k == klass) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * 一个接口及其方法的实现
+     */
+    public static class OffsetEntry extends ResourceObj {
+        private final InstanceKlass interfaceKlass;
+        private final MethodInfo[] methods;
+
+        public OffsetEntry(InstanceKlass interfaceKlass, MethodInfo[] methods) {
+            this.interfaceKlass = interfaceKlass;
+            this.methods = methods;
+        }
+
+        public InstanceKlass getInterfaceKlass() {
+            return interfaceKlass;
+        }
+
+        public MethodInfo[] getMethods() {
+            return methods;
+        }
+    }
+}
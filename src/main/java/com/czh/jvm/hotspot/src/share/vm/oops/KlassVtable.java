@@ -0,0 +1,109 @@
+package com.czh.jvm.hotspot.src.share.vm.oops;
+
+import com.czh.jvm.hotspot.src.share.vm.classfile.VmSymbols;
+import com.czh.jvm.hotspot.src.share.vm.memory.AllStatic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 虚方法表，对应hotspot的klassVtable.hpp
+ *
+ * 链接时建立：先复制父类的表，本类的方法重写了父类的就替换那一项，一个都没重写就追加到末尾
+ * 是否重写按JVMS 5.4.5：名称、描述符相同，且被重写的方法是public、protected，或者包内可见并且和本类在同一个运行时包中
+ * 不同包的类中同名的包内可见方法互不重写，各占一项
+ * 同一个方法在父类、子类的表中下标相同，调用点记下下标后，按接收者的类直接取出调用目标
+ * java体系的父类不在虚拟机中加载，它们的方法不在表中，见InterpreterRuntime.resolveVirtualCall
+ */
+public class KlassVtable extends AllStatic {
+
+    private static final MethodInfo[] EMPTY = new MethodInfo[0];
+
+    public static void initialize(InstanceKlass klass) {
+        // 接口没有虚方法表，方法按声明顺序编号，作为接口方法表中的下标，见KlassItable
+        if (klass.isInterface()) {
+            int index = 0;
+            for (MethodInfo method : klass.getMethods()) {
+                if (needsEntry(method)) {
+                    method.setVtableIndex(index++);
+                }
+            }
+
+            klass.setVtable(EMPTY);
+            return;
+        }
+
+        InstanceKlass superKlass = klass.getSuperKlass();
+
+        List<MethodInfo> vtable = new ArrayList<>(Arrays.asList(null == superKlass ? EMPTY : superKlass.getVtable()));
+
+        for (MethodInfo method : klass.getMethods()) {
+            if (!needsEntry(method)) {
+                continue;
+            }
+
+            int index = -1;
+
+            // 重写了的每一项都替换：不同包的父类中可能各有一个同名的包内可见方法
+            for (int i = 0; i < vtable.size(); i++) {
+                if (overrides(klass, method, vtable.get(i))) {
+                    vtable.set(i, method);
+
+                    if (-1 == index) {
+                        index = i;
+                    }
+                }
+            }
+
+            if (-1 == index) {
+                index = vtable.size();
+                vtable.add(method);
+            }
+
+            method.setVtableIndex(index);
+        }
+
+        klass.setVtable(vtable.toArray(EMPTY));
+    }
+
+    /**
+     * 静态方法、私有方法、构造方法不按接收者分派
+     */
+    private static boolean needsEntry(MethodInfo method) {
+        return !method.getAccessFlags().isStatic()
+                && !method.getAccessFlags().isPrivate()
+                && VmSymbols.OBJECT_INITIALIZER_NAME != method.getNameSymbol();
+    }
+
+    /**
+     * klass中的method是否重写了父类表中的entry
+     */
+    private static boolean overrides(InstanceKlass klass, MethodInfo method, MethodInfo entry) {
+        if (entry.getNameSymbol() != method.getNameSymbol() || entry.getDescriptorSymbol() != method.getDescriptorSymbol()) {
+            return false;
+        }
+
+        if (!entry.getAccessFlags().isPackagePrivate()) {
+            return true;
+        }
+
+        return isSamePackage(klass, entry.getBelongKlass());
+    }
+
+    /**
+     * 运行时包：包名相同，并且由同一个类加载器加载
+     */
+    private static boolean isSamePackage(InstanceKlass klass1, InstanceKlass klass2) {
+        return klass1.getClassLoaderData() == klass2.getClassLoaderData()
+                && packageName(klass1).equals(packageName(klass2));
+    }
+
+    private static String packageName(InstanceKlass klass) {
+        String name = klass.getConstantPool().getClassName(klass.getThisClass());
+
+        int index = name.lastIndexOf('/');
+
+        return -1 == index ? "" : name.substring(0, index);
+    }
+}
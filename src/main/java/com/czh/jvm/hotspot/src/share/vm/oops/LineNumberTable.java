@@ -1,6 +1,8 @@
 package com.czh.jvm.hotspot.src.share.vm.oops;
 
+import com.czh.jvm.hotspot.src.share.vm.memory.MetaspaceObj;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 
 @Data
 public class LineNumberTable extends AttributeInfo {
@@ -13,7 +15,8 @@ public class LineNumberTable extends AttributeInfo {
     }
 
     @Data
-    public class Item {
+    @EqualsAndHashCode(callSuper = false)
+    public class Item extends MetaspaceObj {
         private int startPc;
         private int lineNumber;
     }
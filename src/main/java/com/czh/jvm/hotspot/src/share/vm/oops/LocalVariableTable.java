@@ -1,6 +1,8 @@
 package com.czh.jvm.hotspot.src.share.vm.oops;
 
+import com.czh.jvm.hotspot.src.share.vm.memory.MetaspaceObj;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 
 @Data
 public class LocalVariableTable extends AttributeInfo {
@@ -13,7 +15,8 @@ public class LocalVariableTable extends AttributeInfo {
     }
 
     @Data
-    public class Item {
+    @EqualsAndHashCode(callSuper = false)
+    public class Item extends MetaspaceObj {
         private int startPc;
         private int length;
         private int nameIndex;
@@ -0,0 +1,42 @@
+package com.czh.jvm.hotspot.src.share.vm.oops;
+
+import com.czh.jvm.hotspot.src.share.vm.memory.MetaspaceObj;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 字段、方法的符号引用
+ * 由常量池中的Fieldref、Methodref、InterfaceMethodref解析而来
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+public class MemberRef extends MetaspaceObj {
+
+    // 所属类的全限定名，如java/io/PrintStream
+    private String className;
+
+    // 字段名或方法名
+    private Symbol nameSymbol;
+
+    // 字段或方法的描述符
+    private Symbol descriptorSymbol;
+
+    public MemberRef(String className, Symbol nameSymbol, Symbol descriptorSymbol) {
+        this.className = className;
+        this.nameSymbol = nameSymbol;
+        this.descriptorSymbol = descriptorSymbol;
+    }
+
+    public String getName() {
+        return nameSymbol.asString();
+    }
+
+    public String getDescriptor() {
+        return descriptorSymbol.asString();
+    }
+
+    @Override
+    public String toString() {
+        return className + ":" + nameSymbol + "#" + descriptorSymbol;
+    }
+}
@@ -0,0 +1,25 @@
+package com.czh.jvm.hotspot.src.share.vm.oops;
+
+import com.czh.jvm.hotspot.src.share.vm.memory.MetaspaceObj;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 常量池项：CONSTANT_Fieldref_info、CONSTANT_Methodref_info、CONSTANT_InterfaceMethodref_info
+ * 解析后得到MemberRef
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+public class MemberRefInfo extends MetaspaceObj {
+
+    // 所属类(Class_info)在常量池中的索引
+    private int classIndex;
+
+    // NameAndType_info在常量池中的索引
+    private int nameAndTypeIndex;
+
+    public MemberRefInfo(int classIndex, int nameAndTypeIndex) {
+        this.classIndex = classIndex;
+        this.nameAndTypeIndex = nameAndTypeIndex;
+    }
+}
@@ -0,0 +1,54 @@
+package com.czh.jvm.hotspot.src.share.vm.oops;
+
+import com.czh.jvm.hotspot.src.share.vm.interpreter.InvocationCounter;
+import com.czh.jvm.hotspot.src.share.vm.memory.MetaspaceObj;
+
+/**
+ * 方法的运行时计数，对应hotspot的methodCounters.hpp
+ *
+ * 第一次解释执行时才创建，没有执行过的方法不占空间，见MethodInfo.methodCounters
+ */
+public class MethodCounters extends MetaspaceObj {
+
+    // 调用次数
+    private final InvocationCounter invocationCounter = new InvocationCounter();
+
+    // 方法中所有循环回边的执行次数
+    private final InvocationCounter backedgeCounter = new InvocationCounter();
+
+    // 升级到下一层的阈值，由CompilationPolicy按所在层级设置，解释器计数后只和它们比较。不再升级时为Integer.MAX_VALUE
+    private int invocationLimit;
+    private int backedgeLimit;
+
+    // 回边次数达到它后编译栈上替换的版本，由CompilationPolicy设置，和所在层级无关
+    private int osrLimit;
+
+    public InvocationCounter getInvocationCounter() {
+        return invocationCounter;
+    }
+
+    public InvocationCounter getBackedgeCounter() {
+        return backedgeCounter;
+    }
+
+    public int getInvocationLimit() {
+        return invocationLimit;
+    }
+
+    public int getBackedgeLimit() {
+        return backedgeLimit;
+    }
+
+    public int getOsrLimit() {
+        return osrLimit;
+    }
+
+    public void setOsrLimit(int osrLimit) {
+        this.osrLimit = osrLimit;
+    }
+
+    public void setLimits(int invocationLimit, int backedgeLimit) {
+        this.invocationLimit = invocationLimit;
+        this.backedgeLimit = backedgeLimit;
+    }
+}
@@ -0,0 +1,24 @@
+package com.czh.jvm.hotspot.src.share.vm.oops;
+
+import com.czh.jvm.hotspot.src.share.vm.memory.MetaspaceObj;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 常量池项：CONSTANT_MethodHandle_info
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+public class MethodHandleInfo extends MetaspaceObj {
+
+    // 方法句柄的类型，如REF_invokeStatic
+    private int referenceKind;
+
+    // 指向的Fieldref、Methodref或InterfaceMethodref在常量池中的索引
+    private int referenceIndex;
+
+    public MethodHandleInfo(int referenceKind, int referenceIndex) {
+        this.referenceKind = referenceKind;
+        this.referenceIndex = referenceIndex;
+    }
+}
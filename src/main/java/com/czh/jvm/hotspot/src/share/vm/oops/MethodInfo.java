@@ -1,11 +1,18 @@
 package com.czh.jvm.hotspot.src.share.vm.oops;
 
+import com.czh.jvm.hotspot.src.share.vm.classfile.ClassFileParser;
 import com.czh.jvm.hotspot.src.share.vm.classfile.DescriptorStream2;
+import com.czh.jvm.hotspot.src.share.vm.code.NMethod;
+import com.czh.jvm.hotspot.src.share.vm.memory.MetaspaceObj;
 import com.czh.jvm.hotspot.src.share.vm.utilities.AccessFlags;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.nio.ByteBuffer;
 
 @Data
-public class MethodInfo {
+@EqualsAndHashCode(callSuper = false)
+public class MethodInfo extends MetaspaceObj {
 
     private InstanceKlass belongKlass;
 
@@ -21,10 +28,97 @@ public class MethodInfo {
     private String methodName;
     private DescriptorStream2 descriptor;
 
+    // 方法名、描述符的符号，查找方法时按引用比较
+    private Symbol nameSymbol;
+    private Symbol descriptorSymbol;
+
+    // 在虚方法表中的下标，接口方法是在接口方法表中的下标，见KlassVtable。静态、私有方法和构造方法为-1
+    private int vtableIndex = -1;
+
+    // 延迟解析：Code属性所在的类文件及其位置，解析完后classFile置空、codeOffset置为-1
+    private transient ByteBuffer classFile;
+    private volatile int codeOffset = -1;
+
+    // 以下是运行时的执行、编译状态，不写入共享存档，见CompilationPolicy
+    // 调用次数、回边次数，第一次用到时创建。创建时已经初始化好的只有final字段，不用volatile也能安全发布
+    private transient MethodCounters methodCounters;
+
+    // 当前所在的层级：解释执行、快速指令、编译执行
+    private transient int compLevel;
+
+    // 编译好的方法，有了之后解释器直接调用它
+    private transient volatile NMethod nmethod;
+
+    // 用到了编译器不支持的指令等，不再尝试编译
+    private transient boolean notCompilable;
+
+    // 因为被调用的方法还没编译好而编译失败的次数，用完重试次数后不再尝试编译，见CompileBroker
+    private transient int compileRetries;
+
+    // 栈上替换的版本，按循环入口串成链表，见NMethod.getOsrLink
+    private transient volatile NMethod osrNmethods;
+
+    // 不再尝试编译栈上替换的版本
+    private transient boolean notOsrCompilable;
+
+    // 栈上替换的版本因为被调用的方法还没编译好而编译失败的次数
+    private transient int osrCompileRetries;
+
     public void initAttributeContainer() {
         attributes = new CodeAttributeInfo[attributesCount];
     }
 
+    /**
+     * 计数器，没有时创建
+     */
+    public MethodCounters methodCounters() {
+        MethodCounters counters = methodCounters;
+        if (null == counters) {
+            synchronized (this) {
+                if (null == methodCounters) {
+                    methodCounters = new MethodCounters();
+                }
+
+                counters = methodCounters;
+            }
+        }
+
+        return counters;
+    }
+
+    /**
+     * 查找从某个循环入口开始的栈上替换版本
+     * @param entry 循环入口的指令下标
+     */
+    public NMethod lookupOsrNmethod(int entry) {
+        for (NMethod nm = osrNmethods; null != nm; nm = nm.getOsrLink()) {
+            if (nm.getOsrEntry() == entry) {
+                return nm;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Code属性，没有时为null(抽象方法，或者只有Exceptions属性)
+     * 延迟解析时第一次调用才解析，见Globals.LazyMethodParsing
+     */
+    public CodeAttributeInfo getCodeAttribute() {
+        if (-1 != codeOffset) {
+            synchronized (this) {
+                if (-1 != codeOffset) {
+                    ClassFileParser.parseMethodCode(this, classFile, codeOffset);
+
+                    classFile = null;
+                    codeOffset = -1;
+                }
+            }
+        }
+
+        return 0 == attributes.length ? null : attributes[0];
+    }
+
     @Override
     public String toString() {
         return "MethodInfo{ }";
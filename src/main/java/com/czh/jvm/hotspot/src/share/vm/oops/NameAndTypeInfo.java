@@ -0,0 +1,24 @@
+package com.czh.jvm.hotspot.src.share.vm.oops;
+
+import com.czh.jvm.hotspot.src.share.vm.memory.MetaspaceObj;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 常量池项：CONSTANT_NameAndType_info
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+public class NameAndTypeInfo extends MetaspaceObj {
+
+    // 名称在常量池中的索引
+    private int nameIndex;
+
+    // 描述符在常量池中的索引
+    private int descriptorIndex;
+
+    public NameAndTypeInfo(int nameIndex, int descriptorIndex) {
+        this.nameIndex = nameIndex;
+        this.descriptorIndex = descriptorIndex;
+    }
+}
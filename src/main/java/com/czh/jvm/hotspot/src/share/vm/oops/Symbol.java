@@ -0,0 +1,157 @@
+package com.czh.jvm.hotspot.src.share.vm.oops;
+
+import com.czh.jvm.hotspot.src.share.vm.classfile.SymbolTable;
+import com.czh.jvm.hotspot.src.share.vm.memory.MetaspaceObj;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 符号，对应hotspot的symbol.hpp
+ *
+ * 常量池中的Utf8常量(类名、方法名、描述符等)，按原始字节存储，由SymbolTable统一创建
+ * 内容相同的符号全局只有一个，可以直接用==比较
+ * 类文件中的字符串是modified UTF-8编码的，第一次用到时才解码成String，之后一直用这一个
+ */
+public class Symbol extends MetaspaceObj {
+
+    private final byte[] bytes;
+
+    private final int hash;
+
+    private transient volatile String string;
+
+    public Symbol(byte[] bytes) {
+        this.bytes = bytes;
+        this.hash = Arrays.hashCode(bytes);
+    }
+
+    public int getLength() {
+        return bytes.length;
+    }
+
+    public byte byteAt(int index) {
+        return bytes[index];
+    }
+
+    public String asString() {
+        String result = string;
+        if (null == result) {
+            result = string = decode(bytes);
+        }
+
+        return result;
+    }
+
+    /**
+     * 按内容比较，只在SymbolTable中用到。拿到的符号都是唯一的，其他地方直接用==
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        return o instanceof Symbol && hash == ((Symbol) o).hash && Arrays.equals(bytes, ((Symbol) o).bytes);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return asString();
+    }
+
+    /**
+     * 从共享存档还原时换成符号表中的那一个，保证仍然唯一
+     */
+    private Object readResolve() {
+        return SymbolTable.lookup(bytes);
+    }
+
+    /**
+     * modified UTF-8解码：
+     *  1、0x01~0x7F占一个字节
+     *  2、0x00、0x80~0x7FF占两个字节
+     *  3、0x800~0xFFFF占三个字节，增补字符拆成两个代理字符分别编码
+     */
+    private static String decode(byte[] bytes) {
+        char[] chars = null;
+        int count = 0;
+
+        for (int i = 0; i < bytes.length; ) {
+            int b = bytes[i] & 0xFF;
+
+            if (b < 0x80) {
+                if (null != chars) {
+                    chars[count] = (char) b;
+                }
+
+                count++;
+                i++;
+
+                continue;
+            }
+
+            // 遇到第一个非ASCII字符才分配，前面的都是ASCII
+            if (null == chars) {
+                chars = new char[bytes.length];
+                for (int j = 0; j < count; j++) {
+                    chars[j] = (char) bytes[j];
+                }
+            }
+
+            if ((b & 0xE0) == 0xC0) {
+                chars[count++] = (char) ((b & 0x1F) << 6 | (bytes[i + 1] & 0x3F));
+                i += 2;
+            } else if ((b & 0xF0) == 0xE0) {
+                chars[count++] = (char) ((b & 0x0F) << 12 | (bytes[i + 1] & 0x3F) << 6 | (bytes[i + 2] & 0x3F));
+                i += 3;
+            } else {
+                throw new Error("非法的modified UTF-8编码，位置: " + i);
+            }
+        }
+
+        // 全是ASCII
+        if (null == chars) {
+            return new String(bytes, StandardCharsets.ISO_8859_1);
+        }
+
+        return new String(chars, 0, count);
+    }
+
+    /**
+     * modified UTF-8编码，和decode相反
+     */
+    public static byte[] encode(String s) {
+        int length = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+
+            length += (c >= 0x01 && c < 0x80) ? 1 : (c < 0x800 ? 2 : 3);
+        }
+
+        byte[] bytes = new byte[length];
+
+        int index = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+
+            if (c >= 0x01 && c < 0x80) {
+                bytes[index++] = (byte) c;
+            } else if (c < 0x800) {
+                bytes[index++] = (byte) (0xC0 | c >> 6);
+                bytes[index++] = (byte) (0x80 | c & 0x3F);
+            } else {
+                bytes[index++] = (byte) (0xE0 | c >> 12);
+                bytes[index++] = (byte) (0x80 | c >> 6 & 0x3F);
+                bytes[index++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+
+        return bytes;
+    }
+}
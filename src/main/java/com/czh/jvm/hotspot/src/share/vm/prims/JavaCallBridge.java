@@ -0,0 +1,205 @@
+package com.czh.jvm.hotspot.src.share.vm.prims;
+
+import com.czh.jvm.hotspot.src.share.vm.memory.AllStatic;
+import com.czh.jvm.hotspot.src.share.vm.runtime.StackValueCollection;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * 调用java体系方法的桥接
+ *
+ * 把反射得到的Method、Constructor转成MethodHandle，再按方法签名组合成直接读写操作数栈的形式：
+ *  方法      (StackValueCollection)void     从栈上读参数，调用，弹出参数，压入返回值
+ *  构造方法  (StackValueCollection)Object   从栈上读参数，创建对象，栈由调用者处理
+ *
+ * 每个参数用对应类型的peekXxx读取，int、long等基本类型一路按原类型传递，不装箱成Object[]
+ * 解释器用invokeExact调用，调用点的类型固定，JIT可以把整条调用链内联
+ */
+public class JavaCallBridge extends AllStatic {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    public static final MethodType METHOD_TYPE = MethodType.methodType(void.class, StackValueCollection.class);
+
+    public static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class, StackValueCollection.class);
+
+    private static final MethodHandle PEEK_INT;
+    private static final MethodHandle PEEK_FLOAT;
+    private static final MethodHandle PEEK_LONG;
+    private static final MethodHandle PEEK_DOUBLE;
+    private static final MethodHandle PEEK_OBJECT;
+
+    private static final MethodHandle RETURN_VOID;
+    private static final MethodHandle RETURN_INT;
+    private static final MethodHandle RETURN_FLOAT;
+    private static final MethodHandle RETURN_LONG;
+    private static final MethodHandle RETURN_DOUBLE;
+    private static final MethodHandle RETURN_OBJECT;
+
+    static {
+        try {
+            PEEK_INT = peek("peekInt", int.class);
+            PEEK_FLOAT = peek("peekFloat", float.class);
+            PEEK_LONG = peek("peekLong", long.class);
+            PEEK_DOUBLE = peek("peekDouble", double.class);
+            PEEK_OBJECT = peek("peekObject", Object.class);
+
+            RETURN_VOID = LOOKUP.findVirtual(StackValueCollection.class, "drop",
+                    MethodType.methodType(void.class, int.class));
+            RETURN_INT = doReturn(int.class);
+            RETURN_FLOAT = doReturn(float.class);
+            RETURN_LONG = doReturn(long.class);
+            RETURN_DOUBLE = doReturn(double.class);
+            RETURN_OBJECT = doReturn(Object.class);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new Error(e);
+        }
+    }
+
+    private static MethodHandle peek(String name, Class<?> type) throws NoSuchMethodException, IllegalAccessException {
+        return LOOKUP.findVirtual(StackValueCollection.class, name, MethodType.methodType(type, int.class));
+    }
+
+    private static MethodHandle doReturn(Class<?> type) throws NoSuchMethodException, IllegalAccessException {
+        return LOOKUP.findStatic(JavaCallBridge.class, "doReturn",
+                MethodType.methodType(void.class, StackValueCollection.class, int.class, type));
+    }
+
+    /**
+     * 生成调用方法的桥接，类型为METHOD_TYPE
+     */
+    public static MethodHandle bind(Method method) throws IllegalAccessException {
+        MethodHandle target = LOOKUP.unreflect(method);
+
+        int slotSize = slotSize(target.type());
+
+        // (StackValueCollection)R
+        MethodHandle invoker = readArguments(target);
+
+        // 返回：弹出参数(非静态方法还有对象引用)，压入返回值
+        Class<?> returnType = target.type().returnType();
+        if (void.class == returnType) {
+            // 先执行invoker，再执行drop
+            return MethodHandles.foldArguments(MethodHandles.insertArguments(RETURN_VOID, 1, slotSize), invoker);
+        }
+
+        MethodHandle pusher = MethodHandles.insertArguments(returnHandle(returnType), 1, slotSize);
+        pusher = MethodHandles.explicitCastArguments(pusher, MethodType.methodType(void.class, StackValueCollection.class, returnType));
+
+        // (StackValueCollection, StackValueCollection)void => (StackValueCollection)void
+        MethodHandle bridge = MethodHandles.collectArguments(pusher, 1, invoker);
+        return MethodHandles.permuteArguments(bridge, METHOD_TYPE, 0, 0);
+    }
+
+    /**
+     * 生成调用构造方法的桥接，类型为CONSTRUCTOR_TYPE
+     */
+    public static MethodHandle bind(Constructor<?> constructor) throws IllegalAccessException {
+        MethodHandle target = LOOKUP.unreflectConstructor(constructor);
+
+        return readArguments(target).asType(CONSTRUCTOR_TYPE);
+    }
+
+    /**
+     * 把target的每个参数换成从操作数栈读取：(P1, P2, ..., Pn)R => (StackValueCollection)R
+     * 最后一个参数在栈顶，非静态方法的第一个参数是对象引用
+     */
+    private static MethodHandle readArguments(MethodHandle target) {
+        MethodType type = target.type();
+        int count = type.parameterCount();
+
+        if (0 == count) {
+            return MethodHandles.dropArguments(target, 0, StackValueCollection.class);
+        }
+
+        MethodHandle[] readers = new MethodHandle[count];
+
+        int offset = 0;
+        for (int i = count - 1; i >= 0; i--) {
+            Class<?> paramType = type.parameterType(i);
+
+            offset += slotSize(paramType);
+
+            MethodHandle reader = MethodHandles.insertArguments(peekHandle(paramType), 1, offset);
+            readers[i] = MethodHandles.explicitCastArguments(reader, MethodType.methodType(paramType, StackValueCollection.class));
+        }
+
+        // 所有参数都来自同一个操作数栈
+        MethodHandle invoker = MethodHandles.filterArguments(target, 0, readers);
+        return MethodHandles.permuteArguments(invoker, MethodType.methodType(type.returnType(), StackValueCollection.class), new int[count]);
+    }
+
+    /**
+     * boolean、byte、short、char在操作数栈中都是int
+     */
+    private static MethodHandle peekHandle(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return PEEK_OBJECT;
+        } else if (long.class == type) {
+            return PEEK_LONG;
+        } else if (double.class == type) {
+            return PEEK_DOUBLE;
+        } else if (float.class == type) {
+            return PEEK_FLOAT;
+        }
+
+        return PEEK_INT;
+    }
+
+    private static MethodHandle returnHandle(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return RETURN_OBJECT;
+        } else if (long.class == type) {
+            return RETURN_LONG;
+        } else if (double.class == type) {
+            return RETURN_DOUBLE;
+        } else if (float.class == type) {
+            return RETURN_FLOAT;
+        }
+
+        return RETURN_INT;
+    }
+
+    private static int slotSize(Class<?> type) {
+        return (long.class == type || double.class == type) ? 2 : 1;
+    }
+
+    private static int slotSize(MethodType type) {
+        int size = 0;
+        for (Class<?> paramType : type.parameterArray()) {
+            size += slotSize(paramType);
+        }
+
+        return size;
+    }
+
+    private static void doReturn(StackValueCollection stack, int slotSize, int val) {
+        stack.drop(slotSize);
+        stack.pushInt(val);
+    }
+
+    private static void doReturn(StackValueCollection stack, int slotSize, float val) {
+        stack.drop(slotSize);
+        stack.pushFloat(val);
+    }
+
+    private static void doReturn(StackValueCollection stack, int slotSize, long val) {
+        stack.drop(slotSize);
+        stack.pushLong(val);
+    }
+
+    private static void doReturn(StackValueCollection stack, int slotSize, double val) {
+        stack.drop(slotSize);
+        stack.pushDouble(val);
+    }
+
+    private static void doReturn(StackValueCollection stack, int slotSize, Object val) {
+        stack.drop(slotSize);
+        stack.pushObject(val);
+    }
+}
@@ -2,9 +2,11 @@ package com.czh.jvm.hotspot.src.share.vm.prims;
 
 
 import com.czh.jvm.hotspot.src.share.vm.interpreter.BytecodeInterpreter;
+import com.czh.jvm.hotspot.src.share.vm.interpreter.Rewriter;
 import com.czh.jvm.hotspot.src.share.vm.oops.CodeAttributeInfo;
 import com.czh.jvm.hotspot.src.share.vm.oops.InstanceKlass;
 import com.czh.jvm.hotspot.src.share.vm.oops.MethodInfo;
+import com.czh.jvm.hotspot.src.share.vm.oops.Symbol;
 import com.czh.jvm.hotspot.src.share.vm.runtime.JavaThread;
 import com.czh.jvm.hotspot.src.share.vm.runtime.JavaVFrame;
 import com.czh.jvm.hotspot.src.share.vm.runtime.Threads;
@@ -24,19 +26,26 @@ public class JavaNativeInterface {
 
 
     public static MethodInfo getMethodID(InstanceKlass klass, String name, String descriptorName) {
-        MethodInfo[] methods = klass.getMethods();
-        for (MethodInfo method:methods) {
-            String tmpName = (String) klass.getConstantPool().getDataMap().get(method.getNameIndex());
-            String tmpDescriptor = (String) klass.getConstantPool().getDataMap().get(method.getDescriptorIndex());
+        MethodInfo method = klass.findMethod(name, descriptorName);
+        if (null != method) {
+            return method;
+        }
 
-            if (tmpName.equals(name) && tmpDescriptor.equals(descriptorName)) {
-                logger.info("找到了方法: " + name + "#" + descriptorName);
+        logger.error("没有找到方法: " + name + "#" + descriptorName);
 
-                return method;
-            }
+        return null;
+    }
+
+    /**
+     * 按符号查找，方法调用点解析时用，不用比较字符串
+     */
+    public static MethodInfo getMethodID(InstanceKlass klass, Symbol name, Symbol descriptor) {
+        MethodInfo method = klass.findMethod(name, descriptor);
+        if (null != method) {
+            return method;
         }
 
-        logger.error("没有找到方法: " + name + "#" + descriptorName);
+        logger.error("没有找到方法: " + name + "#" + descriptor);
 
         return null;
     }
@@ -52,17 +61,20 @@ public class JavaNativeInterface {
             throw new Error("只能调用静态方法");
         }
 
-        CodeAttributeInfo codeAttributeInfo = method.getAttributes()[0];
+        CodeAttributeInfo codeAttributeInfo = method.getCodeAttribute();
+
+        // 第一次执行时预解码、校验，创建栈帧时要知道是否通过了校验
+        if (null == codeAttributeInfo.getInstructions()) {
+            Rewriter.rewrite(method);
+        }
 
         // 创建栈帧
-        JavaVFrame frame = new JavaVFrame(codeAttributeInfo.getMaxLocals(), method);
+        JavaVFrame frame = new JavaVFrame(codeAttributeInfo.getMaxLocals(), codeAttributeInfo.getMaxStack(), method);
 
         thread.getStack().push(frame);
 
-        logger.info("第 " + thread.getStack().size() + " 个栈帧");
-
         // 执行任务交给字节码解释器
-        BytecodeInterpreter.run(thread, method);
+        BytecodeInterpreter.run(thread);
     }
 
     /**
@@ -84,54 +96,42 @@ public class JavaNativeInterface {
              *  判断是为了过滤main方法
              */
             if (0 != thread.getStack().size()) {
-                logger.info("\t 从上一个栈帧取参数值");
-
                 prevFrame = (JavaVFrame) thread.getStack().peek();
             }
-        } else {
-            logger.info("\t 方法 [ " + method.getMethodName() + " ] 没有参数");
         }
 
-        CodeAttributeInfo codeAttributeInfo = method.getAttributes()[0];
+        CodeAttributeInfo codeAttributeInfo = method.getCodeAttribute();
+
+        // 第一次执行时预解码、校验，创建栈帧时要知道是否通过了校验
+        if (null == codeAttributeInfo.getInstructions()) {
+            Rewriter.rewrite(method);
+        }
 
         // 创建栈帧
-        JavaVFrame frame = new JavaVFrame(codeAttributeInfo.getMaxLocals(), method);
+        JavaVFrame frame = new JavaVFrame(codeAttributeInfo.getMaxLocals(), codeAttributeInfo.getMaxStack(), method);
 
         if (null != prevFrame) {
             /**
+             * 实参按槽位原样搬到局部变量表
              * 如果是静态方法，从0开始
-             *      如果是long、double，占用两个单元
-             *      其他都占用一个单元
-             * 如果是非静态方法，从1开始。0存放的是this
-             *      如果是long、double，占用两个单元
-             *      其他都占用一个单元
+             * 如果是非静态方法，0存放的是this，参数从1开始
+             * long、double占用两个槽位
+             *
+             * | 参数 |
+             * ————————
+             * | 当前对象 | 给this赋值用
              */
-            if (method.getAccessFlags().isStatic()) {
-                for (int i = 0; i < method.getDescriptor().getMethodParamsSize(); i++) {
-                    frame.getLocals().add(i, prevFrame.getStack().pop());
-                }
-            } else {
-                /**
-                 * 注意这里的顺序，如果是调用有参数的方法，压栈顺序三参数在上面
-                 *
-                 * | 参数 |
-                 * ————————
-                 * | 当前对象 | 给this赋值用
-                 */
-                for (int i = method.getDescriptor().getMethodParamsSize() - 1; i >= 0; i--) {
-                    frame.getLocals().add(i, prevFrame.getStack().pop());
-                }
-
-                // 给this赋值
-                frame.getLocals().add(0, prevFrame.getStack().pop());
+            int slotSize = method.getDescriptor().getMethodParamsSlotSize();
+            if (!method.getAccessFlags().isStatic()) {
+                slotSize++;
             }
+
+            frame.getLocals().transferFrom(prevFrame.getStack(), slotSize, method);
         }
 
         thread.getStack().push(frame);
 
-        logger.info("第 " + thread.getStack().size() + " 个栈帧");
-
         // 执行任务交给字节码解释器
-        BytecodeInterpreter.run(thread, method);
+        BytecodeInterpreter.run(thread);
     }
 }
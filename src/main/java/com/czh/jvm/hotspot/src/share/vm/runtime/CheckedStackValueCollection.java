@@ -0,0 +1,233 @@
+package com.czh.jvm.hotspot.src.share.vm.runtime;
+
+import com.czh.jvm.hotspot.src.share.vm.classfile.Verifier;
+import com.czh.jvm.hotspot.src.share.vm.oops.ArrayOop;
+import com.czh.jvm.hotspot.src.share.vm.oops.MethodInfo;
+import com.czh.jvm.hotspot.src.share.vm.utilities.BasicType;
+
+/**
+ * 记录、检查类型的操作数栈、局部变量表，给没有通过字节码校验的方法用，见JavaVFrame
+ *
+ * tags记录每个槽位的数据类型，long、double高位的槽位类型记为T_VOID
+ * 读取时类型不匹配直接报错，和通过了校验的方法在链接时报的错对应，见Verifier
+ */
+public class CheckedStackValueCollection extends StackValueCollection {
+
+    private final int[] tags;
+
+    public CheckedStackValueCollection(int size) {
+        super(size);
+
+        tags = new int[size];
+    }
+
+    // ==================== 操作数栈 ====================
+
+    @Override
+    public void pushInt(int val) {
+        tags[top] = BasicType.T_INT;
+        super.pushInt(val);
+    }
+
+    @Override
+    public int popInt() {
+        check(top - 1, BasicType.T_INT);
+
+        return super.popInt();
+    }
+
+    @Override
+    public void pushFloat(float val) {
+        tags[top] = BasicType.T_FLOAT;
+        super.pushFloat(val);
+    }
+
+    @Override
+    public float popFloat() {
+        check(top - 1, BasicType.T_FLOAT);
+
+        return super.popFloat();
+    }
+
+    @Override
+    public void pushLong(long val) {
+        tag2(top, BasicType.T_LONG);
+        super.pushLong(val);
+    }
+
+    @Override
+    public long popLong() {
+        check(top - 2, BasicType.T_LONG);
+
+        return super.popLong();
+    }
+
+    @Override
+    public void pushDouble(double val) {
+        tag2(top, BasicType.T_DOUBLE);
+        super.pushDouble(val);
+    }
+
+    @Override
+    public double popDouble() {
+        check(top - 2, BasicType.T_DOUBLE);
+
+        return super.popDouble();
+    }
+
+    @Override
+    public void pushObject(Object val) {
+        tags[top] = BasicType.T_OBJECT;
+        super.pushObject(val);
+    }
+
+    @Override
+    public Object popObject() {
+        check(top - 1, BasicType.T_OBJECT);
+
+        return super.popObject();
+    }
+
+    @Override
+    public ArrayOop popArray() {
+        Object o = popObject();
+
+        if (!(o instanceof ArrayOop)) {
+            throw new Error("类型检查不通过");
+        }
+
+        return (ArrayOop) o;
+    }
+
+    @Override
+    public Object peekObject() {
+        check(top - 1, BasicType.T_OBJECT);
+
+        return super.peekObject();
+    }
+
+    @Override
+    public void setTopObject(Object val) {
+        check(top - 1, BasicType.T_OBJECT);
+
+        super.setTopObject(val);
+    }
+
+    @Override
+    public void dup(int n) {
+        System.arraycopy(tags, top - n, tags, top, n);
+
+        super.dup(n);
+    }
+
+    // ==================== 局部变量表 ====================
+
+    @Override
+    public int getInt(int index) {
+        check(index, BasicType.T_INT);
+
+        return super.getInt(index);
+    }
+
+    @Override
+    public void setInt(int index, int val) {
+        tags[index] = BasicType.T_INT;
+        super.setInt(index, val);
+    }
+
+    @Override
+    public float getFloat(int index) {
+        check(index, BasicType.T_FLOAT);
+
+        return super.getFloat(index);
+    }
+
+    @Override
+    public void setFloat(int index, float val) {
+        tags[index] = BasicType.T_FLOAT;
+        super.setFloat(index, val);
+    }
+
+    @Override
+    public long getLong(int index) {
+        check(index, BasicType.T_LONG);
+
+        return super.getLong(index);
+    }
+
+    @Override
+    public void setLong(int index, long val) {
+        tag2(index, BasicType.T_LONG);
+        super.setLong(index, val);
+    }
+
+    @Override
+    public double getDouble(int index) {
+        check(index, BasicType.T_DOUBLE);
+
+        return super.getDouble(index);
+    }
+
+    @Override
+    public void setDouble(int index, double val) {
+        tag2(index, BasicType.T_DOUBLE);
+        super.setDouble(index, val);
+    }
+
+    @Override
+    public Object getObject(int index) {
+        check(index, BasicType.T_OBJECT);
+
+        return super.getObject(index);
+    }
+
+    @Override
+    public void setObject(int index, Object val) {
+        tags[index] = BasicType.T_OBJECT;
+        super.setObject(index, val);
+    }
+
+    /**
+     * 调用者也记录类型时原样搬过来，否则按被调用者的描述符补上
+     */
+    @Override
+    public void transferFrom(StackValueCollection stack, int n, MethodInfo callee) {
+        if (stack instanceof CheckedStackValueCollection) {
+            System.arraycopy(((CheckedStackValueCollection) stack).tags, stack.top - n, tags, 0, n);
+        } else {
+            System.arraycopy(Verifier.parameterTypes(callee), 0, tags, 0, n);
+        }
+
+        super.transferFrom(stack, n, callee);
+    }
+
+    /**
+     * 被调用者也记录类型时原样搬过来，否则按返回值的类型补上
+     */
+    @Override
+    public void pushFrom(StackValueCollection stack, int n, int type) {
+        if (stack instanceof CheckedStackValueCollection) {
+            System.arraycopy(((CheckedStackValueCollection) stack).tags, stack.top - n, tags, top, n);
+        } else if (1 == n) {
+            tags[top] = type;
+        } else {
+            tag2(top, type);
+        }
+
+        super.pushFrom(stack, n, type);
+    }
+
+    private void check(int index, int type) {
+        if (tags[index] != type) {
+            throw new Error("不匹配的数据类型");
+        }
+    }
+
+    /**
+     * long、double：高位的槽位记为T_VOID
+     */
+    private void tag2(int index, int type) {
+        tags[index] = type;
+        tags[index + 1] = BasicType.T_VOID;
+    }
+}
@@ -0,0 +1,270 @@
+package com.czh.jvm.hotspot.src.share.vm.runtime;
+
+import com.czh.jvm.hotspot.src.share.vm.code.NMethod;
+import com.czh.jvm.hotspot.src.share.vm.compiler.CompileBroker;
+import com.czh.jvm.hotspot.src.share.vm.interpreter.Rewriter;
+import com.czh.jvm.hotspot.src.share.vm.memory.ResourceObj;
+import com.czh.jvm.hotspot.src.share.vm.oops.MethodCounters;
+import com.czh.jvm.hotspot.src.share.vm.oops.MethodInfo;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 分层执行策略，对应hotspot的compilationPolicy.hpp(分层的部分参考tieredThresholdPolicy.hpp)
+ *
+ * 方法按冷热分三层：
+ *  COMP_LEVEL_NONE       解释执行预解码的指令，需要解析的指令每次都重新解析
+ *  COMP_LEVEL_QUICKENED  合并超级指令，需要解析的指令执行后改写成_fast指令，见Rewriter.rewriteFrequentPairs、TemplateTable.quicken
+ *  COMP_LEVEL_COMPILED   编译成宿主JVM的字节码，见CompileBroker
+ * 解释器调用方法、循环往回跳时通知策略，调用次数或回边次数达到当前层级的阈值后升一级
+ * 解释执行中的循环回边次数达到Tier2BackedgeThreshold，不管方法在哪一层，都只编译这个循环，栈上替换，见backedgeEvent
+ * 阈值在启动参数中配置，见Globals.Tier1InvocationThreshold等
+ */
+public class CompilationPolicy extends ResourceObj {
+
+    public static final int COMP_LEVEL_NONE = 0;
+    public static final int COMP_LEVEL_QUICKENED = 1;
+    public static final int COMP_LEVEL_COMPILED = 2;
+
+    private static final String[] LEVEL_NAMES = {"解释执行", "快速指令", "编译执行"};
+
+    private static final CompilationPolicy policy = new CompilationPolicy();
+
+    private final int tier1InvocationThreshold = Globals.Tier1InvocationThreshold;
+    private final int tier1BackedgeThreshold = Globals.Tier1BackedgeThreshold;
+    private final int tier2InvocationThreshold = Globals.Tier2InvocationThreshold;
+    private final int tier2BackedgeThreshold = Globals.Tier2BackedgeThreshold;
+
+    // 计数的半衰期，纳秒。不衰减时为0
+    private final long halfLife = Globals.UseCounterDecay ? Globals.CounterHalfLifeTime * 1_000_000_000L : 0;
+
+    // 开启了PrintTieredStatistics时，记录执行过的方法，退出时打印。按引用判断是否已经记录
+    private final Set<MethodInfo> methods = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private CompilationPolicy() {
+        if (Globals.PrintTieredStatistics) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> print(System.err)));
+        }
+    }
+
+    public static CompilationPolicy policy() {
+        return policy;
+    }
+
+    /**
+     * 解释器调用方法
+     * @return 编译好的方法，还没有时为null
+     */
+    public NMethod invocationEvent(MethodInfo method) {
+        MethodCounters counters = counters(method);
+
+        int invocations = counters.getInvocationCounter().increment();
+
+        if (invocations < counters.getInvocationLimit() && counters.getBackedgeCounter().getCount() < counters.getBackedgeLimit()) {
+            return null;
+        }
+
+        return call(method, counters);
+    }
+
+    /**
+     * 解释器执行了一次往回跳的分支
+     * @param target 跳转目标，即循环入口的指令下标
+     * @return 从该循环入口开始的栈上替换版本，没有时为null
+     */
+    public NMethod backedgeEvent(MethodInfo method, int target) {
+        MethodCounters counters = counters(method);
+
+        int backedges = counters.getBackedgeCounter().increment();
+
+        if (null != method.getOsrNmethods()) {
+            NMethod osr = method.lookupOsrNmethod(target);
+            if (null != osr) {
+                return osr;
+            }
+        }
+
+        if (backedges < counters.getBackedgeLimit() && counters.getInvocationCounter().getCount() < counters.getInvocationLimit()) {
+            return null;
+        }
+
+        call(method, counters);
+
+        // 栈上替换只编译循环，和方法能不能整体编译、在哪一层无关
+        if (!osrEnabled(method) || counters.getBackedgeCounter().getCount() < counters.getOsrLimit()) {
+            return null;
+        }
+
+        return compileOsr(method, counters, target);
+    }
+
+    /**
+     * 编译栈上替换的版本。失败的，回边再执行一个阈值的次数后再试，因为被调用的方法还没编译好而失败的，每失败一次阈值加倍
+     */
+    private synchronized NMethod compileOsr(MethodInfo method, MethodCounters counters, int target) {
+        NMethod osr = CompileBroker.compileOsrMethod(method, target);
+
+        long backedges = (long) counters.getBackedgeCounter().getCount() + backoff(tier2BackedgeThreshold, method.getOsrCompileRetries());
+        counters.setOsrLimit((int) Math.min(backedges, Integer.MAX_VALUE));
+
+        updateLimits(method, counters);
+
+        return osr;
+    }
+
+    private static boolean osrEnabled(MethodInfo method) {
+        return Globals.UseCompiler && Globals.UseOnStackReplacement && !method.isNotOsrCompilable();
+    }
+
+    /**
+     * 按所在层级设置升级的阈值。编译不了的方法停在快速指令层
+     * 因为被调用的方法还没编译好而失败的，每失败一次编译的阈值加倍，见CompileBroker.compileMethod
+     * 回边的阈值不超过栈上替换的阈值，到了就通知策略
+     */
+    private void updateLimits(MethodInfo method, MethodCounters counters) {
+        int invocationLimit;
+        int backedgeLimit;
+
+        switch (method.getCompLevel()) {
+            case COMP_LEVEL_NONE:
+                invocationLimit = tier1InvocationThreshold;
+                backedgeLimit = tier1BackedgeThreshold;
+                break;
+            case COMP_LEVEL_QUICKENED:
+                if (Globals.UseCompiler && !method.isNotCompilable()) {
+                    int retries = method.getCompileRetries();
+                    invocationLimit = backoff(tier2InvocationThreshold, retries);
+                    backedgeLimit = backoff(tier2BackedgeThreshold, retries);
+                    break;
+                }
+
+                // 编译不了，和已经编译好的一样不再升级
+                invocationLimit = Integer.MAX_VALUE;
+                backedgeLimit = Integer.MAX_VALUE;
+                break;
+            default:
+                invocationLimit = Integer.MAX_VALUE;
+                backedgeLimit = Integer.MAX_VALUE;
+                break;
+        }
+
+        if (osrEnabled(method)) {
+            backedgeLimit = Math.min(backedgeLimit, counters.getOsrLimit());
+        }
+
+        counters.setLimits(invocationLimit, backedgeLimit);
+    }
+
+    private static int backoff(int threshold, int retries) {
+        return (int) Math.min((long) threshold << retries, Integer.MAX_VALUE);
+    }
+
+    private static boolean limitReached(MethodCounters counters) {
+        return counters.getInvocationCounter().getCount() >= counters.getInvocationLimit()
+                || counters.getBackedgeCounter().getCount() >= counters.getBackedgeLimit();
+    }
+
+    /**
+     * 升一级。先按经过的时间衰减，衰减后还达到阈值才升级
+     */
+    private synchronized NMethod call(MethodInfo method, MethodCounters counters) {
+        // 别的线程已经升级过了，或者计数器刚创建还没设置阈值
+        updateLimits(method, counters);
+
+        if (0 != halfLife) {
+            counters.getInvocationCounter().decay(halfLife);
+            counters.getBackedgeCounter().decay(halfLife);
+        }
+
+        if (!limitReached(counters)) {
+            return method.getNmethod();
+        }
+
+        switch (method.getCompLevel()) {
+            case COMP_LEVEL_NONE: {
+                // 校验看到的是原始指令，链接时不合并，到这一层才合并
+                if (Globals.RewriteFrequentPairs) {
+                    Rewriter.rewriteFrequentPairs(method.getCodeAttribute().getInstructions());
+                }
+
+                method.setCompLevel(COMP_LEVEL_QUICKENED);
+
+                if (Globals.PrintCompilation) {
+                    System.out.println("升级到" + LEVEL_NAMES[COMP_LEVEL_QUICKENED] + ": " + CompileBroker.nameOf(method));
+                }
+
+                break;
+            }
+            case COMP_LEVEL_QUICKENED:
+                CompileBroker.compileMethod(method);
+                break;
+            default:
+                break;
+        }
+
+        updateLimits(method, counters);
+
+        return method.getNmethod();
+    }
+
+    private MethodCounters counters(MethodInfo method) {
+        MethodCounters counters = method.getMethodCounters();
+        if (null != counters) {
+            return counters;
+        }
+
+        if (Globals.PrintTieredStatistics) {
+            synchronized (methods) {
+                methods.add(method);
+            }
+        }
+
+        counters = method.methodCounters();
+        counters.setOsrLimit(tier2BackedgeThreshold);
+        updateLimits(method, counters);
+
+        return counters;
+    }
+
+    /**
+     * 打印各层级的方法数，以及每个方法的计数，按调用次数加回边次数从多到少
+     */
+    public void print(PrintStream out) {
+        List<MethodInfo> snapshot;
+        synchronized (methods) {
+            snapshot = new ArrayList<>(methods);
+        }
+
+        int[] levels = new int[LEVEL_NAMES.length];
+        for (MethodInfo method : snapshot) {
+            levels[method.getCompLevel()]++;
+        }
+
+        out.println("分层执行: 共 " + snapshot.size() + " 个方法执行过，"
+                + LEVEL_NAMES[COMP_LEVEL_NONE] + " " + levels[COMP_LEVEL_NONE] + " 个，"
+                + LEVEL_NAMES[COMP_LEVEL_QUICKENED] + " " + levels[COMP_LEVEL_QUICKENED] + " 个，"
+                + LEVEL_NAMES[COMP_LEVEL_COMPILED] + " " + levels[COMP_LEVEL_COMPILED] + " 个");
+
+        snapshot.sort(Comparator.comparingLong(CompilationPolicy::total).reversed());
+
+        for (MethodInfo method : snapshot) {
+            MethodCounters counters = method.getMethodCounters();
+
+            out.println(String.format("  %-8s invocations: %-10d backedges: %-10d %s",
+                    LEVEL_NAMES[method.getCompLevel()], counters.getInvocationCounter().getCount(),
+                    counters.getBackedgeCounter().getCount(), CompileBroker.nameOf(method)));
+        }
+    }
+
+    private static long total(MethodInfo method) {
+        MethodCounters counters = method.getMethodCounters();
+
+        return (long) counters.getInvocationCounter().getCount() + counters.getBackedgeCounter().getCount();
+    }
+}
@@ -0,0 +1,133 @@
+package com.czh.jvm.hotspot.src.share.vm.runtime;
+
+import com.czh.jvm.hotspot.src.share.vm.memory.AllStatic;
+
+/**
+ * 虚拟机参数，对应hotspot的globals.hpp
+ *
+ * 启动时通过系统属性设置，如：-DTraceBytecodes=true
+ * 都是static final，类初始化后就是常量，关闭时判断语句会被JIT整个优化掉
+ */
+public class Globals extends AllStatic {
+
+    /**
+     * 跟踪执行的每一条字节码指令，记录到环形缓冲区中，退出时打印
+     */
+    public static final boolean TraceBytecodes = Boolean.getBoolean("TraceBytecodes");
+
+    /**
+     * 环形缓冲区能保存的指令记录数，超过后覆盖最早的记录
+     */
+    public static final int TraceBytecodesBufferSize = Integer.getInteger("TraceBytecodesBufferSize", 4096);
+
+    /**
+     * 默认的类加载路径，多个路径用File.pathSeparator分隔，可以是目录或jar包
+     * 没有设置时和宿主java的类加载路径相同。启动参数中的-cp优先，见Main
+     */
+    public static final String ClassPath = System.getProperty("ClassPath", System.getProperty("java.class.path"));
+
+    /**
+     * 根类加载器的加载路径，应用类加载器加载类时先到这里找，默认为空
+     */
+    public static final String BootClassPath = System.getProperty("BootClassPath", "");
+
+    /**
+     * 启动时从main函数所在的类出发，按常量池中的类引用找出所有能用到的类，并行加载
+     */
+    public static final boolean PreloadClasses = Boolean.getBoolean("PreloadClasses");
+
+    /**
+     * 预加载使用的线程数
+     */
+    public static final int PreloadThreads = Integer.getInteger("PreloadThreads", Runtime.getRuntime().availableProcessors());
+
+    /**
+     * 延迟解析方法体：解析类文件时只记下Code属性的位置，第一次调用方法时才解析字节码和异常表
+     * 行号表、局部变量表、StackMapTable等调试用的属性第一次用到时才解析。关闭后和原来一样全部提前解析
+     */
+    public static final boolean LazyMethodParsing = Boolean.parseBoolean(System.getProperty("LazyMethodParsing", "true"));
+
+    /**
+     * 链接时用StackMapTable校验方法的字节码。通过校验的方法执行时操作数栈、局部变量表不再记录和检查类型
+     * 没通过(用到了校验器不认识的指令等)的方法照常按检查类型的方式执行
+     */
+    public static final boolean BytecodeVerification = Boolean.parseBoolean(System.getProperty("BytecodeVerification", "true"));
+
+    /**
+     * 需要解析的指令(getstatic、new、invokeXXX)第一次执行后改写成_fast指令，之后直接用解析结果
+     * 调试时可以关闭，每次执行都走原来的解析流程
+     */
+    public static final boolean RewriteBytecodes = Boolean.parseBoolean(System.getProperty("RewriteBytecodes", "true"));
+
+    /**
+     * 多态内联缓存最多记录的接收者类型数，超过后调用点变成megamorphic，见InlineCache
+     */
+    public static final int InlineCacheSize = Integer.getInteger("InlineCacheSize", 4);
+
+    /**
+     * 退出时打印每个调用点内联缓存的状态和命中、未命中次数
+     */
+    public static final boolean PrintInlineCacheStatistics = Boolean.getBoolean("PrintInlineCacheStatistics");
+
+    /**
+     * 方法升级到快速指令层时把常用的指令序列合并成超级指令，减少解释器的分派次数，见Rewriter.rewriteFrequentPairs
+     * 调试时可以关闭，按原始指令逐条执行
+     */
+    public static final boolean RewriteFrequentPairs = Boolean.parseBoolean(System.getProperty("RewriteFrequentPairs", "true"));
+
+    /**
+     * 把调用频繁的方法编译成宿主JVM的字节码，之后由宿主JVM执行，见CompileBroker
+     */
+    public static final boolean UseCompiler = Boolean.parseBoolean(System.getProperty("UseCompiler", "true"));
+
+    /**
+     * 栈上替换：解释执行的循环回边次数达到Tier2BackedgeThreshold后，只编译这个循环，
+     * 把正在执行的栈帧转到编译好的循环中继续执行，跳出循环后回到解释器，见BytecodeInterpreter.onStackReplace
+     */
+    public static final boolean UseOnStackReplacement = Boolean.parseBoolean(System.getProperty("UseOnStackReplacement", "true"));
+
+    /**
+     * 分层执行的阈值，见CompilationPolicy
+     * 调用次数、回边次数达到任一阈值后，从解释执行升级到快速指令(超级指令、_fast指令)
+     */
+    public static final int Tier1InvocationThreshold = Integer.getInteger("Tier1InvocationThreshold", 2);
+
+    public static final int Tier1BackedgeThreshold = Integer.getInteger("Tier1BackedgeThreshold", 100);
+
+    /**
+     * 调用次数、回边次数达到任一阈值后，从快速指令升级到编译执行
+     */
+    public static final int Tier2InvocationThreshold = Integer.getInteger("Tier2InvocationThreshold", 1000);
+
+    public static final int Tier2BackedgeThreshold = Integer.getInteger("Tier2BackedgeThreshold", 10000);
+
+    /**
+     * 计数随时间衰减，只有一段时间内执行频繁的方法才升级
+     */
+    public static final boolean UseCounterDecay = Boolean.parseBoolean(System.getProperty("UseCounterDecay", "true"));
+
+    /**
+     * 计数衰减的半衰期，秒
+     */
+    public static final int CounterHalfLifeTime = Integer.getInteger("CounterHalfLifeTime", 30);
+
+    /**
+     * 退出时打印各层级的方法数以及每个执行过的方法的调用次数、回边次数、所在层级
+     */
+    public static final boolean PrintTieredStatistics = Boolean.getBoolean("PrintTieredStatistics");
+
+    /**
+     * 每编译一个方法打印一行，编译失败的也打印原因
+     */
+    public static final boolean PrintCompilation = Boolean.getBoolean("PrintCompilation");
+
+    /**
+     * 共享存档文件。设置后启动时映射该文件，存档中有的类直接从存档加载，不再读取、解析类文件
+     */
+    public static final String SharedArchiveFile = System.getProperty("SharedArchiveFile");
+
+    /**
+     * main方法执行完后，把加载过的所有类写入该文件，下次启动通过SharedArchiveFile使用
+     */
+    public static final String ArchiveClassesAtExit = System.getProperty("ArchiveClassesAtExit");
+}
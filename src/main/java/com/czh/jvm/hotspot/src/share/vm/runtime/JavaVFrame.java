@@ -13,16 +13,30 @@ public class JavaVFrame extends VFrame {
     private StackValueCollection locals;
 
     //操作数栈
-    private StackValueCollection stack = new StackValueCollection();
+    private StackValueCollection stack;
 
     private MethodInfo ownerMethod;
 
-    public JavaVFrame(int maxLocals) {
-        locals = new StackValueCollection(maxLocals);
+    // 程序计数器：下一条要执行的指令在指令数组中的下标
+    private int pc;
+
+    public JavaVFrame(int maxLocals, int maxStack) {
+        locals = new CheckedStackValueCollection(maxLocals);
+        stack = new CheckedStackValueCollection(maxStack);
     }
 
-    public JavaVFrame(int maxLocals, MethodInfo methodInfo) {
-        locals = new StackValueCollection(maxLocals);
+    /**
+     * 方法的栈帧，方法必须已经预解码。通过了字节码校验的方法不检查类型，见Verifier
+     * 创建栈帧时一次选好实现，执行时不再判断是否要检查类型
+     */
+    public JavaVFrame(int maxLocals, int maxStack, MethodInfo methodInfo) {
+        if (methodInfo.getCodeAttribute().isVerified()) {
+            locals = new StackValueCollection(maxLocals);
+            stack = new StackValueCollection(maxStack);
+        } else {
+            locals = new CheckedStackValueCollection(maxLocals);
+            stack = new CheckedStackValueCollection(maxStack);
+        }
 
         ownerMethod = methodInfo;
     }
@@ -1,132 +1,245 @@
 package com.czh.jvm.hotspot.src.share.vm.runtime;
 
-import com.czh.jvm.hotspot.src.share.tools.DataTranslate;
 import com.czh.jvm.hotspot.src.share.vm.oops.ArrayOop;
-import com.czh.jvm.hotspot.src.share.vm.utilities.BasicType;
-import lombok.Data;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.czh.jvm.hotspot.src.share.vm.oops.MethodInfo;
+
+/**
+ * 模拟操作数栈、局部变量表
+ *
+ * 按槽位(slot)存储，数组在创建栈帧时按maxStack、maxLocals一次分配好，执行过程中不再创建对象：
+ *  1、int、float、long、double等基本类型存在slots中，float、double存的是原始的二进制位
+ *  2、引用类型存在refs中
+ *
+ * 和JVM规范一致，long、double占两个槽位，值存在低位的槽位
+ *
+ * 本类不记录、不检查类型，给通过了字节码校验的方法用，类型在链接时已经检查过，见Verifier
+ * 没有通过校验的方法用CheckedStackValueCollection，每个槽位记录类型，执行时检查，见JavaVFrame
+ *
+ * 栈帧的生命周期可能很长，出栈的引用要清掉，不然栈顶以上的对象一直回收不了
+ */
+public class StackValueCollection {
 
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
-import java.util.Stack;
+    final long[] slots;
 
+    final Object[] refs;
 
-@Data
-public class StackValueCollection {
+    /**
+     * 作为操作数栈使用时，指向下一个可用的槽位
+     */
+    int top;
+
+    public StackValueCollection(int size) {
+        slots = new long[size];
+        refs = new Object[size];
+    }
+
+    // ==================== 操作数栈 ====================
+
+    public void pushInt(int val) {
+        slots[top++] = val;
+    }
+
+    public int popInt() {
+        return (int) slots[--top];
+    }
+
+    public void pushFloat(float val) {
+        slots[top++] = Float.floatToRawIntBits(val);
+    }
+
+    public float popFloat() {
+        return Float.intBitsToFloat((int) slots[--top]);
+    }
+
+    public void pushLong(long val) {
+        slots[top] = val;
+        top += 2;
+    }
+
+    public long popLong() {
+        top -= 2;
 
-    private Logger logger = LoggerFactory.getLogger(StackValueCollection.class);
+        return slots[top];
+    }
 
     /**
-     * 模拟操作数栈
+     * 一个double占两个单元
      */
-    private Stack<StackValue> container = new Stack<>();
+    public void pushDouble(double val) {
+        slots[top] = Double.doubleToRawLongBits(val);
+        top += 2;
+    }
 
-    public StackValueCollection() {
+    public double popDouble() {
+        top -= 2;
+
+        return Double.longBitsToDouble(slots[top]);
     }
 
-    public void push(StackValue value) {
-        getContainer().push(value);
+    public void pushObject(Object val) {
+        refs[top++] = val;
     }
 
-    public void pushInt(int val, JavaVFrame frame) {
-        frame.getStack().push(new StackValue(BasicType.T_INT, val));
+    public Object popObject() {
+        Object val = refs[--top];
+        refs[top] = null;
+
+        return val;
     }
-    public void pushObject(Object val, JavaVFrame frame) {
-        frame.getStack().push(new StackValue(BasicType.T_OBJECT, val));
+
+    public void pushNull() {
+        pushObject(null);
     }
 
+    public void pushArray(ArrayOop array) {
+        pushObject(array);
+    }
+
+    public ArrayOop popArray() {
+        return (ArrayOop) popObject();
+    }
 
-    public StackValue pop() {
-        return getContainer().pop();
+    public Object peekObject() {
+        return refs[top - 1];
     }
 
     /**
-     * 因为一个double占两个单元
-     * 所以取的时候要连续取两个，并合并成double
-     * @return
+     * 按离栈顶的距离读取，不出栈。offset是从值所在的(低位)槽位到栈顶的槽位数，栈顶的int为1，栈顶的long为2
+     * 调用java体系的方法时，直接从操作数栈读取参数，见JavaCallBridge
      */
-    public double popDouble() {
-        ByteBuffer buffer = ByteBuffer.allocate(8);
+    public int peekInt(int offset) {
+        return getInt(top - offset);
+    }
 
-        StackValue value1 = pop();
-        StackValue value2 = pop();
+    public float peekFloat(int offset) {
+        return getFloat(top - offset);
+    }
 
-        if (value1.getType() != BasicType.T_DOUBLE || value2.getType() != BasicType.T_DOUBLE) {
-            throw new Error("类型检查不通过");
-        }
+    public long peekLong(int offset) {
+        return getLong(top - offset);
+    }
 
-        buffer.putInt(value2.getVal(), value1.getVal());
+    public double peekDouble(int offset) {
+        return getDouble(top - offset);
+    }
 
-        return buffer.getDouble();
+    public Object peekObject(int offset) {
+        return getObject(top - offset);
     }
 
     /**
-     * 一个double用两个int存储
-     * @param val
+     * 替换栈顶的引用
      */
-    public void pushDouble(double val) {
-        byte[] bytes = DataTranslate.doubleToBytes(val);
+    public void setTopObject(Object val) {
+        refs[top - 1] = val;
+    }
 
-        ByteBuffer buffer = ByteBuffer.wrap(bytes,0,8);
+    /**
+     * 复制栈顶的n个槽位，并压入栈顶(dup、dup2)
+     */
+    public void dup(int n) {
+        System.arraycopy(slots, top - n, slots, top, n);
+        System.arraycopy(refs, top - n, refs, top, n);
 
-        push(new StackValue(BasicType.T_DOUBLE, buffer.getInt(0)));
+        top += n;
+    }
 
-        // 为了后面取数据
-        buffer.order(ByteOrder.LITTLE_ENDIAN);
+    /**
+     * 丢弃栈顶的n个槽位
+     */
+    public void drop(int n) {
+        clearRefs(top - n, top);
 
-        push(new StackValue(BasicType.T_DOUBLE, buffer.getInt(4)));
+        top -= n;
     }
 
-    public StackValue[] popDouble2() {
-        StackValue[] ret = new StackValue[2];
+    public int size() {
+        return top;
+    }
 
-        ret[0] = pop();
-        ret[1] = pop();
+    // ==================== 局部变量表 ====================
 
-        return ret;
+    public int getInt(int index) {
+        return (int) slots[index];
     }
 
-    public StackValue peek() {
-        return getContainer().peek();
+    public void setInt(int index, int val) {
+        slots[index] = val;
     }
 
-    /**
-     *  模拟局部变量表
-     */
-    private int maxLocals;
-    private int index;
-    private StackValue[] locals;
+    public float getFloat(int index) {
+        return Float.intBitsToFloat((int) slots[index]);
+    }
 
-    public StackValueCollection(int size) {
-        maxLocals = size;
+    public void setFloat(int index, float val) {
+        slots[index] = Float.floatToRawIntBits(val);
+    }
 
-        locals = new StackValue[size];
+    public long getLong(int index) {
+        return slots[index];
     }
 
-    public void add(int index, StackValue value) {
-        getLocals()[index] = value;
+    public void setLong(int index, long val) {
+        slots[index] = val;
     }
 
-    public StackValue get(int index) {
-        return getLocals()[index];
+    public double getDouble(int index) {
+        return Double.longBitsToDouble(slots[index]);
     }
 
-    public void pushNull(JavaVFrame frame) {
-        frame.getStack().push(new StackValue(BasicType.T_OBJECT, null));
+    public void setDouble(int index, double val) {
+        slots[index] = Double.doubleToRawLongBits(val);
     }
 
-    public void pushArray(ArrayOop array, JavaVFrame frame) {
-        frame.getStack().push(new StackValue(BasicType.T_ARRAY, array));
+    public Object getObject(int index) {
+        return refs[index];
     }
 
-    public ArrayOop popArray(JavaVFrame frame) {
-        StackValue value = frame.getStack().pop();
+    public void setObject(int index, Object val) {
+        refs[index] = val;
+    }
 
-        if (BasicType.T_ARRAY != value.getType()) {
-            throw new Error("类型检查不通过");
-        }
+    /**
+     * 方法调用传参：把调用者操作数栈栈顶的n个槽位原样搬到局部变量表的[0, n)
+     * @param callee 被调用的方法，记录类型的局部变量表按它补上调用者没有的类型
+     */
+    public void transferFrom(StackValueCollection stack, int n, MethodInfo callee) {
+        stack.top -= n;
+
+        System.arraycopy(stack.slots, stack.top, slots, 0, n);
+        System.arraycopy(stack.refs, stack.top, refs, 0, n);
+        stack.clearRefs(stack.top, stack.top + n);
+    }
+
+    /**
+     * 方法返回：把被调用者操作数栈栈顶的n个槽位(返回值)压入当前栈
+     * @param type 返回值的类型，记录类型的操作数栈按它补上被调用者没有的类型
+     */
+    public void pushFrom(StackValueCollection stack, int n, int type) {
+        stack.top -= n;
+
+        System.arraycopy(stack.slots, stack.top, slots, top, n);
+        System.arraycopy(stack.refs, stack.top, refs, top, n);
+        stack.clearRefs(stack.top, stack.top + n);
+
+        top += n;
+    }
 
-        return (ArrayOop) value.getObject();
+    /**
+     * 进入异常处理器前清空操作数栈
+     */
+    public void clear() {
+        clearRefs(0, top);
+
+        top = 0;
+    }
+
+    /**
+     * 清掉[from, to)的引用
+     */
+    void clearRefs(int from, int to) {
+        for (int i = from; i < to; i++) {
+            refs[i] = null;
+        }
     }
 }
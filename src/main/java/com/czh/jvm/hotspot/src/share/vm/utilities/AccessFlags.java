@@ -1,10 +1,13 @@
 package com.czh.jvm.hotspot.src.share.vm.utilities;
 
+import com.czh.jvm.hotspot.src.share.vm.memory.MetaspaceObj;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 
 
 @Data
-public class AccessFlags {
+@EqualsAndHashCode(callSuper = false)
+public class AccessFlags extends MetaspaceObj {
 
     private int flag;
 
@@ -12,7 +15,30 @@ public class AccessFlags {
         this.flag = flag;
     }
 
+    public boolean isPublic() {
+        return (flag & BasicType.JVM_ACC_PUBLIC) != 0;
+    }
+
+    public boolean isProtected() {
+        return (flag & BasicType.JVM_ACC_PROTECTED) != 0;
+    }
+
+    /**
+     * 包内可见：public、protected、private都没有
+     */
+    public boolean isPackagePrivate() {
+        return (flag & (BasicType.JVM_ACC_PUBLIC | BasicType.JVM_ACC_PROTECTED | BasicType.JVM_ACC_PRIVATE)) == 0;
+    }
+
     public boolean isStatic() {
         return (flag & BasicType.JVM_ACC_STATIC) != 0;
     }
+
+    public boolean isPrivate() {
+        return (flag & BasicType.JVM_ACC_PRIVATE) != 0;
+    }
+
+    public boolean isAbstract() {
+        return (flag & BasicType.JVM_ACC_ABSTRACT) != 0;
+    }
 }
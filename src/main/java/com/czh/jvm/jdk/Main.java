@@ -1,20 +1,45 @@
 package com.czh.jvm.jdk;
 
 import com.czh.jvm.hotspot.src.share.vm.classfile.BootClassLoader;
+import com.czh.jvm.hotspot.src.share.vm.classfile.ClassPreloader;
+import com.czh.jvm.hotspot.src.share.vm.memory.MetaspaceShared;
 import com.czh.jvm.hotspot.src.share.vm.oops.InstanceKlass;
 import com.czh.jvm.hotspot.src.share.vm.oops.MethodInfo;
 import com.czh.jvm.hotspot.src.share.vm.prims.JavaNativeInterface;
+import com.czh.jvm.hotspot.src.share.vm.runtime.Globals;
 import com.czh.jvm.hotspot.src.share.vm.runtime.JavaThread;
 import com.czh.jvm.hotspot.src.share.vm.runtime.Threads;
 
 public class Main {
+    /**
+     * 启动参数：[-cp 类加载路径] [main函数所在的类]
+     *  类加载路径也可以通过-DClassPath设置，都没有设置时用宿主java的类加载路径
+     *  -DPreloadClasses=true 执行前并行加载所有用到的类
+     *  -DArchiveClassesAtExit=文件 执行完后写入共享存档，之后用-DSharedArchiveFile=文件启动
+     */
     public static void main(String[] args) {
-        startJVM();
+        String mainClass = "com.czh.demo.TestException.TestError";
+
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-cp") || args[i].equals("-classpath")) {
+                BootClassLoader.setClassPath(args[++i]);
+            } else {
+                mainClass = args[i];
+            }
+        }
+
+        startJVM(mainClass);
     }
 
-    private static void startJVM() {
+    private static void startJVM(String mainClass) {
         // 通过AppClassLoader加载main函数所在的类
-        InstanceKlass mainKlass = BootClassLoader.loadMainKlass("com.czh.demo.TestException.TestError");
+        InstanceKlass mainKlass = BootClassLoader.loadMainKlass(mainClass);
+
+        // 并行加载main函数所在的类用到的所有类
+        if (Globals.PreloadClasses) {
+            ClassPreloader.preload(mainKlass);
+        }
+
         // 找到main方法
         MethodInfo mainMethod = JavaNativeInterface.getMethodID(mainKlass,"main", "([Ljava/lang/String;)V");
 
@@ -26,5 +51,10 @@ public class Main {
 
         // 执行main方法
         JavaNativeInterface.callStaticMethod(mainMethod);
+
+        // 加载过的类写入共享存档
+        if (null != Globals.ArchiveClassesAtExit) {
+            MetaspaceShared.dump(Globals.ArchiveClassesAtExit);
+        }
     }
 }